@@ -0,0 +1,77 @@
+package org.example.eventgenerator.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.eventgenerator.entity.Event;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Processed events by id, for the single-event lookup. An event changes exactly once, when its
+ * confirmation marks it processed, so only processed events are cached and entries never go stale.
+ *
+ * <p>Memory is capped by {@code maxBytes}, an estimate of what the cached events retain: the
+ * text columns at a byte per character plus a fixed per-entry overhead.
+ */
+public class ProcessedEventCache implements MeterBinder {
+
+    // Entity, UUID, two LocalDateTimes, Boolean, string headers and the cache's map nodes.
+    static final int ENTRY_OVERHEAD_BYTES = 448;
+
+    // Typical event size, used to size the frequency sketch.
+    private static final int EXPECTED_ENTRY_BYTES = 1024;
+
+    private final WeightedLfuCache<UUID, Event> byId;
+
+    public ProcessedEventCache(long maxBytes) {
+        this.byId = new WeightedLfuCache<>(maxBytes, (int) Math.min(Integer.MAX_VALUE, maxBytes / EXPECTED_ENTRY_BYTES),
+                ProcessedEventCache::weigh, (id, event) -> { });
+    }
+
+    public Event get(UUID id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Caches {@code event} if it has been processed; unprocessed events are left to the database.
+     */
+    public void putIfProcessed(Event event) {
+        if (Boolean.TRUE.equals(event.getIsProcessed())) {
+            byId.put(event.getId(), event);
+        }
+    }
+
+    /**
+     * Registered automatically: Spring Boot binds every MeterBinder bean.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new WeightedLfuCacheMetrics(byId, "processed-events", Tags.empty()).bindTo(registry);
+    }
+
+    static long weigh(Event event) {
+        return ENTRY_OVERHEAD_BYTES + length(event.getPayload())
+                + length(event.getEventType()) + length(event.getServiceName());
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    public Map<String, Object> getStats() {
+        long hits = byId.hitCount();
+        long lookups = hits + byId.missCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", byId.size());
+        stats.put("weightBytes", byId.weight());
+        stats.put("maxWeightBytes", byId.maxWeight());
+        stats.put("hits", hits);
+        stats.put("misses", byId.missCount());
+        stats.put("hitRate", lookups > 0 ? (double) hits / lookups : 0.0);
+        stats.put("evictions", byId.evictionCount());
+        return stats;
+    }
+}
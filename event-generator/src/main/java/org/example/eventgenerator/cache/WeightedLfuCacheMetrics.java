@@ -0,0 +1,67 @@
+package org.example.eventgenerator.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * The standard cache.gets / cache.puts / cache.evictions / cache.size meters for a
+ * {@link WeightedLfuCache}, plus its weight against the configured cap.
+ */
+public class WeightedLfuCacheMetrics extends CacheMeterBinder<WeightedLfuCache<?, ?>> {
+
+    public WeightedLfuCacheMetrics(WeightedLfuCache<?, ?> cache, String cacheName, Iterable<Tag> tags) {
+        super(cache, cacheName, tags);
+    }
+
+    @Override
+    protected Long size() {
+        WeightedLfuCache<?, ?> cache = getCache();
+        return cache != null ? cache.size() : null;
+    }
+
+    @Override
+    protected long hitCount() {
+        WeightedLfuCache<?, ?> cache = getCache();
+        return cache != null ? cache.hitCount() : 0;
+    }
+
+    @Override
+    protected Long missCount() {
+        WeightedLfuCache<?, ?> cache = getCache();
+        return cache != null ? cache.missCount() : null;
+    }
+
+    @Override
+    protected Long evictionCount() {
+        WeightedLfuCache<?, ?> cache = getCache();
+        return cache != null ? cache.evictionCount() : null;
+    }
+
+    @Override
+    protected long putCount() {
+        WeightedLfuCache<?, ?> cache = getCache();
+        return cache != null ? cache.putCount() : 0;
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.weight", this, metrics -> {
+                    WeightedLfuCache<?, ?> cache = metrics.getCache();
+                    return cache != null ? cache.weight() : Double.NaN;
+                })
+                .tags(getTagsWithCacheName())
+                .baseUnit("bytes")
+                .description("Estimated bytes retained by the cached entries")
+                .register(registry);
+        Gauge.builder("cache.max.weight", this, metrics -> {
+                    WeightedLfuCache<?, ?> cache = metrics.getCache();
+                    return cache != null ? cache.maxWeight() : Double.NaN;
+                })
+                .tags(getTagsWithCacheName())
+                .baseUnit("bytes")
+                .description("Configured cap on the bytes retained by the cache")
+                .register(registry);
+    }
+}
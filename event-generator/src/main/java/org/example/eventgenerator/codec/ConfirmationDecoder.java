@@ -0,0 +1,56 @@
+package org.example.eventgenerator.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.example.eventgenerator.dto.ConfirmationMessageDTO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes events.processed values straight from the raw Kafka bytes, either with a JSON
+ * reader built once at startup or with the binary layout, depending on the record's
+ * {@link WireFormat}.
+ */
+public class ConfirmationDecoder {
+
+    private final ObjectReader reader;
+
+    public ConfirmationDecoder(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(ConfirmationMessageDTO.class);
+    }
+
+    public ConfirmationMessageDTO decode(byte[] value, WireFormat format) throws IOException {
+        return format == WireFormat.BINARY ? fromBinary(value) : reader.readValue(value);
+    }
+
+    static ConfirmationMessageDTO fromBinary(byte[] value) {
+        CompactBinaryReader in = new CompactBinaryReader(value);
+        byte kind = in.readHeader(WireFormat.BINARY_VERSION);
+
+        ConfirmationMessageDTO message = new ConfirmationMessageDTO();
+        if (kind == WireFormat.KIND_CONFIRMATION) {
+            message.setOriginalEventId(in.readUuid());
+            message.setRegisteredEventId(in.readUuid());
+            message.setStatus(in.readString());
+            message.setProcessedAt(in.readTimestamp());
+            message.setRegistryServiceName(in.readString());
+            return message;
+        }
+        if (kind != WireFormat.KIND_CONFIRMATION_BATCH) {
+            throw new IllegalArgumentException("Unexpected binary record kind on events.processed: " + kind);
+        }
+
+        message.setStatus(in.readString());
+        message.setRegistryServiceName(in.readString());
+        int count = in.readVarInt();
+        List<ConfirmationMessageDTO.Confirmation> confirmations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            confirmations.add(new ConfirmationMessageDTO.Confirmation(
+                    in.readUuid(), in.readUuid(), in.readTimestamp()));
+        }
+        message.setConfirmations(confirmations);
+        return message;
+    }
+}
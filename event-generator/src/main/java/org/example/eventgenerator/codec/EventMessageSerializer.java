@@ -0,0 +1,62 @@
+package org.example.eventgenerator.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.example.eventgenerator.dto.EventMessage;
+
+/**
+ * Writes events.created values in the configured {@link WireFormat} and tags each record
+ * with the format header.
+ */
+public class EventMessageSerializer implements Serializer<EventMessage> {
+
+    private final WireFormat format;
+    private final ObjectWriter jsonWriter;
+
+    public EventMessageSerializer(WireFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        // Same ISO timestamps the Spring JsonSerializer produced
+        this.jsonWriter = objectMapper.writerFor(EventMessage.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, EventMessage data) {
+        if (data == null) {
+            return null;
+        }
+        headers.remove(WireFormat.HEADER);
+        headers.add(WireFormat.HEADER, format.headerBytes());
+        return format == WireFormat.BINARY ? toBinary(data) : serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, EventMessage data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return jsonWriter.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Can't serialize event " + data.getEventId(), e);
+        }
+    }
+
+    static byte[] toBinary(EventMessage message) {
+        int payloadLength = message.getPayload() != null ? message.getPayload().length() : 0;
+        CompactBinaryWriter writer = new CompactBinaryWriter(64 + payloadLength);
+        writer.writeByte(WireFormat.BINARY_VERSION);
+        writer.writeByte(WireFormat.KIND_EVENT_MESSAGE);
+        writer.writeUuid(message.getEventId());
+        writer.writeString(message.getEventType());
+        writer.writeString(message.getServiceName());
+        writer.writeString(message.getPayload());
+        writer.writeTimestamp(message.getCreatedAt());
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.eventgenerator.codec;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoding of a Kafka record value, announced in the {@value #HEADER} header. Records
+ * without the header are JSON, so consumers can be upgraded before producers switch.
+ */
+public enum WireFormat {
+    JSON("json"),
+    BINARY("binary");
+
+    public static final String HEADER = "wire-format";
+
+    // Layout of binary values: [version][kind][fields...]
+    static final byte BINARY_VERSION = 1;
+    static final byte KIND_EVENT_MESSAGE = 1;
+    static final byte KIND_CONFIRMATION = 2;
+    static final byte KIND_CONFIRMATION_BATCH = 3;
+
+    private final String headerValue;
+    private final byte[] headerBytes;
+
+    WireFormat(String headerValue) {
+        this.headerValue = headerValue;
+        this.headerBytes = headerValue.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public byte[] headerBytes() {
+        return headerBytes.clone();
+    }
+
+    public static WireFormat of(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(HEADER) : null;
+        return header != null ? of(header.value()) : JSON;
+    }
+
+    public static WireFormat of(byte[] headerValue) {
+        if (headerValue != null && BINARY.headerValue.equals(new String(headerValue, StandardCharsets.UTF_8))) {
+            return BINARY;
+        }
+        return JSON;
+    }
+
+    public static WireFormat fromProperty(String value) {
+        for (WireFormat format : values()) {
+            if (format.headerValue.equalsIgnoreCase(value) || format.name().equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown wire format: " + value + " (expected json or binary)");
+    }
+}
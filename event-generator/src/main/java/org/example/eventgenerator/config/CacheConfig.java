@@ -0,0 +1,18 @@
+package org.example.eventgenerator.config;
+
+import org.example.eventgenerator.cache.ProcessedEventCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${event.cache.events.max-bytes:67108864}")
+    private long eventCacheMaxBytes;
+
+    @Bean
+    public ProcessedEventCache processedEventCache() {
+        return new ProcessedEventCache(eventCacheMaxBytes);
+    }
+}
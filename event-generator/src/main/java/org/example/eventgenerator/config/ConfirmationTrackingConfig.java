@@ -0,0 +1,26 @@
+package org.example.eventgenerator.config;
+
+import org.example.eventgenerator.tracking.PendingConfirmationTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ConfirmationTrackingConfig {
+
+    @Value("${event.confirmations.tracking.timeout-ms:60000}")
+    private long timeoutMs;
+
+    @Value("${event.confirmations.tracking.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${event.confirmations.tracking.wheel-size:128}")
+    private int wheelSize;
+
+    @Bean
+    public PendingConfirmationTracker pendingConfirmationTracker() {
+        return new PendingConfirmationTracker(Duration.ofMillis(timeoutMs), Duration.ofMillis(tickMs), wheelSize);
+    }
+}
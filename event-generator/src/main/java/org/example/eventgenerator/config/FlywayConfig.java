@@ -0,0 +1,69 @@
+package org.example.eventgenerator.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.springframework.boot.flyway.autoconfigure.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Before the generator kept its history in its own table, Flyway recorded V1 in the default
+ * flyway_schema_history. On such a database the generator's rows are copied into its own
+ * table before migrating, so the history carries on instead of being baselined again at
+ * version 0 next to an orphaned table. The old table is left in place for older releases.
+ */
+@Configuration
+@Slf4j
+public class FlywayConfig {
+
+    static final String LEGACY_HISTORY_TABLE = "flyway_schema_history";
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy() {
+        return flyway -> {
+            adoptLegacyHistory(flyway);
+            flyway.migrate();
+        };
+    }
+
+    private void adoptLegacyHistory(Flyway flyway) {
+        DataSource dataSource = flyway.getConfiguration().getDataSource();
+        String table = flyway.getConfiguration().getTable();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (table.equals(LEGACY_HISTORY_TABLE) || exists(jdbcTemplate, table)
+                || !exists(jdbcTemplate, LEGACY_HISTORY_TABLE)) {
+            return;
+        }
+
+        // Filtered to the generator's own scripts in case anything else ever shared the default table.
+        List<String> scripts = Arrays.stream(flyway.info().all())
+                .map(MigrationInfo::getScript)
+                .filter(Objects::nonNull)
+                .toList();
+        if (scripts.isEmpty()) {
+            return;
+        }
+
+        Integer copied = new TransactionTemplate(new DataSourceTransactionManager(dataSource)).execute(status -> {
+            jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE " + LEGACY_HISTORY_TABLE + " INCLUDING ALL)");
+            return jdbcTemplate.update("INSERT INTO " + table + " SELECT * FROM " + LEGACY_HISTORY_TABLE
+                            + " WHERE script IN (" + String.join(", ", Collections.nCopies(scripts.size(), "?")) + ")",
+                    scripts.toArray());
+        });
+        log.info("🗂️ Copied {} Flyway history rows from {} into {}", copied, LEGACY_HISTORY_TABLE, table);
+    }
+
+    private static boolean exists(JdbcTemplate jdbcTemplate, String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+}
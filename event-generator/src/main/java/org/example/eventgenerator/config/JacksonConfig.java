@@ -2,16 +2,31 @@ package org.example.eventgenerator.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.eventgenerator.codec.ConfirmationDecoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class JacksonConfig {
 
+    @Value("${event.json.blackbird.enabled:true}")
+    private boolean blackbirdEnabled;
+
     @Bean
     public ObjectMapper objectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
+        if (blackbirdEnabled) {
+            // Replaces reflective setter calls with generated lambdas
+            objectMapper.registerModule(new BlackbirdModule());
+        }
         return objectMapper;
     }
+
+    @Bean
+    public ConfirmationDecoder confirmationDecoder() {
+        return new ConfirmationDecoder(objectMapper());
+    }
 }
@@ -0,0 +1,25 @@
+package org.example.eventgenerator.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs producer send callbacks. In virtual-thread mode every callback gets its own
+ * virtual thread so callbacks can never block the producer's network thread;
+ * otherwise callbacks run inline on the completing thread, as before.
+ */
+public class KafkaCallbackExecutor implements Executor {
+
+    private final Executor delegate;
+
+    public KafkaCallbackExecutor(boolean virtualThreads) {
+        this.delegate = virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("kafka-callback-", 0).factory())
+                : Runnable::run;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(command);
+    }
+}
@@ -1,15 +1,19 @@
 package org.example.eventgenerator.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.eventgenerator.codec.EventMessageSerializer;
+import org.example.eventgenerator.codec.WireFormat;
 import org.example.eventgenerator.dto.EventMessage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,22 +24,61 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${event.kafka.partitions:6}")
+    private int partitions;
+
+    @Value("${event.kafka.wire-format:json}")
+    private String wireFormat;
+
+    @Value("${event.kafka.key-strategy:eventId}")
+    private String keyStrategy;
+
+    @Value("${event.kafka.compression:none}")
+    private String compression;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public NewTopic eventsCreatedTopic() {
+        // Partitions bound the registry's consumer parallelism; KafkaAdmin only ever grows them.
+        return TopicBuilder.name("events.created")
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
-    public ProducerFactory<String, EventMessage> producerFactory() {
+    public ProducerFactory<String, EventMessage> producerFactory(ObjectMapper objectMapper) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.CLIENT_ID_CONFIG, "event-generator-producer");
+        // Whole producer batches are compressed; consumers decompress transparently.
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(),
+                new EventMessageSerializer(WireFormat.fromProperty(wireFormat), objectMapper));
+    }
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+    @Bean
+    public KafkaTemplate<String, EventMessage> kafkaTemplate(ProducerFactory<String, EventMessage> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
+    }
+
+    /**
+     * Resolved once so that an unknown {@code event.kafka.key-strategy} stops startup instead of
+     * failing every send.
+     */
+    @Bean
+    public PartitionKeyStrategy partitionKeyStrategy() {
+        return PartitionKeyStrategy.fromProperty(keyStrategy);
     }
 
     @Bean
-    public KafkaTemplate<String, EventMessage> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaCallbackExecutor kafkaCallbackExecutor() {
+        return new KafkaCallbackExecutor(virtualThreads);
     }
 }
@@ -1,14 +1,19 @@
 package org.example.eventgenerator.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,24 +25,52 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${event.confirmations.retry.initial-interval-ms:1000}")
+    private long retryInitialIntervalMs;
+
+    @Value("${event.confirmations.retry.max-interval-ms:60000}")
+    private long retryMaxIntervalMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
-    public ConsumerFactory<String, String> confirmationConsumerFactory() {
+    public ConsumerFactory<String, byte[]> confirmationConsumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "event-generator-confirmation-group");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Values are decoded from the raw bytes by ConfirmationDecoder
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
 
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String>
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]>
     confirmationKafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(confirmationConsumerFactory());
+        factory.setBatchListener(true);
+        // The listener acknowledges once its UPDATE has committed.
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        // A failed poll is retried until the UPDATE goes through: giving up would commit the
+        // offsets and leave those events unprocessed for good.
+        factory.setCommonErrorHandler(new DefaultErrorHandler(confirmationRetryBackOff()));
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor consumerExecutor = new SimpleAsyncTaskExecutor("confirmation-consumer-");
+            consumerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(consumerExecutor);
+        }
         return factory;
     }
+
+    private ExponentialBackOff confirmationRetryBackOff() {
+        ExponentialBackOff backOff = new ExponentialBackOff(retryInitialIntervalMs, 2.0);
+        backOff.setMaxInterval(retryMaxIntervalMs);
+        return backOff;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package org.example.eventgenerator.config;
+
+import org.example.eventgenerator.dto.EventMessage;
+
+import java.util.function.Function;
+
+/**
+ * Chooses the Kafka record key for events.created, and with it the partition.
+ * Records sharing a key are consumed in order by the registry.
+ */
+public enum PartitionKeyStrategy {
+
+    EVENT_ID("eventId", message -> String.valueOf(message.getEventId())),
+    SERVICE_NAME("serviceName", EventMessage::getServiceName),
+    EVENT_TYPE("eventType", EventMessage::getEventType);
+
+    private final String propertyValue;
+    private final Function<EventMessage, String> keyExtractor;
+
+    PartitionKeyStrategy(String propertyValue, Function<EventMessage, String> keyExtractor) {
+        this.propertyValue = propertyValue;
+        this.keyExtractor = keyExtractor;
+    }
+
+    public String keyFor(EventMessage message) {
+        return keyExtractor.apply(message);
+    }
+
+    /**
+     * Resolves {@code event.kafka.key-strategy}; accepts both {@code eventId} and {@code EVENT_ID}.
+     */
+    public static PartitionKeyStrategy fromProperty(String value) {
+        if (value == null || value.isBlank()) {
+            return EVENT_ID;
+        }
+        for (PartitionKeyStrategy strategy : values()) {
+            if (strategy.propertyValue.equalsIgnoreCase(value) || strategy.name().equalsIgnoreCase(value)) {
+                return strategy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown partition key strategy: " + value);
+    }
+}
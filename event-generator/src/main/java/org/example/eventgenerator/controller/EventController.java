@@ -1,14 +1,29 @@
 package org.example.eventgenerator.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.example.eventgenerator.dto.EventCounts;
+import org.example.eventgenerator.dto.EventSummary;
 import org.example.eventgenerator.entity.Event;
+import org.example.eventgenerator.service.EventConfirmationService;
 import org.example.eventgenerator.service.EventService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -16,23 +31,72 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class EventController {
 
+    private static final int MAX_SEARCH_LIMIT = 1000;
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     private final EventService eventService;
+    private final EventConfirmationService eventConfirmationService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("serviceName", "event-generator");
-        stats.put("totalEvents", eventService.getTotalEvents());
-        stats.put("processedEvents", eventService.getProcessedEventsCount());
-        stats.put("unprocessedEvents", eventService.getUnprocessedEventsCount());
+        EventCounts counts = eventService.getEventCounts();
+        stats.put("totalEvents", counts.total());
+        stats.put("processedEvents", counts.processed());
+        stats.put("unprocessedEvents", counts.unprocessed());
+        stats.put("byEventType", counts.byEventType());
+        stats.put("byServiceName", counts.byServiceName());
+        stats.put("confirmations", eventConfirmationService.getConfirmationStats());
+        stats.put("pendingConfirmations", eventConfirmationService.getPendingConfirmationStats());
+        stats.put("eventCache", eventService.getEventCacheStats());
+        stats.put("replica", eventService.getReplicaStats());
         stats.put("generationStatus", "ACTIVE");
         stats.put("timestamp", java.time.LocalDateTime.now());
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * List endpoints return {@link EventSummary} rows; {@code include=payload} asks for full
+     * events. Single-event lookups always include the payload.
+     */
+    private static Class<?> listView(Set<String> include) {
+        return include != null && include.contains("payload") ? Event.class : EventSummary.class;
+    }
+
+    /**
+     * Loads the whole table into memory; use {@code /export} for anything but small tables.
+     */
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<List<?>> getAllEvents(@RequestParam(name = "include", required = false) Set<String> include) {
+        return ResponseEntity.ok(eventService.getAllEvents(listView(include)));
+    }
+
+    /**
+     * Every event created within the optional range as NDJSON, one object per line in createdAt
+     * order. Rows are read through a database cursor and written as they arrive, so memory use
+     * does not depend on the number of rows.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam(name = "startDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(name = "endDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        ObjectWriter writer = objectMapper.writerFor(Event.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        StreamingResponseBody body = out -> eventService.exportEvents(startDate, endDate, event -> {
+            try {
+                out.write(writer.writeValueAsBytes(event));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
@@ -40,8 +104,12 @@ public class EventController {
         try {
             UUID uuid = UUID.fromString(id);
             Event event = eventService.getEventById(uuid);
+            if (event != null && Boolean.TRUE.equals(event.getIsProcessed())) {
+                // Final once processed: the id is a strong validator and the response may be kept for good.
+                return ResponseEntity.ok().eTag(event.getId().toString()).cacheControl(IMMUTABLE).body(event);
+            }
             if (event != null) {
-                return ResponseEntity.ok(event);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(event);
             }
             return ResponseEntity.notFound().build();
         } catch (IllegalArgumentException e) {
@@ -62,31 +130,42 @@ public class EventController {
     }
 
     @GetMapping("/processed/list")
-    public ResponseEntity<List<Event>> getProcessedEventsList() {
-        return ResponseEntity.ok(eventService.getProcessedEventsList());
+    public ResponseEntity<List<?>> getProcessedEventsList(
+            @RequestParam(name = "include", required = false) Set<String> include) {
+        return ResponseEntity.ok(eventService.getProcessedEventsList(listView(include)));
     }
 
     @GetMapping("/unprocessed/list")
-    public ResponseEntity<List<Event>> getUnprocessedEventsList() {
-        return ResponseEntity.ok(eventService.getUnprocessedEventsList());
+    public ResponseEntity<List<?>> getUnprocessedEventsList(
+            @RequestParam(name = "include", required = false) Set<String> include) {
+        return ResponseEntity.ok(eventService.getUnprocessedEventsList(listView(include)));
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchEvents(@RequestParam(name = "id", required = false) String partialId) {
+    public ResponseEntity<?> searchEvents(@RequestParam(name = "id", required = false) String partialId,
+                                          @RequestParam(name = "limit", defaultValue = "50") int limit,
+                                          @RequestParam(name = "include", required = false) Set<String> include) {
         if (partialId == null || partialId.trim().isEmpty()) {
             return ResponseEntity.badRequest().body("Parameter 'id' is required");
         }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest().body("Parameter 'limit' must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
 
         try {
             UUID uuid = UUID.fromString(partialId);
             Event event = eventService.getEventById(uuid);
+            if (event != null && Boolean.TRUE.equals(event.getIsProcessed())) {
+                // Final once processed: the id is a strong validator and the response may be kept for good.
+                return ResponseEntity.ok().eTag(event.getId().toString()).cacheControl(IMMUTABLE).body(event);
+            }
             if (event != null) {
-                return ResponseEntity.ok(event);
+                return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(event);
             }
             return ResponseEntity.notFound().build();
         } catch (IllegalArgumentException e) {
 
-            List<Event> events = eventService.searchEventsByPartialId(partialId);
+            List<?> events = eventService.searchEventsByPartialId(partialId, limit, listView(include));
             if (!events.isEmpty()) {
                 return ResponseEntity.ok(events);
             }
@@ -0,0 +1,84 @@
+package org.example.eventgenerator.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether read-only transactions may use the replica pool.
+ *
+ * <p>The replica is checked on a fixed delay and is usable while its replay lag is at most
+ * {@code maxLagMs}. It starts out unusable, so nothing reads from it before the first check
+ * has passed. A failed check or a connection failure seen by the routing data source takes
+ * it out until the next check succeeds. A database that is not in recovery has no lag, which
+ * lets the primary stand in for a replica.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // A replica that has replayed everything it received is caught up, however old its last replayed transaction.
+    private static final String LAG_MS_SQL =
+            "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END::bigint";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final long maxLagMs;
+
+    private volatile boolean usable;
+    private volatile long lagMs = -1;
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, long maxLagMs) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLagMs = maxLagMs;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${event.datasource.replica.lag-check-ms:5000}")
+    public void check() {
+        try {
+            Long lag = replicaJdbcTemplate.queryForObject(LAG_MS_SQL, Long.class);
+            lagMs = lag != null ? lag : 0;
+            update(lagMs <= maxLagMs, "lag " + lagMs + " ms, limit " + maxLagMs + " ms");
+        } catch (DataAccessException e) {
+            lagMs = -1;
+            update(false, e.getMessage());
+        }
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Called when a read-only transaction could not get a replica connection and fell back
+     * to the primary.
+     */
+    public void markUnavailable(Exception cause) {
+        fallbacks.incrementAndGet();
+        update(false, cause.getMessage());
+    }
+
+    private void update(boolean nowUsable, String reason) {
+        boolean wasUsable = usable;
+        usable = nowUsable;
+        if (wasUsable && !nowUsable) {
+            log.warn("⚠️ Replica taken out of read routing, reads go to the primary: {}", reason);
+        } else if (!wasUsable && nowUsable) {
+            log.info("📖 Replica back in read routing: {}", reason);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("usable", usable);
+        stats.put("lagMs", lagMs);
+        stats.put("maxLagMs", maxLagMs);
+        stats.put("connectionFallbacks", fallbacks.get());
+        return stats;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.eventgenerator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Either form of an events.processed record, decoded in one pass: a single confirmation
+ * fills the top-level event fields, a batched envelope fills {@code confirmations}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfirmationMessageDTO {
+    private UUID originalEventId;
+    private UUID registeredEventId;
+    private String status;
+    private LocalDateTime processedAt;
+    private String registryServiceName;
+    private List<Confirmation> confirmations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Confirmation {
+        private UUID originalEventId;
+        private UUID registeredEventId;
+        private LocalDateTime processedAt;
+    }
+}
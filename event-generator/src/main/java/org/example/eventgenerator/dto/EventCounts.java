@@ -0,0 +1,13 @@
+package org.example.eventgenerator.dto;
+
+import java.util.Map;
+
+/**
+ * Generated event counts from the counter table, overall and per event type and service name.
+ */
+public record EventCounts(long total, long processed, Map<String, Long> byEventType, Map<String, Long> byServiceName) {
+
+    public long unprocessed() {
+        return total - processed;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.eventgenerator.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A generated event without its payload; what the list endpoints return unless
+ * {@code include=payload} is given. Component names match the entity's attributes.
+ */
+public record EventSummary(
+        UUID id,
+        String eventType,
+        String serviceName,
+        LocalDateTime createdAt,
+        LocalDateTime processedAt,
+        Boolean isProcessed) {
+}
@@ -0,0 +1,131 @@
+package org.example.eventgenerator.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the generate → persist → publish pipeline and for applying
+ * confirmations. Per-event meters carry {@code eventType} and {@code serviceName}; timers
+ * publish histogram buckets so p99 can be computed in Prometheus.
+ *
+ * <p>Names and tags are part of the alerting contract: rename only together with the
+ * dashboards and alert rules that use them.
+ */
+@Component
+public class GeneratorMetrics {
+
+    private static final String PREFIX = "generator.";
+
+    private final MeterRegistry registry;
+
+    public GeneratorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Time of the insert into generated_events. */
+    public Timer persist(String eventType, String serviceName) {
+        return timer("event.persist", "Insert into generated_events", eventType, serviceName);
+    }
+
+    /** Time of a whole generation, from building the entity until the send was handed to Kafka. */
+    public Timer generate(String eventType, String serviceName) {
+        return timer("event.generate", "Event generation", eventType, serviceName);
+    }
+
+    /**
+     * Records the time from {@code send} until the broker acknowledged (or rejected) the record.
+     */
+    public void recordSendAck(String eventType, String serviceName, long sendStartedNanos, boolean success) {
+        Timer.builder(PREFIX + "event.kafka.send.ack")
+                .description("events.created send until broker ack")
+                .tags("eventType", eventType, "serviceName", serviceName, "outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - sendStartedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void countGenerated(String eventType, String serviceName) {
+        Counter.builder(PREFIX + "events.generated")
+                .description("Events persisted and handed to Kafka")
+                .tags("eventType", eventType, "serviceName", serviceName)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * @param stage generate, publish or confirmation
+     */
+    public void countError(String stage) {
+        Counter.builder(PREFIX + "errors")
+                .description("Failures per pipeline stage")
+                .tag("stage", stage)
+                .register(registry)
+                .increment();
+    }
+
+    /** Time of the set-based UPDATE that applies one poll of confirmations. */
+    public Timer confirmationApply() {
+        return Timer.builder(PREFIX + "confirmations.apply")
+                .description("Applying one poll of confirmations")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    public void recordConfirmationBatch(int confirmations) {
+        confirmationBatchSize().record(confirmations);
+    }
+
+    /**
+     * @param applied confirmations that marked an event processed
+     * @param ignored duplicates, redeliveries and confirmations for unknown events
+     */
+    public void countConfirmations(int applied, int ignored) {
+        appliedConfirmations().increment(applied);
+        ignoredConfirmations().increment(ignored);
+    }
+
+    public long getConfirmationsReceived() {
+        return (long) confirmationBatchSize().totalAmount();
+    }
+
+    public long getConfirmationsApplied() {
+        return (long) appliedConfirmations().count();
+    }
+
+    public long getConfirmationsIgnored() {
+        return (long) ignoredConfirmations().count();
+    }
+
+    private DistributionSummary confirmationBatchSize() {
+        return DistributionSummary.builder(PREFIX + "confirmations.batch.size")
+                .description("Confirmations per poll")
+                .baseUnit("confirmations")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Counter appliedConfirmations() {
+        return Counter.builder(PREFIX + "confirmations.applied")
+                .description("Confirmations that marked an event processed")
+                .register(registry);
+    }
+
+    private Counter ignoredConfirmations() {
+        return Counter.builder(PREFIX + "confirmations.ignored")
+                .description("Confirmations that matched no unprocessed event")
+                .register(registry);
+    }
+
+    private Timer timer(String name, String description, String eventType, String serviceName) {
+        return Timer.builder(PREFIX + name)
+                .description(description)
+                .tags("eventType", eventType, "serviceName", serviceName)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
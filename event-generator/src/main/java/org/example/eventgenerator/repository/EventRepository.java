@@ -8,11 +8,17 @@ import java.util.List;
 import java.util.UUID;
 
 @Repository
-public interface EventRepository extends JpaRepository<Event, UUID> {
+public interface EventRepository extends JpaRepository<Event, UUID>, EventRepositoryCustom {
 
     long countByIsProcessed(Boolean isProcessed);
 
-    List<Event> findByIsProcessedTrue();
+    /**
+     * Rows as {@code type}: {@link Event}, or {@link org.example.eventgenerator.dto.EventSummary},
+     * which selects only its own columns.
+     */
+    <T> List<T> findByIsProcessedTrue(Class<T> type);
 
-    List<Event> findByIsProcessedFalse();
+    <T> List<T> findByIsProcessedFalse(Class<T> type);
+
+    <T> List<T> findAllBy(Class<T> type);
 }
@@ -0,0 +1,49 @@
+package org.example.eventgenerator.repository;
+
+import org.example.eventgenerator.dto.EventCounts;
+import org.example.eventgenerator.dto.EventSummary;
+import org.example.eventgenerator.entity.Event;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface EventRepositoryCustom {
+
+    /**
+     * Marks the given events as processed with one set-based UPDATE. Each row keeps its
+     * own processedAt; events that are already processed or unknown are left untouched.
+     *
+     * @return number of rows actually updated
+     */
+    int markProcessed(Map<UUID, LocalDateTime> processedAtById);
+
+    /**
+     * Substring match on the id's text form, served by the trigram index from V2, as
+     * {@link Event} or {@link EventSummary}. {@code fragment} must not contain LIKE wildcards.
+     */
+    <T> List<T> findByIdFragment(String fragment, int limit, Class<T> type);
+
+    /**
+     * Streams events with createdAt in [startDate, endDate] (either bound optional), ordered by
+     * createdAt, through a forward-only cursor. Rows are mapped straight from the result set and
+     * never enter the persistence context. Must run inside a transaction for the fetch size to
+     * take effect.
+     */
+    void forEachEvent(LocalDateTime startDate, LocalDateTime endDate, Consumer<Event> action);
+
+    /**
+     * Counts one newly inserted event in the total, per-type and per-service counters.
+     * Must run in the transaction that inserted it.
+     */
+    void incrementGeneratedCounters(String eventType, String serviceName);
+
+    /**
+     * Must run in the transaction that marked the events processed.
+     */
+    void incrementProcessedCounter(long processed);
+
+    EventCounts readCounters();
+}
@@ -0,0 +1,188 @@
+package org.example.eventgenerator.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.eventgenerator.dto.EventCounts;
+import org.example.eventgenerator.dto.EventSummary;
+import org.example.eventgenerator.entity.Event;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class EventRepositoryImpl implements EventRepositoryCustom {
+
+    // Two array parameters regardless of batch size, so the statement is prepared once.
+    private static final String MARK_PROCESSED_SQL =
+            "UPDATE generated_events e " +
+            "SET is_processed = true, processed_at = c.processed_at " +
+            "FROM unnest(?::uuid[], ?::timestamp[]) AS c(id, processed_at) " +
+            "WHERE e.id = c.id AND e.is_processed = false";
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private static final String EVENT_COLUMNS =
+            "id, event_type, service_name, payload, created_at, processed_at, is_processed";
+    // Leaving out payload keeps list queries off its TOAST storage.
+    private static final String SUMMARY_COLUMNS =
+            "id, event_type, service_name, created_at, processed_at, is_processed";
+
+    private static final String COUNTER_TOTAL = "total";
+    private static final String COUNTER_PROCESSED = "processed";
+    private static final String COUNTER_EVENT_TYPE = "event_type";
+    private static final String COUNTER_SERVICE_NAME = "service_name";
+
+    // Concurrent transactions pick a random shard, so they rarely queue on the same counter row.
+    private static final int COUNTER_SHARDS = 16;
+
+    // Rows are upserted in (name, key) order so transactions lock shared shard rows in the same order.
+    private static final String INCREMENT_COUNTERS_SQL =
+            "INSERT INTO generated_event_counters AS c (counter_name, counter_key, shard, value) " +
+            "SELECT d.name, d.key, ?, d.delta FROM unnest(?::varchar[], ?::varchar[], ?::bigint[]) AS d(name, key, delta) " +
+            "ORDER BY d.name, d.key " +
+            "ON CONFLICT (counter_name, counter_key, shard) DO UPDATE SET value = c.value + EXCLUDED.value";
+
+    private static final RowMapper<Event> EVENT_ROW_MAPPER = (rs, rowNum) -> new Event(
+            rs.getObject("id", UUID.class),
+            rs.getString("event_type"),
+            rs.getString("service_name"),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("processed_at", LocalDateTime.class),
+            rs.getBoolean("is_processed"));
+
+    private static final RowMapper<EventSummary> SUMMARY_ROW_MAPPER = (rs, rowNum) -> new EventSummary(
+            rs.getObject("id", UUID.class),
+            rs.getString("event_type"),
+            rs.getString("service_name"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("processed_at", LocalDateTime.class),
+            rs.getBoolean("is_processed"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int markProcessed(Map<UUID, LocalDateTime> processedAtById) {
+        if (processedAtById.isEmpty()) {
+            return 0;
+        }
+
+        UUID[] ids = new UUID[processedAtById.size()];
+        Timestamp[] processedAts = new Timestamp[processedAtById.size()];
+        int i = 0;
+        for (Map.Entry<UUID, LocalDateTime> entry : processedAtById.entrySet()) {
+            ids[i] = entry.getKey();
+            processedAts[i] = entry.getValue() != null ? Timestamp.valueOf(entry.getValue()) : null;
+            i++;
+        }
+
+        return jdbcTemplate.update(MARK_PROCESSED_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("timestamp", processedAts));
+        });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> List<T> findByIdFragment(String fragment, int limit, Class<T> type) {
+        String columns;
+        RowMapper<?> rowMapper;
+        if (type == Event.class) {
+            columns = EVENT_COLUMNS;
+            rowMapper = EVENT_ROW_MAPPER;
+        } else if (type == EventSummary.class) {
+            columns = SUMMARY_COLUMNS;
+            rowMapper = SUMMARY_ROW_MAPPER;
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + type.getName());
+        }
+        return jdbcTemplate.query(
+                "SELECT " + columns + " FROM generated_events WHERE id::text LIKE '%' || ? || '%' LIMIT ?",
+                (RowMapper<T>) rowMapper, fragment, limit);
+    }
+
+    @Override
+    public void forEachEvent(LocalDateTime startDate, LocalDateTime endDate, Consumer<Event> action) {
+        StringBuilder sql = new StringBuilder("SELECT " + EVENT_COLUMNS + " FROM generated_events WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (startDate != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(startDate);
+        }
+        if (endDate != null) {
+            sql.append(" AND created_at <= ?");
+            args.add(endDate);
+        }
+        sql.append(" ORDER BY created_at");
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql.toString());
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    for (int i = 0; i < args.size(); i++) {
+                        ps.setObject(i + 1, args.get(i));
+                    }
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> action.accept(EVENT_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public void incrementGeneratedCounters(String eventType, String serviceName) {
+        incrementCounters(
+                new String[]{COUNTER_TOTAL, COUNTER_EVENT_TYPE, COUNTER_SERVICE_NAME},
+                new String[]{"", eventType, serviceName},
+                new Long[]{1L, 1L, 1L});
+    }
+
+    @Override
+    public void incrementProcessedCounter(long processed) {
+        if (processed > 0) {
+            incrementCounters(new String[]{COUNTER_PROCESSED}, new String[]{""}, new Long[]{processed});
+        }
+    }
+
+    private void incrementCounters(String[] names, String[] keys, Long[] deltas) {
+        int shard = ThreadLocalRandom.current().nextInt(COUNTER_SHARDS);
+        jdbcTemplate.update(INCREMENT_COUNTERS_SQL, ps -> {
+            ps.setInt(1, shard);
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", names));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", keys));
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", deltas));
+        });
+    }
+
+    @Override
+    public EventCounts readCounters() {
+        long[] totals = new long[2];
+        Map<String, Long> byEventType = new TreeMap<>();
+        Map<String, Long> byServiceName = new TreeMap<>();
+        jdbcTemplate.query(
+                "SELECT counter_name, counter_key, SUM(value) FROM generated_event_counters " +
+                "GROUP BY counter_name, counter_key",
+                (RowCallbackHandler) rs -> {
+                    String key = rs.getString(2);
+                    long value = rs.getLong(3);
+                    switch (rs.getString(1)) {
+                        case COUNTER_TOTAL -> totals[0] = value;
+                        case COUNTER_PROCESSED -> totals[1] = value;
+                        case COUNTER_EVENT_TYPE -> byEventType.put(key, value);
+                        case COUNTER_SERVICE_NAME -> byServiceName.put(key, value);
+                        default -> { }
+                    }
+                });
+        return new EventCounts(totals[0], totals[1], byEventType, byServiceName);
+    }
+}
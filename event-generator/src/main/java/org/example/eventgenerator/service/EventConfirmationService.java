@@ -1,16 +1,25 @@
 package org.example.eventgenerator.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.eventgenerator.dto.EventResponseDTO;
-import org.example.eventgenerator.entity.Event;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.eventgenerator.codec.ConfirmationDecoder;
+import org.example.eventgenerator.codec.WireFormat;
+import org.example.eventgenerator.dto.ConfirmationMessageDTO;
+import org.example.eventgenerator.metrics.GeneratorMetrics;
 import org.example.eventgenerator.repository.EventRepository;
+import org.example.eventgenerator.tracking.PendingConfirmationTracker;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -18,58 +27,91 @@ import java.util.Optional;
 public class EventConfirmationService {
 
     private final EventRepository eventRepository;
-    private final ObjectMapper objectMapper;
-
+    private final ConfirmationDecoder confirmationDecoder;
+    private final TransactionTemplate transactionTemplate;
+    private final GeneratorMetrics generatorMetrics;
+    private final PendingConfirmationTracker pendingConfirmations;
+
+    /**
+     * Applies every confirmation of a poll, single or batched, with one set-based UPDATE.
+     * Offsets are acknowledged only after that transaction has committed; a database
+     * failure is rethrown and the container's error handler retries the poll with backoff.
+     */
     @KafkaListener(
             topics = "events.processed",
             groupId = "event-generator-confirmation-group",
             containerFactory = "confirmationKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void handleConfirmation(String confirmationJson) {
-        try {
-            log.info("📨 Received confirmation: {}", confirmationJson);
-
-            EventResponseDTO response = objectMapper.readValue(confirmationJson, EventResponseDTO.class);
-
-            log.info("=== START PROCESSING CONFIRMATION ===");
-            log.info("Original Event ID: {}", response.getOriginalEventId());
-            log.info("Registry Event ID: {}", response.getRegisteredEventId());
-            log.info("Status: {}", response.getStatus());
-            log.info("Processed at: {}", response.getProcessedAt());
-
-            Optional<Event> eventOpt = eventRepository.findById(response.getOriginalEventId());
+    public void handleConfirmations(List<ConsumerRecord<String, byte[]>> records, Acknowledgment acknowledgment) {
+        Map<UUID, LocalDateTime> processedAtById = new LinkedHashMap<>();
+        int confirmations = 0;
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+            try {
+                ConfirmationMessageDTO message =
+                        confirmationDecoder.decode(record.value(), WireFormat.of(record.headers()));
+                confirmations += collect(message, processedAtById);
+            } catch (Exception e) {
+                generatorMetrics.countError("confirmation");
+                log.error("❌ Error parsing confirmation. Partition: {}, Offset: {}, JSON: {}",
+                        record.partition(), record.offset(),
+                        new String(record.value(), StandardCharsets.UTF_8), e);
+            }
+        }
 
-            if (eventOpt.isPresent()) {
-                Event event = eventOpt.get();
+        generatorMetrics.recordConfirmationBatch(confirmations);
+        int applied = processedAtById.isEmpty() ? 0 : generatorMetrics.confirmationApply()
+                .record(() -> transactionTemplate.execute(status -> {
+                    int updated = eventRepository.markProcessed(processedAtById);
+                    eventRepository.incrementProcessedCounter(updated);
+                    return updated;
+                }));
+        acknowledgment.acknowledge();
+        // Only once the UPDATE has committed: a failed poll is redelivered and confirmed then.
+        processedAtById.keySet().forEach(pendingConfirmations::confirm);
+
+        int ignored = confirmations - applied;
+        generatorMetrics.countConfirmations(applied, ignored);
+
+        log.info("✅ Confirmations processed. Records: {}, Confirmations: {}, Marked processed: {}, Ignored: {}",
+                records.size(), confirmations, applied, ignored);
+    }
 
-                if (Boolean.TRUE.equals(event.getIsProcessed())) {
-                    log.warn("⚠️ Event already marked as processed: {}", event.getId());
-                    return;
+    private int collect(ConfirmationMessageDTO message, Map<UUID, LocalDateTime> processedAtById) {
+        if (message.getConfirmations() != null) {
+            for (ConfirmationMessageDTO.Confirmation confirmation : message.getConfirmations()) {
+                if (confirmation.getOriginalEventId() != null) {
+                    processedAtById.putIfAbsent(confirmation.getOriginalEventId(), confirmation.getProcessedAt());
                 }
-
-                event.setIsProcessed(true);
-                event.setProcessedAt(response.getProcessedAt());
-                eventRepository.save(event);
-
-                log.info("✅ Event marked as processed: {}", event.getId());
-                log.info("Processed at: {}", event.getProcessedAt());
-                log.info("=== CONFIRMATION PROCESSED SUCCESSFULLY ===");
-
-            } else {
-                log.error("❌ Event not found for confirmation: {}", response.getOriginalEventId());
             }
+            return message.getConfirmations().size();
+        }
 
-        } catch (Exception e) {
-            log.error("❌ Error processing confirmation: {}", confirmationJson, e);
+        if (message.getOriginalEventId() == null) {
+            return 0;
         }
+        processedAtById.putIfAbsent(message.getOriginalEventId(), message.getProcessedAt());
+        return 1;
     }
 
-    public long getProcessedEventsCount() {
-        return eventRepository.countByIsProcessed(true);
+    /**
+     * In-flight count and round-trip percentiles, kept in memory; never queries the database.
+     */
+    public Map<String, Object> getPendingConfirmationStats() {
+        return pendingConfirmations.getStats();
     }
 
-    public long getUnprocessedEventsCount() {
-        return eventRepository.countByIsProcessed(false);
+    /**
+     * Ignored confirmations are duplicates, redeliveries and confirmations for unknown events.
+     * Read from the same meters the metrics endpoint publishes.
+     */
+    public Map<String, Object> getConfirmationStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("received", generatorMetrics.getConfirmationsReceived());
+        stats.put("applied", generatorMetrics.getConfirmationsApplied());
+        stats.put("ignored", generatorMetrics.getConfirmationsIgnored());
+        return stats;
     }
 }
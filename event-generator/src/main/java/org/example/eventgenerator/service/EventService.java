@@ -2,9 +2,17 @@ package org.example.eventgenerator.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.eventgenerator.cache.ProcessedEventCache;
+import org.example.eventgenerator.config.KafkaCallbackExecutor;
+import org.example.eventgenerator.config.PartitionKeyStrategy;
+import org.example.eventgenerator.datasource.ReplicaLagMonitor;
+import org.example.eventgenerator.dto.EventCounts;
 import org.example.eventgenerator.dto.EventMessage;
+import org.example.eventgenerator.dto.EventSummary;
 import org.example.eventgenerator.entity.Event;
+import org.example.eventgenerator.metrics.GeneratorMetrics;
 import org.example.eventgenerator.repository.EventRepository;
+import org.example.eventgenerator.tracking.PendingConfirmationTracker;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,7 +21,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -22,9 +35,18 @@ public class EventService {
 
     private final EventRepository eventRepository;
     private final KafkaTemplate<String, EventMessage> kafkaTemplate;
+    private final KafkaCallbackExecutor kafkaCallbackExecutor;
+    private final GeneratorMetrics generatorMetrics;
+    private final PendingConfirmationTracker pendingConfirmations;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ProcessedEventCache eventCache;
+    private final PartitionKeyStrategy partitionKeyStrategy;
 
     private static final String EVENT_TOPIC = "events.created";
 
+    // Hex digits and dashes, at least one trigram long: anything else cannot match a UUID or use the index.
+    private static final Pattern ID_FRAGMENT = Pattern.compile("[0-9a-f-]{3,36}");
+
     @Value("${spring.application.name}")
     private String serviceName;
 
@@ -39,16 +61,19 @@ public class EventService {
             return;
         }
 
+        long started = System.nanoTime();
+        String eventType = "SYSTEM_EVENT";
         try {
             log.info(" Starting event generation...");
 
             Event event = new Event();
-            event.setEventType("SYSTEM_EVENT");
+            event.setEventType(eventType);
             event.setServiceName(serviceName);
             event.setPayload(String.format("Auto-generated event at %s", LocalDateTime.now()));
             event.setIsProcessed(false);
 
-            Event savedEvent = eventRepository.save(event);
+            Event savedEvent = generatorMetrics.persist(eventType, serviceName).record(() -> eventRepository.save(event));
+            eventRepository.incrementGeneratedCounters(eventType, serviceName);
             log.info(" Event created in database. ID: {}, Type: {}, Service: {}",
                     savedEvent.getId(), savedEvent.getEventType(), savedEvent.getServiceName());
 
@@ -63,8 +88,11 @@ public class EventService {
             log.info(" Preparing to send Kafka message. Topic: {}, Event ID: {}",
                     EVENT_TOPIC, savedEvent.getId());
 
-            kafkaTemplate.send(EVENT_TOPIC, message)
-                    .whenComplete((result, ex) -> {
+            pendingConfirmations.track(savedEvent.getId(), eventType);
+            long sendStarted = System.nanoTime();
+            kafkaTemplate.send(EVENT_TOPIC, partitionKey(message), message)
+                    .whenCompleteAsync((result, ex) -> {
+                        generatorMetrics.recordSendAck(eventType, serviceName, sendStarted, ex == null);
                         if (ex == null) {
                             log.info(" Event message sent to Kafka successfully. " +
                                             "Topic: {}, Partition: {}, Offset: {}, " +
@@ -75,14 +103,19 @@ public class EventService {
                                     serviceName,
                                     savedEvent.getId());
                         } else {
+                            generatorMetrics.countError("publish");
+                            pendingConfirmations.cancel(savedEvent.getId());
                             log.error(" Failed to send event message to Kafka. Event ID: {}",
                                     savedEvent.getId(), ex);
                         }
-                    });
+                    }, kafkaCallbackExecutor);
 
+            generatorMetrics.countGenerated(eventType, serviceName);
+            generatorMetrics.generate(eventType, serviceName).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
             log.info(" Event generation completed successfully. Event ID: {}", savedEvent.getId());
 
         } catch (Exception e) {
+            generatorMetrics.countError("generate");
             log.error(" Error generating event", e);
         }
     }
@@ -97,7 +130,9 @@ public class EventService {
                     String.format("Manually generated at %s", LocalDateTime.now()));
             event.setIsProcessed(false);
 
-            Event savedEvent = eventRepository.save(event);
+            Event savedEvent = generatorMetrics.persist(event.getEventType(), serviceName)
+                    .record(() -> eventRepository.save(event));
+            eventRepository.incrementGeneratedCounters(savedEvent.getEventType(), serviceName);
 
             EventMessage message = new EventMessage(
                     savedEvent.getId(),
@@ -107,7 +142,9 @@ public class EventService {
                     savedEvent.getCreatedAt()
             );
 
-            kafkaTemplate.send(EVENT_TOPIC, message);
+            pendingConfirmations.track(savedEvent.getId(), savedEvent.getEventType());
+            kafkaTemplate.send(EVENT_TOPIC, partitionKey(message), message);
+            generatorMetrics.countGenerated(savedEvent.getEventType(), serviceName);
             log.info("Manual event generated: {}", savedEvent.getId());
 
             return savedEvent;
@@ -117,38 +154,80 @@ public class EventService {
         }
     }
 
-    public long getTotalEvents() {
-        return eventRepository.count();
+    private String partitionKey(EventMessage message) {
+        return partitionKeyStrategy.keyFor(message);
     }
 
-    public long getProcessedEventsCount() {
-        return eventRepository.countByIsProcessed(true);
+    /**
+     * Totals from the counter table, which the insert and confirmation transactions keep
+     * up to date; never scans generated_events.
+     */
+    public EventCounts getEventCounts() {
+        return eventRepository.readCounters();
     }
 
-    public long getUnprocessedEventsCount() {
-        return eventRepository.countByIsProcessed(false);
+    /**
+     * @param view {@link Event}, or {@link EventSummary} to leave the payload unread
+     */
+    @Transactional(readOnly = true)
+    public <T> List<T> getProcessedEventsList(Class<T> view) {
+        return eventRepository.findByIsProcessedTrue(view);
     }
 
-    public List<Event> getProcessedEventsList() {
-        return eventRepository.findByIsProcessedTrue();
+    @Transactional(readOnly = true)
+    public <T> List<T> getUnprocessedEventsList(Class<T> view) {
+        return eventRepository.findByIsProcessedFalse(view);
     }
 
-    public List<Event> getUnprocessedEventsList() {
-        return eventRepository.findByIsProcessedFalse();
+    @Transactional(readOnly = true)
+    public <T> List<T> getAllEvents(Class<T> view) {
+        return eventRepository.findAllBy(view);
     }
 
-    public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+    /**
+     * Feeds every event created within the range to {@code action} in createdAt order, holding
+     * one fetch-size worth of rows at a time. The read-only transaction stays open until the
+     * last row has been handed over.
+     */
+    @Transactional(readOnly = true)
+    public void exportEvents(LocalDateTime startDate, LocalDateTime endDate, Consumer<Event> action) {
+        eventRepository.forEachEvent(startDate, endDate, action);
     }
 
+    /**
+     * Processed events come from the event cache. Misses stay on the primary, so an event that
+     * was just generated is always found.
+     */
     public Event getEventById(UUID id) {
-        return eventRepository.findById(id).orElse(null);
+        Event cached = eventCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        Event event = eventRepository.findById(id).orElse(null);
+        if (event != null) {
+            eventCache.putIfProcessed(event);
+        }
+        return event;
+    }
+
+    /**
+     * Up to {@code limit} events whose id contains {@code partialId}, case-insensitively.
+     * Fragments shorter than three characters match nothing.
+     */
+    @Transactional(readOnly = true)
+    public <T> List<T> searchEventsByPartialId(String partialId, int limit, Class<T> view) {
+        String fragment = partialId.trim().toLowerCase(Locale.ROOT);
+        if (!ID_FRAGMENT.matcher(fragment).matches()) {
+            return List.of();
+        }
+        return eventRepository.findByIdFragment(fragment, limit, view);
+    }
+
+    public Map<String, Object> getEventCacheStats() {
+        return eventCache.getStats();
     }
 
-    public List<Event> searchEventsByPartialId(String partialId) {
-        List<Event> allEvents = eventRepository.findAll();
-        return allEvents.stream()
-                .filter(event -> event.getId().toString().contains(partialId))
-                .collect(java.util.stream.Collectors.toList());
+    public Map<String, Object> getReplicaStats() {
+        return replicaLagMonitor.getStats();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package org.example.eventgenerator.tracking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashed timing wheel keyed by id: {@link #add}, {@link #remove} and expiry of a single
+ * entry are O(1), and {@link #expire} only looks at the slots whose ticks have passed
+ * instead of scanning every pending entry.
+ *
+ * <p>An entry lives in the slot of its deadline tick. Deadlines further away than one
+ * rotation share a slot with nearer ones and are simply skipped until their round comes.
+ * All methods are thread-safe; {@link #expire} is meant to be called from one thread.
+ */
+class HashedTimingWheel<K, V> {
+
+    private final long tickNanos;
+    private final List<Set<K>> slots;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    private volatile long lastExpiredTick;
+
+    HashedTimingWheel(long tickNanos, int wheelSize, LongSupplier nanoClock) {
+        if (tickNanos <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickNanos and wheelSize must be positive");
+        }
+        this.tickNanos = tickNanos;
+        this.nanoClock = nanoClock;
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(ConcurrentHashMap.newKeySet());
+        }
+        this.lastExpiredTick = Math.floorDiv(nanoClock.getAsLong(), tickNanos);
+    }
+
+    /**
+     * Adds or replaces the entry for {@code key}, due after {@code timeoutNanos}.
+     */
+    void add(K key, V value, long timeoutNanos) {
+        long now = nanoClock.getAsLong();
+        // Rounded up, so an entry never expires before its full timeout.
+        long deadlineTick = Math.max(Math.floorDiv(now + timeoutNanos + tickNanos - 1, tickNanos),
+                lastExpiredTick + 1);
+        Entry<V> previous = entries.put(key, new Entry<>(value, now, deadlineTick));
+        if (previous != null && slotOf(previous.deadlineTick()) != slotOf(deadlineTick)) {
+            slots.get(slotOf(previous.deadlineTick())).remove(key);
+        }
+        slots.get(slotOf(deadlineTick)).add(key);
+    }
+
+    /**
+     * @return the removed entry, or {@code null} if the key was unknown or already expired
+     */
+    Entry<V> remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            slots.get(slotOf(entry.deadlineTick())).remove(key);
+        }
+        return entry;
+    }
+
+    /**
+     * Removes and returns every entry whose deadline has passed since the previous call.
+     */
+    List<Entry<V>> expire() {
+        long nowTick = Math.floorDiv(nanoClock.getAsLong(), tickNanos);
+        long from = lastExpiredTick + 1;
+        // After a long pause every slot is visited once, not once per missed tick.
+        long to = Math.min(nowTick, lastExpiredTick + slots.size());
+
+        List<Entry<V>> expired = new ArrayList<>();
+        for (long tick = from; tick <= to; tick++) {
+            Set<K> slot = slots.get(slotOf(tick));
+            for (K key : slot) {
+                Entry<V> entry = entries.get(key);
+                if (entry == null) {
+                    slot.remove(key);
+                } else if (entry.deadlineTick() <= nowTick && entries.remove(key, entry)) {
+                    slot.remove(key);
+                    expired.add(entry);
+                }
+            }
+        }
+        lastExpiredTick = Math.max(lastExpiredTick, nowTick);
+        return expired;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+
+    record Entry<V>(V value, long addedNanos, long deadlineTick) {
+    }
+}
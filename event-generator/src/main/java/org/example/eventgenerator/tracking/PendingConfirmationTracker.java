@@ -0,0 +1,129 @@
+package org.example.eventgenerator.tracking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory view of events sent to events.created that have not been confirmed yet.
+ * Pending events sit in a {@link HashedTimingWheel}, so tracking, confirming and timing
+ * out are O(1) per event. Send-to-confirmation round trips are recorded per event type
+ * in HdrHistograms.
+ *
+ * <p>The view starts empty on every restart: confirmations for events sent by a previous
+ * instance are counted as untracked, and such events never time out here.
+ */
+@Slf4j
+public class PendingConfirmationTracker {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HashedTimingWheel<UUID, String> pending;
+    private final long timeoutNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<String, Histogram> roundTrips = new ConcurrentHashMap<>();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong untracked = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public PendingConfirmationTracker(Duration timeout, Duration tick, int wheelSize) {
+        this(timeout, tick, wheelSize, System::nanoTime);
+    }
+
+    PendingConfirmationTracker(Duration timeout, Duration tick, int wheelSize, LongSupplier nanoClock) {
+        this.pending = new HashedTimingWheel<>(tick.toNanos(), wheelSize, nanoClock);
+        this.timeoutNanos = timeout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Starts the clock for an event that is about to be sent.
+     */
+    public void track(UUID eventId, String eventType) {
+        pending.add(eventId, eventType, timeoutNanos);
+    }
+
+    /**
+     * Forgets an event whose send failed; it will not be confirmed.
+     */
+    public void cancel(UUID eventId) {
+        pending.remove(eventId);
+    }
+
+    /**
+     * Records the round trip of a confirmed event.
+     *
+     * @return {@code false} for duplicates, late confirmations after a timeout and events
+     * sent before this instance started
+     */
+    public boolean confirm(UUID eventId) {
+        HashedTimingWheel.Entry<String> entry = pending.remove(eventId);
+        if (entry == null) {
+            untracked.incrementAndGet();
+            return false;
+        }
+        long roundTripMicros = TimeUnit.NANOSECONDS.toMicros(nanoClock.getAsLong() - entry.addedNanos());
+        roundTrips.computeIfAbsent(entry.value(), type -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+                .recordValue(Math.max(0, roundTripMicros));
+        confirmed.incrementAndGet();
+        return true;
+    }
+
+    @Scheduled(fixedRateString = "${event.confirmations.tracking.tick-ms:1000}")
+    public void expireOverdue() {
+        List<HashedTimingWheel.Entry<String>> expired = pending.expire();
+        if (!expired.isEmpty()) {
+            timedOut.addAndGet(expired.size());
+            log.warn("⏰ {} events not confirmed within {} ms", expired.size(),
+                    TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        }
+    }
+
+    public int getInFlightCount() {
+        return pending.size();
+    }
+
+    /**
+     * Counters plus round-trip percentiles in milliseconds per event type.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("inFlight", pending.size());
+        stats.put("confirmed", confirmed.get());
+        stats.put("timedOut", timedOut.get());
+        stats.put("untracked", untracked.get());
+
+        Map<String, Object> byType = new TreeMap<>();
+        roundTrips.forEach((eventType, histogram) -> byType.put(eventType, percentiles(histogram.copy())));
+        stats.put("roundTripMs", byType);
+        return stats;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("count", histogram.getTotalCount());
+        percentiles.put("p50", millis(histogram.getValueAtPercentile(50)));
+        percentiles.put("p90", millis(histogram.getValueAtPercentile(90)));
+        percentiles.put("p99", millis(histogram.getValueAtPercentile(99)));
+        percentiles.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        percentiles.put("max", millis(histogram.getMaxValue()));
+        return percentiles;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
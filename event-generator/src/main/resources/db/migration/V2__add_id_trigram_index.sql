@@ -0,0 +1,5 @@
+-- GET /api/events/search?id=<fragment>: substring match on the UUID's text form.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_generated_events_id_trgm
+    ON generated_events USING gin ((id::text) gin_trgm_ops);
@@ -0,0 +1,31 @@
+-- Running totals behind GET /api/events/stats, incremented in the transactions that insert events
+-- and apply confirmations. Each counter is split over a few shard rows so concurrent transactions
+-- rarely wait on the same row; a read sums the shards of every counter.
+CREATE TABLE IF NOT EXISTS generated_event_counters (
+    counter_name VARCHAR(32) NOT NULL,
+    counter_key VARCHAR(100) NOT NULL,
+    shard SMALLINT NOT NULL,
+    value BIGINT NOT NULL,
+    PRIMARY KEY (counter_name, counter_key, shard)
+    );
+
+COMMENT ON TABLE generated_event_counters IS 'Sharded running counts of generated_events';
+COMMENT ON COLUMN generated_event_counters.counter_name IS 'total, processed, event_type or service_name';
+COMMENT ON COLUMN generated_event_counters.counter_key IS 'Event type or service name; empty for total and processed';
+
+-- Rows generated before the counters existed go into shard 0.
+INSERT INTO generated_event_counters (counter_name, counter_key, shard, value)
+SELECT 'total', '', 0, COUNT(*) FROM generated_events
+ON CONFLICT DO NOTHING;
+
+INSERT INTO generated_event_counters (counter_name, counter_key, shard, value)
+SELECT 'processed', '', 0, COUNT(*) FROM generated_events WHERE is_processed
+ON CONFLICT DO NOTHING;
+
+INSERT INTO generated_event_counters (counter_name, counter_key, shard, value)
+SELECT 'event_type', event_type, 0, COUNT(*) FROM generated_events GROUP BY event_type
+ON CONFLICT DO NOTHING;
+
+INSERT INTO generated_event_counters (counter_name, counter_key, shard, value)
+SELECT 'service_name', service_name, 0, COUNT(*) FROM generated_events GROUP BY service_name
+ON CONFLICT DO NOTHING;
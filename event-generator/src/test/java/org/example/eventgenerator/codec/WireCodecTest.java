@@ -0,0 +1,103 @@
+package org.example.eventgenerator.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.example.eventgenerator.dto.ConfirmationMessageDTO;
+import org.example.eventgenerator.dto.EventMessage;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void eventMessageSerializer_Binary_ShouldWriteVersionedLayoutAndHeader() {
+        EventMessageSerializer serializer = new EventMessageSerializer(WireFormat.BINARY, objectMapper);
+        RecordHeaders headers = new RecordHeaders();
+        EventMessage message = new EventMessage(UUID.randomUUID(), "USER_LOGIN", "event-generator",
+                "{\"userId\":42}", LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_789));
+
+        byte[] value = serializer.serialize("events.created", headers, message);
+
+        assertEquals(WireFormat.BINARY, WireFormat.of(headers));
+        CompactBinaryReader in = new CompactBinaryReader(value);
+        assertEquals(WireFormat.KIND_EVENT_MESSAGE, in.readHeader(WireFormat.BINARY_VERSION));
+        assertEquals(message.getEventId(), in.readUuid());
+        assertEquals("USER_LOGIN", in.readString());
+        assertEquals("event-generator", in.readString());
+        assertEquals("{\"userId\":42}", in.readString());
+        assertEquals(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_457_000), in.readTimestamp());
+
+        byte[] json = serializer.serialize("events.created", message);
+        assertTrue(value.length < json.length, value.length + " >= " + json.length);
+    }
+
+    @Test
+    void eventMessageSerializer_Json_ShouldKeepIsoTimestamps() {
+        EventMessageSerializer serializer = new EventMessageSerializer(WireFormat.JSON, objectMapper);
+        RecordHeaders headers = new RecordHeaders();
+        EventMessage message = new EventMessage(UUID.randomUUID(), "USER_LOGIN", "event-generator",
+                null, LocalDateTime.of(2025, 3, 1, 12, 30));
+
+        String json = new String(serializer.serialize("events.created", headers, message), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"createdAt\":\"2025-03-01T12:30:00\""), json);
+        assertEquals(WireFormat.JSON, WireFormat.of(headers));
+    }
+
+    @Test
+    void confirmationDecoder_ShouldDecodeBinarySingleAndBatchedForms() throws Exception {
+        ConfirmationDecoder decoder = new ConfirmationDecoder(objectMapper);
+        UUID originalId = UUID.randomUUID();
+        UUID registeredId = UUID.randomUUID();
+        LocalDateTime processedAt = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+        CompactBinaryWriter single = new CompactBinaryWriter(64);
+        single.writeByte(WireFormat.BINARY_VERSION);
+        single.writeByte(WireFormat.KIND_CONFIRMATION);
+        single.writeUuid(originalId);
+        single.writeUuid(registeredId);
+        single.writeString("PROCESSED");
+        single.writeTimestamp(processedAt);
+        single.writeString("event-registry");
+
+        ConfirmationMessageDTO singleMessage = decoder.decode(single.toByteArray(), WireFormat.BINARY);
+        assertEquals(originalId, singleMessage.getOriginalEventId());
+        assertEquals(processedAt, singleMessage.getProcessedAt());
+        assertNull(singleMessage.getConfirmations());
+
+        CompactBinaryWriter batch = new CompactBinaryWriter(64);
+        batch.writeByte(WireFormat.BINARY_VERSION);
+        batch.writeByte(WireFormat.KIND_CONFIRMATION_BATCH);
+        batch.writeString("PROCESSED");
+        batch.writeString("event-registry");
+        batch.writeVarInt(2);
+        batch.writeUuid(originalId);
+        batch.writeUuid(registeredId);
+        batch.writeTimestamp(processedAt);
+        batch.writeUuid(UUID.randomUUID());
+        batch.writeUuid(null);
+        batch.writeTimestamp(null);
+
+        ConfirmationMessageDTO batchMessage = decoder.decode(batch.toByteArray(), WireFormat.BINARY);
+        assertEquals(2, batchMessage.getConfirmations().size());
+        assertEquals(originalId, batchMessage.getConfirmations().get(0).getOriginalEventId());
+        assertNull(batchMessage.getConfirmations().get(1).getProcessedAt());
+    }
+
+    @Test
+    void confirmationDecoder_WithEventMessageKind_ShouldFail() {
+        ConfirmationDecoder decoder = new ConfirmationDecoder(objectMapper);
+        byte[] eventMessage = EventMessageSerializer.toBinary(
+                new EventMessage(UUID.randomUUID(), "A", "B", "C", LocalDateTime.now()));
+
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(eventMessage, WireFormat.BINARY));
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.eventgenerator.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrades a database left by the baseline release, where V1 is recorded in Flyway's default
+ * history table, with the settings from application.yml. Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class FlywayConfigTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Test
+    void migrationStrategy_OnBaselineDatabase_ShouldContinueItsHistory() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbcTemplate.update("INSERT INTO generated_events (id, event_type, service_name) "
+                + "VALUES (gen_random_uuid(), 'SYSTEM_EVENT', 'event-generator')");
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .table("flyway_schema_history_generator")
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load();
+        new FlywayConfig().flywayMigrationStrategy().migrate(flyway);
+
+        List<String> history = jdbcTemplate.queryForList(
+                "SELECT type || ':' || version FROM flyway_schema_history_generator WHERE success ORDER BY installed_rank",
+                String.class);
+        assertEquals(List.of("SQL:1", "SQL:2", "SQL:3"), history);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM generated_events", Integer.class));
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT value FROM generated_event_counters WHERE counter_name = 'total'", Long.class));
+
+        // A restart finds the generator's own history and leaves it alone.
+        new FlywayConfig().flywayMigrationStrategy().migrate(flyway);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT count(*) FROM flyway_schema_history_generator", Integer.class));
+    }
+}
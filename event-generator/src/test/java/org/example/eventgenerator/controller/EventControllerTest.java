@@ -1,24 +1,33 @@
 package org.example.eventgenerator.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.eventgenerator.dto.EventCounts;
+import org.example.eventgenerator.dto.EventSummary;
 import org.example.eventgenerator.entity.Event;
+import org.example.eventgenerator.service.EventConfirmationService;
 import org.example.eventgenerator.service.EventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +38,12 @@ class EventControllerTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private EventConfirmationService eventConfirmationService;
+
+    @Spy
+    private ObjectMapper jacksonObjectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     @InjectMocks
     private EventController eventController;
 
@@ -36,6 +51,7 @@ class EventControllerTest {
     private ObjectMapper objectMapper;
 
     private Event testEvent;
+    private EventSummary testSummary;
     private UUID testEventId;
 
     @BeforeEach
@@ -52,13 +68,16 @@ class EventControllerTest {
         testEvent.setPayload("Test payload");
         testEvent.setCreatedAt(LocalDateTime.now());
         testEvent.setIsProcessed(false);
+        testSummary = new EventSummary(testEventId, "SYSTEM_EVENT", "event-generator",
+                testEvent.getCreatedAt(), null, false);
     }
 
     @Test
     void getStats_ShouldReturnStatistics() throws Exception {
-        when(eventService.getTotalEvents()).thenReturn(10L);
-        when(eventService.getProcessedEventsCount()).thenReturn(7L);
-        when(eventService.getUnprocessedEventsCount()).thenReturn(3L);
+        when(eventService.getEventCounts()).thenReturn(new EventCounts(10L, 7L,
+                Map.of("SYSTEM_EVENT", 8L, "MANUAL_EVENT", 2L), Map.of("event-generator", 10L)));
+        when(eventConfirmationService.getConfirmationStats())
+                .thenReturn(Map.of("received", 9L, "applied", 7L, "ignored", 2L));
 
         mockMvc.perform(get("/api/events/stats"))
                 .andExpect(status().isOk())
@@ -66,25 +85,35 @@ class EventControllerTest {
                 .andExpect(jsonPath("$.totalEvents").value(10))
                 .andExpect(jsonPath("$.processedEvents").value(7))
                 .andExpect(jsonPath("$.unprocessedEvents").value(3))
+                .andExpect(jsonPath("$.byEventType.MANUAL_EVENT").value(2))
+                .andExpect(jsonPath("$.byServiceName['event-generator']").value(10))
+                .andExpect(jsonPath("$.confirmations.applied").value(7))
+                .andExpect(jsonPath("$.confirmations.ignored").value(2))
                 .andExpect(jsonPath("$.generationStatus").value("ACTIVE"))
                 .andExpect(jsonPath("$.timestamp").exists());
 
-        verify(eventService).getTotalEvents();
-        verify(eventService).getProcessedEventsCount();
-        verify(eventService).getUnprocessedEventsCount();
+        verify(eventService).getEventCounts();
     }
 
     @Test
     void getAllEvents_ShouldReturnListOfEvents() throws Exception {
-        List<Event> events = Arrays.asList(testEvent);
-        when(eventService.getAllEvents()).thenReturn(events);
+        when(eventService.getAllEvents(EventSummary.class)).thenReturn(List.of(testSummary));
         mockMvc.perform(get("/api/events"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(testEventId.toString()))
                 .andExpect(jsonPath("$[0].eventType").value("SYSTEM_EVENT"))
-                .andExpect(jsonPath("$[0].serviceName").value("event-generator"));
+                .andExpect(jsonPath("$[0].serviceName").value("event-generator"))
+                .andExpect(jsonPath("$[0].payload").doesNotExist());
 
-        verify(eventService).getAllEvents();
+        verify(eventService, never()).getAllEvents(Event.class);
+    }
+
+    @Test
+    void getAllEvents_WithIncludePayload_ShouldReturnFullEvents() throws Exception {
+        when(eventService.getAllEvents(Event.class)).thenReturn(List.of(testEvent));
+        mockMvc.perform(get("/api/events").param("include", "payload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].payload").value("Test payload"));
     }
 
     @Test
@@ -94,11 +123,27 @@ class EventControllerTest {
         mockMvc.perform(get("/api/events/{id}", testEventId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(testEventId.toString()))
-                .andExpect(jsonPath("$.eventType").value("SYSTEM_EVENT"));
+                .andExpect(jsonPath("$.eventType").value("SYSTEM_EVENT"))
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
 
         verify(eventService).getEventById(testEventId);
     }
 
+    @Test
+    void getEventById_WhenProcessed_ShouldReturnImmutableResponseWithETag() throws Exception {
+        testEvent.setIsProcessed(true);
+        when(eventService.getEventById(testEventId)).thenReturn(testEvent);
+
+        mockMvc.perform(get("/api/events/{id}", testEventId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + testEventId + "\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+
+        mockMvc.perform(get("/api/events/{id}", testEventId).header("If-None-Match", "\"" + testEventId + "\""))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void getEventById_WithInvalidUUID_ShouldReturnBadRequest() throws Exception {
 
@@ -160,29 +205,56 @@ class EventControllerTest {
     @Test
     void getProcessedEventsList_ShouldReturnProcessedEvents() throws Exception {
 
-        testEvent.setIsProcessed(true);
-        List<Event> processedEvents = Arrays.asList(testEvent);
-        when(eventService.getProcessedEventsList()).thenReturn(processedEvents);
+        EventSummary processed = new EventSummary(testEventId, "SYSTEM_EVENT", "event-generator",
+                testEvent.getCreatedAt(), LocalDateTime.now(), true);
+        when(eventService.getProcessedEventsList(EventSummary.class)).thenReturn(List.of(processed));
 
         mockMvc.perform(get("/api/events/processed/list"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(testEventId.toString()))
                 .andExpect(jsonPath("$[0].isProcessed").value(true));
 
-        verify(eventService).getProcessedEventsList();
+        verify(eventService).getProcessedEventsList(EventSummary.class);
     }
 
     @Test
     void getUnprocessedEventsList_ShouldReturnUnprocessedEvents() throws Exception {
-        List<Event> unprocessedEvents = Arrays.asList(testEvent);
-        when(eventService.getUnprocessedEventsList()).thenReturn(unprocessedEvents);
+        when(eventService.getUnprocessedEventsList(EventSummary.class)).thenReturn(List.of(testSummary));
 
         mockMvc.perform(get("/api/events/unprocessed/list"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(testEventId.toString()))
                 .andExpect(jsonPath("$[0].isProcessed").value(false));
 
-        verify(eventService).getUnprocessedEventsList();
+        verify(eventService).getUnprocessedEventsList(EventSummary.class);
+    }
+
+    @Test
+    void exportEvents_ShouldStreamOneJsonObjectPerLine() throws Exception {
+        LocalDateTime endDate = LocalDateTime.of(2025, 1, 31, 23, 59);
+
+        doAnswer(invocation -> {
+            Consumer<Event> action = invocation.getArgument(2);
+            action.accept(testEvent);
+            action.accept(testEvent);
+            action.accept(testEvent);
+            return null;
+        }).when(eventService).exportEvents(isNull(), eq(endDate), any());
+
+        MvcResult result = mockMvc.perform(get("/api/events/export")
+                        .param("endDate", "2025-01-31T23:59:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals(testEventId.toString(), objectMapper.readTree(lines[2]).get("id").asText());
+        verify(eventService, never()).getAllEvents(any());
     }
 
     @Test
@@ -196,15 +268,14 @@ class EventControllerTest {
                 .andExpect(jsonPath("$.id").value(testEventId.toString()));
 
         verify(eventService).getEventById(testEventId);
-        verify(eventService, never()).searchEventsByPartialId(any());
+        verify(eventService, never()).searchEventsByPartialId(any(), anyInt(), any());
     }
 
     @Test
     void searchEvents_WithPartialId_ShouldReturnList() throws Exception {
 
         String partialId = "ff86";
-        List<Event> events = Arrays.asList(testEvent);
-        when(eventService.searchEventsByPartialId(partialId)).thenReturn(events);
+        when(eventService.searchEventsByPartialId(partialId, 50, EventSummary.class)).thenReturn(List.of(testSummary));
 
         mockMvc.perform(get("/api/events/search")
                         .param("id", partialId))
@@ -212,7 +283,7 @@ class EventControllerTest {
                 .andExpect(jsonPath("$[0].id").value(testEventId.toString()));
 
         verify(eventService, never()).getEventById(any());
-        verify(eventService).searchEventsByPartialId(partialId);
+        verify(eventService).searchEventsByPartialId(partialId, 50, EventSummary.class);
     }
 
     @Test
@@ -223,7 +294,7 @@ class EventControllerTest {
                 .andExpect(content().string("Parameter 'id' is required"));
 
         verify(eventService, never()).getEventById(any());
-        verify(eventService, never()).searchEventsByPartialId(any());
+        verify(eventService, never()).searchEventsByPartialId(any(), anyInt(), any());
     }
 
     @Test
@@ -234,7 +305,7 @@ class EventControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(eventService, never()).getEventById(any());
-        verify(eventService, never()).searchEventsByPartialId(any());
+        verify(eventService, never()).searchEventsByPartialId(any(), anyInt(), any());
     }
 
     @Test
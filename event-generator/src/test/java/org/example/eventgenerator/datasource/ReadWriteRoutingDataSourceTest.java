@@ -0,0 +1,115 @@
+package org.example.eventgenerator.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica;
+
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+
+    private ReplicaLagMonitor replicaLagMonitor;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenAnswer(invocation -> connection());
+        lenient().when(replica.getConnection()).thenAnswer(invocation -> connection());
+
+        replicaLagMonitor = new ReplicaLagMonitor(replicaJdbcTemplate, 5000);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primary, replica, replicaLagMonitor));
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void readOnlyTransaction_WithReplicaWithinLagLimit_ShouldUseReplica() throws SQLException {
+        givenReplicaLag(1200L);
+
+        runStatement(true);
+
+        verify(replica).getConnection();
+        // The proxy's one-off probe for connection defaults is the only primary connection.
+        verify(primary, times(1)).getConnection();
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() throws SQLException {
+        givenReplicaLag(0L);
+
+        runStatement(false);
+
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_WithReplicaBehindLagLimit_ShouldUsePrimary() throws SQLException {
+        givenReplicaLag(60_000L);
+
+        runStatement(true);
+
+        assertFalse(replicaLagMonitor.isUsable());
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyTransaction_WhenReplicaConnectionFails_ShouldFallBackToPrimary() throws SQLException {
+        givenReplicaLag(0L);
+        when(replica.getConnection()).thenThrow(new SQLException("Connection is not available, request timed out"));
+
+        runStatement(true);
+
+        verify(primary, times(2)).getConnection();
+        assertFalse(replicaLagMonitor.isUsable());
+        assertEquals(1L, replicaLagMonitor.getStats().get("connectionFallbacks"));
+
+        // The next successful check puts the replica back.
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isUsable());
+    }
+
+    private void givenReplicaLag(long lagMs) {
+        when(replicaJdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(lagMs);
+        replicaLagMonitor.check();
+    }
+
+    private void runStatement(boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.executeWithoutResult(status -> new JdbcTemplate(
+                ((DataSourceTransactionManager) transactionTemplate.getTransactionManager()).getDataSource())
+                .execute("SELECT 1"));
+    }
+
+    private static Connection connection() throws SQLException {
+        Connection connection = mock(Connection.class);
+        lenient().when(connection.getAutoCommit()).thenReturn(true);
+        lenient().when(connection.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_READ_COMMITTED);
+        lenient().when(connection.createStatement()).thenReturn(mock(Statement.class));
+        return connection;
+    }
+}
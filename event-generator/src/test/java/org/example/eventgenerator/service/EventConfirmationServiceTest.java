@@ -0,0 +1,164 @@
+package org.example.eventgenerator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.eventgenerator.codec.ConfirmationDecoder;
+import org.example.eventgenerator.metrics.GeneratorMetrics;
+import org.example.eventgenerator.repository.EventRepository;
+import org.example.eventgenerator.tracking.PendingConfirmationTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EventConfirmationServiceTest {
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Spy
+    private ConfirmationDecoder confirmationDecoder =
+            new ConfirmationDecoder(new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PendingConfirmationTracker pendingConfirmations;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private GeneratorMetrics generatorMetrics = new GeneratorMetrics(meterRegistry);
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @InjectMocks
+    private EventConfirmationService eventConfirmationService;
+
+    private UUID firstEventId;
+    private UUID secondEventId;
+    private UUID thirdEventId;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> callback = invocation.getArgument(0);
+            return callback.doInTransaction(null);
+        });
+
+        firstEventId = UUID.randomUUID();
+        secondEventId = UUID.randomUUID();
+        thirdEventId = UUID.randomUUID();
+    }
+
+    @Test
+    void handleConfirmations_WithSingleAndBatchedForms_ShouldApplyOneUpdate() {
+
+        when(eventRepository.markProcessed(anyMap())).thenReturn(2);
+
+        eventConfirmationService.handleConfirmations(List.of(
+                record(0, single(firstEventId, "2025-01-01T10:00:00")),
+                record(1, batch(secondEventId, "2025-01-01T10:00:01", thirdEventId, "2025-01-01T10:00:02"))),
+                acknowledgment);
+
+        ArgumentCaptor<Map<UUID, LocalDateTime>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(eventRepository, times(1)).markProcessed(captor.capture());
+        Map<UUID, LocalDateTime> processedAtById = captor.getValue();
+        assertEquals(List.of(firstEventId, secondEventId, thirdEventId), List.copyOf(processedAtById.keySet()));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0, 2), processedAtById.get(thirdEventId));
+
+        verify(eventRepository, never()).findById(any());
+        verify(eventRepository, never()).save(any());
+        verify(eventRepository).incrementProcessedCounter(2);
+        verify(acknowledgment).acknowledge();
+        verify(pendingConfirmations).confirm(firstEventId);
+        verify(pendingConfirmations).confirm(thirdEventId);
+
+        Map<String, Object> stats = eventConfirmationService.getConfirmationStats();
+        assertEquals(3L, stats.get("received"));
+        assertEquals(2L, stats.get("applied"));
+        assertEquals(1L, stats.get("ignored"));
+        assertEquals(2.0, meterRegistry.get("generator.confirmations.applied").counter().count());
+        assertEquals(1.0, meterRegistry.get("generator.confirmations.ignored").counter().count());
+    }
+
+    @Test
+    void handleConfirmations_ShouldAcknowledgeAndConfirmTrackedEventsAfterUpdate() {
+
+        when(eventRepository.markProcessed(anyMap())).thenReturn(1);
+
+        eventConfirmationService.handleConfirmations(
+                List.of(record(0, single(firstEventId, "2025-01-01T10:00:00"))), acknowledgment);
+
+        InOrder inOrder = inOrder(eventRepository, acknowledgment, pendingConfirmations);
+        inOrder.verify(eventRepository).markProcessed(anyMap());
+        inOrder.verify(acknowledgment).acknowledge();
+        inOrder.verify(pendingConfirmations).confirm(firstEventId);
+    }
+
+    @Test
+    void handleConfirmations_WhenDatabaseFails_ShouldNotAcknowledgeOrConfirm() {
+
+        when(eventRepository.markProcessed(anyMap())).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RuntimeException.class, () -> eventConfirmationService.handleConfirmations(
+                List.of(record(0, single(firstEventId, "2025-01-01T10:00:00"))), acknowledgment));
+
+        verify(acknowledgment, never()).acknowledge();
+        assertEquals(0L, eventConfirmationService.getConfirmationStats().get("applied"));
+        verifyNoInteractions(pendingConfirmations);
+    }
+
+    @Test
+    void handleConfirmations_WithOnlyInvalidRecords_ShouldAcknowledgeWithoutTouchingDatabase() {
+
+        eventConfirmationService.handleConfirmations(List.of(
+                record(0, "invalid-json"),
+                record(1, "{\"status\":\"PROCESSED\",\"confirmations\":[]}")), acknowledgment);
+
+        verifyNoInteractions(eventRepository);
+        verify(acknowledgment).acknowledge();
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, String value) {
+        return new ConsumerRecord<>("events.processed", 0, offset, null, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String single(UUID eventId, String processedAt) {
+        return "{\"originalEventId\":\"" + eventId + "\",\"registeredEventId\":\"" + UUID.randomUUID()
+                + "\",\"status\":\"PROCESSED\",\"processedAt\":\"" + processedAt
+                + "\",\"registryServiceName\":\"event-registry\"}";
+    }
+
+    private String batch(UUID firstId, String firstProcessedAt, UUID secondId, String secondProcessedAt) {
+        return "{\"status\":\"PROCESSED\",\"registryServiceName\":\"event-registry\",\"confirmations\":["
+                + "{\"originalEventId\":\"" + firstId + "\",\"registeredEventId\":\"" + UUID.randomUUID()
+                + "\",\"processedAt\":\"" + firstProcessedAt + "\"},"
+                + "{\"originalEventId\":\"" + secondId + "\",\"registeredEventId\":\"" + UUID.randomUUID()
+                + "\",\"processedAt\":\"" + secondProcessedAt + "\"}]}";
+    }
+}
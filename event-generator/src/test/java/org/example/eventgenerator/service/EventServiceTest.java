@@ -1,15 +1,25 @@
 package org.example.eventgenerator.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.eventgenerator.cache.ProcessedEventCache;
+import org.example.eventgenerator.config.KafkaCallbackExecutor;
+import org.example.eventgenerator.config.PartitionKeyStrategy;
+import org.example.eventgenerator.dto.EventCounts;
 import org.example.eventgenerator.dto.EventMessage;
+import org.example.eventgenerator.dto.EventSummary;
 import org.example.eventgenerator.entity.Event;
+import org.example.eventgenerator.metrics.GeneratorMetrics;
 import org.example.eventgenerator.repository.EventRepository;
+import org.example.eventgenerator.tracking.PendingConfirmationTracker;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -17,8 +27,10 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +46,20 @@ class EventServiceTest {
     @Mock
     private KafkaTemplate<String, EventMessage> kafkaTemplate;
 
+    @Spy
+    private KafkaCallbackExecutor kafkaCallbackExecutor = new KafkaCallbackExecutor(false);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private PendingConfirmationTracker pendingConfirmations;
+
+    @Spy
+    private GeneratorMetrics generatorMetrics = new GeneratorMetrics(meterRegistry);
+
+    @Spy
+    private ProcessedEventCache eventCache = new ProcessedEventCache(1 << 20);
+
     @InjectMocks
     private EventService eventService;
 
@@ -50,6 +76,7 @@ class EventServiceTest {
     void setUp() {
         ReflectionTestUtils.setField(eventService, "serviceName", "event-generator");
         ReflectionTestUtils.setField(eventService, "generationEnabled", true);
+        ReflectionTestUtils.setField(eventService, "partitionKeyStrategy", PartitionKeyStrategy.EVENT_ID);
 
 
         testEventId = UUID.randomUUID();
@@ -71,7 +98,8 @@ class EventServiceTest {
         eventService.generateEvent();
 
         verify(eventRepository).save(eventCaptor.capture());
-        verify(kafkaTemplate).send(eq("events.created"), messageCaptor.capture());
+        verify(eventRepository).incrementGeneratedCounters("SYSTEM_EVENT", "event-generator");
+        verify(kafkaTemplate).send(eq("events.created"), eq(testEventId.toString()), messageCaptor.capture());
 
         Event savedEvent = eventCaptor.getValue();
         assertNotNull(savedEvent);
@@ -89,6 +117,28 @@ class EventServiceTest {
         assertEquals(testEvent.getCreatedAt(), sentMessage.getCreatedAt());
     }
 
+    @Test
+    void generateEvent_ShouldRecordStageTimersAndCounters() {
+
+        when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
+        when(kafkaTemplate.send(eq("events.created"), any(), any())).thenReturn(CompletableFuture.failedFuture(
+                new IllegalStateException("broker down")));
+
+        eventService.generateEvent();
+
+        assertEquals(1, meterRegistry.get("generator.event.persist")
+                .tags("eventType", "SYSTEM_EVENT", "serviceName", "event-generator").timer().count());
+        assertEquals(1, meterRegistry.get("generator.event.generate").timer().count());
+        assertEquals(1, meterRegistry.get("generator.events.generated").counter().count());
+        assertEquals(1, meterRegistry.get("generator.event.kafka.send.ack").tag("outcome", "failure").timer().count());
+        assertEquals(1, meterRegistry.get("generator.errors").tag("stage", "publish").counter().count());
+
+        InOrder inOrder = inOrder(pendingConfirmations, kafkaTemplate);
+        inOrder.verify(pendingConfirmations).track(testEventId, "SYSTEM_EVENT");
+        inOrder.verify(kafkaTemplate).send(eq("events.created"), any(), any());
+        verify(pendingConfirmations).cancel(testEventId);
+    }
+
     @Test
     void generateEvent_WhenGenerationDisabled_ShouldNotGenerate() {
 
@@ -97,7 +147,7 @@ class EventServiceTest {
         eventService.generateEvent();
 
         verify(eventRepository, never()).save(any());
-        verify(kafkaTemplate, never()).send(any(), any());
+        verify(kafkaTemplate, never()).send(any(), any(), any());
     }
 
     @Test
@@ -108,7 +158,7 @@ class EventServiceTest {
         eventService.generateEvent();
 
         verify(eventRepository).save(any());
-        verify(kafkaTemplate, never()).send(any(), any());
+        verify(kafkaTemplate, never()).send(any(), any(), any());
     }
 
     @Test
@@ -121,7 +171,7 @@ class EventServiceTest {
         Event result = eventService.generateEventManually(customEventType, customPayload);
 
         verify(eventRepository).save(eventCaptor.capture());
-        verify(kafkaTemplate).send(eq("events.created"), messageCaptor.capture());
+        verify(kafkaTemplate).send(eq("events.created"), eq(testEventId.toString()), messageCaptor.capture());
 
         Event savedEvent = eventCaptor.getValue();
         assertEquals(customEventType, savedEvent.getEventType());
@@ -159,43 +209,21 @@ class EventServiceTest {
                 eventService.generateEventManually("TEST", "payload"));
 
         verify(eventRepository).save(any());
-        verify(kafkaTemplate, never()).send(any(), any());
-    }
-
-    @Test
-    void getTotalEvents_ShouldReturnCount() {
-
-        long expectedCount = 42L;
-        when(eventRepository.count()).thenReturn(expectedCount);
-
-        long result = eventService.getTotalEvents();
-
-        assertEquals(expectedCount, result);
-        verify(eventRepository).count();
+        verify(kafkaTemplate, never()).send(any(), any(), any());
     }
 
     @Test
-    void getProcessedEventsCount_ShouldReturnCountOfProcessedEvents() {
+    void getEventCounts_ShouldReadCounterTableWithoutCounting() {
 
-        long expectedCount = 25L;
-        when(eventRepository.countByIsProcessed(true)).thenReturn(expectedCount);
+        EventCounts expected = new EventCounts(42L, 25L, Map.of("SYSTEM_EVENT", 42L), Map.of("event-generator", 42L));
+        when(eventRepository.readCounters()).thenReturn(expected);
 
-        long result = eventService.getProcessedEventsCount();
+        EventCounts result = eventService.getEventCounts();
 
-        assertEquals(expectedCount, result);
-        verify(eventRepository).countByIsProcessed(true);
-    }
-
-    @Test
-    void getUnprocessedEventsCount_ShouldReturnCountOfUnprocessedEvents() {
-
-        long expectedCount = 17L;
-        when(eventRepository.countByIsProcessed(false)).thenReturn(expectedCount);
-
-        long result = eventService.getUnprocessedEventsCount();
-
-        assertEquals(expectedCount, result);
-        verify(eventRepository).countByIsProcessed(false);
+        assertEquals(expected, result);
+        assertEquals(17L, result.unprocessed());
+        verify(eventRepository, never()).count();
+        verify(eventRepository, never()).countByIsProcessed(any());
     }
 
     @Test
@@ -203,41 +231,41 @@ class EventServiceTest {
 
         testEvent.setIsProcessed(true);
         List<Event> processedEvents = Arrays.asList(testEvent);
-        when(eventRepository.findByIsProcessedTrue()).thenReturn(processedEvents);
+        when(eventRepository.findByIsProcessedTrue(Event.class)).thenReturn(processedEvents);
 
-        List<Event> result = eventService.getProcessedEventsList();
+        List<Event> result = eventService.getProcessedEventsList(Event.class);
 
         assertEquals(1, result.size());
         assertEquals(testEvent, result.get(0));
         assertTrue(result.get(0).getIsProcessed());
-        verify(eventRepository).findByIsProcessedTrue();
+        verify(eventRepository).findByIsProcessedTrue(Event.class);
     }
 
     @Test
     void getUnprocessedEventsList_ShouldReturnListOfUnprocessedEvents() {
 
         List<Event> unprocessedEvents = Arrays.asList(testEvent);
-        when(eventRepository.findByIsProcessedFalse()).thenReturn(unprocessedEvents);
+        when(eventRepository.findByIsProcessedFalse(Event.class)).thenReturn(unprocessedEvents);
 
-        List<Event> result = eventService.getUnprocessedEventsList();
+        List<Event> result = eventService.getUnprocessedEventsList(Event.class);
 
         assertEquals(1, result.size());
         assertEquals(testEvent, result.get(0));
         assertFalse(result.get(0).getIsProcessed());
-        verify(eventRepository).findByIsProcessedFalse();
+        verify(eventRepository).findByIsProcessedFalse(Event.class);
     }
 
     @Test
     void getAllEvents_ShouldReturnAllEvents() {
 
-        List<Event> allEvents = Arrays.asList(testEvent);
-        when(eventRepository.findAll()).thenReturn(allEvents);
+        EventSummary summary = new EventSummary(testEventId, "SYSTEM_EVENT", "event-generator",
+                testEvent.getCreatedAt(), null, false);
+        when(eventRepository.findAllBy(EventSummary.class)).thenReturn(List.of(summary));
 
-        List<Event> result = eventService.getAllEvents();
+        List<EventSummary> result = eventService.getAllEvents(EventSummary.class);
 
-        assertEquals(1, result.size());
-        assertEquals(testEvent, result.get(0));
-        verify(eventRepository).findAll();
+        assertEquals(List.of(summary), result);
+        verify(eventRepository, never()).findAll();
     }
 
     @Test
@@ -252,6 +280,25 @@ class EventServiceTest {
         verify(eventRepository).findById(testEventId);
     }
 
+    @Test
+    void getEventById_ShouldCacheOnlyProcessedEvents() {
+
+        UUID processedId = UUID.randomUUID();
+        Event processed = new Event();
+        processed.setId(processedId);
+        processed.setIsProcessed(true);
+        when(eventRepository.findById(testEventId)).thenReturn(Optional.of(testEvent));
+        when(eventRepository.findById(processedId)).thenReturn(Optional.of(processed));
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(testEvent, eventService.getEventById(testEventId));
+            assertEquals(processed, eventService.getEventById(processedId));
+        }
+
+        verify(eventRepository, times(2)).findById(testEventId);
+        verify(eventRepository, times(1)).findById(processedId);
+    }
+
     @Test
     void getEventById_WithNonExistingId_ShouldReturnNull() {
 
@@ -267,51 +314,76 @@ class EventServiceTest {
     void searchEventsByPartialId_WithMatchingPartialId_ShouldReturnEvents() {
 
         String partialId = testEventId.toString().substring(0, 8);
-        List<Event> allEvents = Arrays.asList(testEvent);
-        when(eventRepository.findAll()).thenReturn(allEvents);
+        when(eventRepository.findByIdFragment(partialId, 50, Event.class)).thenReturn(Arrays.asList(testEvent));
 
-        List<Event> result = eventService.searchEventsByPartialId(partialId);
+        List<Event> result = eventService.searchEventsByPartialId(partialId, 50, Event.class);
 
         assertEquals(1, result.size());
         assertEquals(testEvent, result.get(0));
-        verify(eventRepository).findAll();
+        verify(eventRepository, never()).findAll();
     }
 
     @Test
-    void searchEventsByPartialId_WithNonMatchingPartialId_ShouldReturnEmptyList() {
+    void searchEventsByPartialId_WithUpperCaseFragment_ShouldSearchLowerCase() {
+
+        when(eventRepository.findByIdFragment("ab-cd", 10, Event.class)).thenReturn(Arrays.asList(testEvent));
+
+        List<Event> result = eventService.searchEventsByPartialId(" AB-CD ", 10, Event.class);
+
+        assertEquals(1, result.size());
+        verify(eventRepository).findByIdFragment("ab-cd", 10, Event.class);
+    }
+
+    @Test
+    void searchEventsByPartialId_WithNonHexPartialId_ShouldReturnEmptyListWithoutQuerying() {
         String partialId = "NONEXISTENT";
-        List<Event> allEvents = Arrays.asList(testEvent);
-        when(eventRepository.findAll()).thenReturn(allEvents);
 
-        List<Event> result = eventService.searchEventsByPartialId(partialId);
+        List<Event> result = eventService.searchEventsByPartialId(partialId, 50, Event.class);
 
         assertTrue(result.isEmpty());
-        verify(eventRepository).findAll();
+        verifyNoInteractions(eventRepository);
     }
 
     @Test
-    void searchEventsByPartialId_WithEmptyPartialId_ShouldReturnAllEvents() {
+    void searchEventsByPartialId_WithFragmentShorterThanTrigram_ShouldReturnEmptyListWithoutQuerying() {
 
-        String partialId = "";
-        List<Event> allEvents = Arrays.asList(testEvent);
-        when(eventRepository.findAll()).thenReturn(allEvents);
+        List<Event> result = eventService.searchEventsByPartialId("ab", 50, Event.class);
 
-        List<Event> result = eventService.searchEventsByPartialId(partialId);
-
-        assertEquals(1, result.size());
-        assertEquals(testEvent, result.get(0));
-        verify(eventRepository).findAll();
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(eventRepository);
     }
 
     @Test
     void searchEventsByPartialId_WhenRepositoryReturnsEmptyList_ShouldReturnEmptyList() {
 
-        String partialId = "anything";
-        when(eventRepository.findAll()).thenReturn(Arrays.asList());
+        String partialId = "abc123";
+        when(eventRepository.findByIdFragment(partialId, 50, Event.class)).thenReturn(Arrays.asList());
 
-        List<Event> result = eventService.searchEventsByPartialId(partialId);
+        List<Event> result = eventService.searchEventsByPartialId(partialId, 50, Event.class);
 
         assertTrue(result.isEmpty());
-        verify(eventRepository).findAll();
+        verify(eventRepository).findByIdFragment(partialId, 50, Event.class);
+    }
+
+    @Test
+    void generateEventManually_WithServiceNameKeyStrategy_ShouldKeyByServiceName() {
+
+        ReflectionTestUtils.setField(eventService, "partitionKeyStrategy", PartitionKeyStrategy.SERVICE_NAME);
+        when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
+
+        eventService.generateEventManually("CUSTOM_EVENT", "payload");
+
+        verify(kafkaTemplate).send(eq("events.created"), eq("event-generator"), any(EventMessage.class));
+    }
+
+    @Test
+    void generateEventManually_WithEventTypeKeyStrategy_ShouldKeyByEventType() {
+
+        ReflectionTestUtils.setField(eventService, "partitionKeyStrategy", PartitionKeyStrategy.EVENT_TYPE);
+        when(eventRepository.save(any(Event.class))).thenReturn(testEvent);
+
+        eventService.generateEventManually("CUSTOM_EVENT", "payload");
+
+        verify(kafkaTemplate).send(eq("events.created"), eq("SYSTEM_EVENT"), any(EventMessage.class));
     }
-}
\ No newline at end of file
+}
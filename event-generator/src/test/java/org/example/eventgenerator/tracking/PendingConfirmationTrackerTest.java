@@ -0,0 +1,97 @@
+package org.example.eventgenerator.tracking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingConfirmationTrackerTest {
+
+    private final AtomicLong clock = new AtomicLong(-5_000_000_000L);
+
+    private PendingConfirmationTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        // 10 s timeout on a 4-slot wheel of 1 s ticks: every deadline needs several rounds.
+        tracker = new PendingConfirmationTracker(Duration.ofSeconds(10), Duration.ofSeconds(1), 4, clock::get);
+    }
+
+    @Test
+    void confirm_ShouldRecordRoundTripPerEventType() {
+        UUID login = UUID.randomUUID();
+        UUID order = UUID.randomUUID();
+        tracker.track(login, "USER_LOGIN");
+        tracker.track(order, "ORDER_CREATED");
+        assertEquals(2, tracker.getInFlightCount());
+
+        advance(Duration.ofMillis(250));
+        assertTrue(tracker.confirm(login));
+        assertFalse(tracker.confirm(login));
+
+        Map<String, Object> stats = tracker.getStats();
+        assertEquals(1, stats.get("inFlight"));
+        assertEquals(1L, stats.get("confirmed"));
+        assertEquals(1L, stats.get("untracked"));
+        Map<?, ?> roundTrips = (Map<?, ?>) stats.get("roundTripMs");
+        Map<?, ?> loginPercentiles = (Map<?, ?>) roundTrips.get("USER_LOGIN");
+        assertEquals(1L, loginPercentiles.get("count"));
+        assertEquals(250.0, (double) loginPercentiles.get("p99"), 1.0);
+        assertFalse(roundTrips.containsKey("ORDER_CREATED"));
+    }
+
+    @Test
+    void expireOverdue_ShouldTimeOutOnlyAfterTheFullTimeout() {
+        UUID eventId = UUID.randomUUID();
+        tracker.track(eventId, "USER_LOGIN");
+
+        for (int second = 1; second < 10; second++) {
+            advance(Duration.ofSeconds(1));
+            tracker.expireOverdue();
+        }
+        assertEquals(1, tracker.getInFlightCount());
+
+        advance(Duration.ofSeconds(1));
+        tracker.expireOverdue();
+
+        assertEquals(0, tracker.getInFlightCount());
+        assertEquals(1L, tracker.getStats().get("timedOut"));
+        assertFalse(tracker.confirm(eventId));
+    }
+
+    @Test
+    void expireOverdue_AfterLongPause_ShouldExpireEverythingOverdue() {
+        for (int i = 0; i < 100; i++) {
+            tracker.track(UUID.randomUUID(), "USER_LOGIN");
+            advance(Duration.ofMillis(100));
+        }
+
+        advance(Duration.ofMinutes(5));
+        tracker.expireOverdue();
+
+        assertEquals(0, tracker.getInFlightCount());
+        assertEquals(100L, tracker.getStats().get("timedOut"));
+    }
+
+    @Test
+    void cancel_ShouldStopTrackingWithoutCountingATimeout() {
+        UUID eventId = UUID.randomUUID();
+        tracker.track(eventId, "USER_LOGIN");
+
+        tracker.cancel(eventId);
+        advance(Duration.ofSeconds(30));
+        tracker.expireOverdue();
+
+        assertEquals(0, tracker.getInFlightCount());
+        assertEquals(0L, tracker.getStats().get("timedOut"));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
@@ -3,9 +3,11 @@ package org.example.eventregistry;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableKafka
+@EnableScheduling
 public class EventRegistryApplication {
     public static void main(String[] args) {
         SpringApplication.run(EventRegistryApplication.class, args);
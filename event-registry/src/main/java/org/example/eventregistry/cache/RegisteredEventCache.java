@@ -0,0 +1,93 @@
+package org.example.eventregistry.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.eventregistry.entity.RegisteredEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registered events by id and by original event id, for the single-event lookups. Registered
+ * events never change after insert, so entries never go stale; an event dropped by partition
+ * retention is served until it is evicted.
+ *
+ * <p>Memory is capped by {@code maxBytes}, an estimate of what the cached events retain: the
+ * text columns at a byte per character plus a fixed per-entry overhead. The original-id index
+ * follows the cache's content.
+ */
+public class RegisteredEventCache implements MeterBinder {
+
+    // Entity, two UUIDs, three LocalDateTimes, string headers and the cache's map nodes.
+    static final int ENTRY_OVERHEAD_BYTES = 512;
+
+    // Typical event size, used to size the frequency sketch.
+    private static final int EXPECTED_ENTRY_BYTES = 1024;
+
+    private final WeightedLfuCache<UUID, RegisteredEvent> byId;
+    private final Map<UUID, UUID> idByOriginalId = new ConcurrentHashMap<>();
+
+    public RegisteredEventCache(long maxBytes) {
+        this.byId = new WeightedLfuCache<>(maxBytes, (int) Math.min(Integer.MAX_VALUE, maxBytes / EXPECTED_ENTRY_BYTES),
+                RegisteredEventCache::weigh, (id, event) -> idByOriginalId.remove(event.getOriginalEventId(), id));
+    }
+
+    public RegisteredEvent getById(UUID id) {
+        return byId.get(id);
+    }
+
+    public RegisteredEvent getByOriginalId(UUID originalId) {
+        UUID id = idByOriginalId.get(originalId);
+        if (id == null) {
+            byId.recordMiss();
+            return null;
+        }
+        return byId.get(id);
+    }
+
+    /**
+     * Caches events that have been committed; events that are cached already are left alone.
+     */
+    public void putAll(List<RegisteredEvent> events) {
+        for (RegisteredEvent event : events) {
+            // Indexed first: an event refused or evicted right away removes its own mapping.
+            idByOriginalId.put(event.getOriginalEventId(), event.getId());
+            byId.put(event.getId(), event);
+        }
+    }
+
+    /**
+     * Registered automatically: Spring Boot binds every MeterBinder bean.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new WeightedLfuCacheMetrics(byId, "registered-events", Tags.empty()).bindTo(registry);
+    }
+
+    static long weigh(RegisteredEvent event) {
+        return ENTRY_OVERHEAD_BYTES + length(event.getPayload())
+                + length(event.getEventType()) + length(event.getServiceName());
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    public Map<String, Object> getStats() {
+        long hits = byId.hitCount();
+        long lookups = hits + byId.missCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", byId.size());
+        stats.put("weightBytes", byId.weight());
+        stats.put("maxWeightBytes", byId.maxWeight());
+        stats.put("hits", hits);
+        stats.put("misses", byId.missCount());
+        stats.put("hitRate", lookups > 0 ? (double) hits / lookups : 0.0);
+        stats.put("evictions", byId.evictionCount());
+        return stats;
+    }
+}
@@ -0,0 +1,265 @@
+package org.example.eventregistry.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache of immutable values, bounded by the summed weight of its entries and evicting in the
+ * W-TinyLFU manner.
+ *
+ * <p>New entries go into a small LRU admission window. An entry pushed out of the window only
+ * enters the main area if a count-min sketch of recent lookups rates it above the main area's
+ * eviction victim, so a burst of one-off lookups cannot flush the entries that are read again
+ * and again. The main area is a segmented LRU: entries start on probation and move to the
+ * protected segment when read again. The sketch halves its counters periodically, so old
+ * popularity fades.
+ *
+ * <p>Values are never replaced and every operation takes one lock; a hit still costs far less
+ * than the database round trip it saves.
+ */
+public class WeightedLfuCache<K, V> {
+
+    private static final double WINDOW_SHARE = 0.01;
+    private static final double PROTECTED_SHARE = 0.8;
+
+    private final long mainMaxWeight;
+    private final long windowMaxWeight;
+    private final long protectedMaxWeight;
+    private final ToLongFunction<V> weigher;
+    private final BiConsumer<K, V> onEviction;
+    private final FrequencySketch sketch;
+
+    private final LinkedHashMap<K, Node<V>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Node<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private long windowWeight;
+    private long probationWeight;
+    private long protectedWeight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param expectedEntries sizes the frequency sketch; a rough estimate of how many entries fit
+     * @param onEviction      called outside the lock for every entry that leaves or is refused
+     */
+    public WeightedLfuCache(long maxWeight, int expectedEntries, ToLongFunction<V> weigher,
+                            BiConsumer<K, V> onEviction) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.windowMaxWeight = Math.max(1, (long) (maxWeight * WINDOW_SHARE));
+        this.mainMaxWeight = maxWeight - windowMaxWeight;
+        this.protectedMaxWeight = (long) (mainMaxWeight * PROTECTED_SHARE);
+        this.weigher = weigher;
+        this.onEviction = onEviction;
+        this.sketch = new FrequencySketch(expectedEntries);
+    }
+
+    public V get(K key) {
+        V value;
+        synchronized (this) {
+            sketch.increment(key);
+            value = lookup(key);
+        }
+        (value != null ? hits : misses).increment();
+        return value;
+    }
+
+    /**
+     * Caches {@code value} unless the key is cached already. A value heavier than the main area
+     * is handed straight to the eviction callback.
+     */
+    public void put(K key, V value) {
+        long weight = weigher.applyAsLong(value);
+        List<Map.Entry<K, Node<V>>> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (containsKey(key)) {
+                return;
+            }
+            if (weight > mainMaxWeight) {
+                evicted.add(Map.entry(key, new Node<>(value, weight)));
+            } else {
+                sketch.increment(key);
+                window.put(key, new Node<>(value, weight));
+                windowWeight += weight;
+                while (windowWeight > windowMaxWeight) {
+                    Map.Entry<K, Node<V>> candidate = window.pollFirstEntry();
+                    windowWeight -= candidate.getValue().weight();
+                    admit(candidate, evicted);
+                }
+            }
+        }
+        puts.increment();
+        evictions.add(evicted.size());
+        evicted.forEach(entry -> onEviction.accept(entry.getKey(), entry.getValue().value()));
+    }
+
+    private V lookup(K key) {
+        Node<V> node = window.get(key);
+        if (node == null) {
+            node = protectedSegment.get(key);
+        }
+        if (node == null) {
+            node = probation.remove(key);
+            if (node != null) {
+                probationWeight -= node.weight();
+                promote(key, node);
+            }
+        }
+        return node != null ? node.value() : null;
+    }
+
+    private void promote(K key, Node<V> node) {
+        protectedSegment.put(key, node);
+        protectedWeight += node.weight();
+        while (protectedWeight > protectedMaxWeight && protectedSegment.size() > 1) {
+            Map.Entry<K, Node<V>> demoted = protectedSegment.pollFirstEntry();
+            protectedWeight -= demoted.getValue().weight();
+            probation.put(demoted.getKey(), demoted.getValue());
+            probationWeight += demoted.getValue().weight();
+        }
+    }
+
+    /**
+     * Makes room in the main area by evicting its least recently used entries, probation first,
+     * as long as the candidate is used more often than each of them; otherwise the candidate goes.
+     */
+    private void admit(Map.Entry<K, Node<V>> candidate, List<Map.Entry<K, Node<V>>> evicted) {
+        long weight = candidate.getValue().weight();
+        int candidateFrequency = sketch.frequency(candidate.getKey());
+        while (probationWeight + protectedWeight + weight > mainMaxWeight) {
+            boolean fromProbation = !probation.isEmpty();
+            Map.Entry<K, Node<V>> victim = fromProbation ? probation.firstEntry() : protectedSegment.firstEntry();
+            if (candidateFrequency <= sketch.frequency(victim.getKey())) {
+                evicted.add(candidate);
+                return;
+            }
+            if (fromProbation) {
+                probation.pollFirstEntry();
+                probationWeight -= victim.getValue().weight();
+            } else {
+                protectedSegment.pollFirstEntry();
+                protectedWeight -= victim.getValue().weight();
+            }
+            evicted.add(victim);
+        }
+        probation.put(candidate.getKey(), candidate.getValue());
+        probationWeight += weight;
+    }
+
+    private boolean containsKey(K key) {
+        return window.containsKey(key) || probation.containsKey(key) || protectedSegment.containsKey(key);
+    }
+
+    /**
+     * Counts a lookup answered as a miss without consulting the cache, e.g. through a
+     * secondary index that does not know the key.
+     */
+    void recordMiss() {
+        misses.increment();
+    }
+
+    public synchronized long size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public synchronized long weight() {
+        return windowWeight + probationWeight + protectedWeight;
+    }
+
+    public long maxWeight() {
+        return windowMaxWeight + mainMaxWeight;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long putCount() {
+        return puts.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private record Node<V>(V value, long weight) {
+    }
+
+    /**
+     * Count-min sketch with four rows of counters saturating at 15. Only the smallest of a
+     * key's counters are incremented, which keeps the overestimate from hash collisions low.
+     * All counters are halved after ten lookups or insertions per expected entry.
+     */
+    static final class FrequencySketch {
+
+        private static final int MAX_COUNT = 15;
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+        private final byte[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int entries = Math.clamp(expectedEntries, 64, 1 << 22);
+            // Four counters per expected entry and row keep collisions rare even during a scan.
+            int width = Integer.highestOneBit(entries * 2 - 1) * 4;
+            this.counters = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * entries;
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < SEEDS.length; row++) {
+                frequency = Math.min(frequency, counters[row][index(hash, row)]);
+            }
+            return frequency;
+        }
+
+        void increment(Object key) {
+            int frequency = frequency(key);
+            if (frequency < MAX_COUNT) {
+                int hash = key.hashCode();
+                for (int row = 0; row < SEEDS.length; row++) {
+                    int index = index(hash, row);
+                    if (counters[row][index] == frequency) {
+                        counters[row][index]++;
+                    }
+                }
+            }
+            if (++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        private int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
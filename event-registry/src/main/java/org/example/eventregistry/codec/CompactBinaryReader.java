@@ -0,0 +1,92 @@
+package org.example.eventregistry.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Reads values written by {@link CompactBinaryWriter}.
+ */
+class CompactBinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    CompactBinaryReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    byte readByte() {
+        require(1);
+        return buffer[position++];
+    }
+
+    long readLong() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (buffer[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at offset " + position);
+    }
+
+    UUID readUuid() {
+        if (readByte() == 0) {
+            return null;
+        }
+        return new UUID(readLong(), readLong());
+    }
+
+    LocalDateTime readTimestamp() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long micros = readLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Checks the version byte that starts every binary value.
+     *
+     * @return the record kind that follows it
+     */
+    byte readHeader(byte expectedVersion) {
+        byte version = readByte();
+        if (version != expectedVersion) {
+            throw new IllegalArgumentException("Unsupported binary wire version: " + version);
+        }
+        return readByte();
+    }
+
+    private void require(int bytes) {
+        if (position + bytes > buffer.length) {
+            throw new IllegalArgumentException("Truncated binary record: needed " + bytes
+                    + " bytes at offset " + position + " of " + buffer.length);
+        }
+    }
+}
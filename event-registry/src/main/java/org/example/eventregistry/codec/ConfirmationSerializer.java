@@ -0,0 +1,81 @@
+package org.example.eventregistry.codec;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+import org.example.eventregistry.dto.EventConfirmationBatch;
+import org.example.eventregistry.dto.EventResponse;
+
+/**
+ * Writes events.processed values, single {@link EventResponse}s as well as
+ * {@link EventConfirmationBatch} envelopes, in the configured {@link WireFormat} and tags
+ * each record with the format header.
+ */
+public class ConfirmationSerializer<T> implements Serializer<T> {
+
+    private final WireFormat format;
+    private final ObjectWriter jsonWriter;
+
+    public ConfirmationSerializer(WireFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        // Same ISO timestamps the Spring JsonSerializer produced
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        if (data == null) {
+            return null;
+        }
+        headers.remove(WireFormat.HEADER);
+        headers.add(WireFormat.HEADER, format.headerBytes());
+        return format == WireFormat.BINARY ? toBinary(data) : serialize(topic, data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return jsonWriter.writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException("Can't serialize confirmation", e);
+        }
+    }
+
+    static byte[] toBinary(Object data) {
+        if (data instanceof EventResponse response) {
+            CompactBinaryWriter writer = new CompactBinaryWriter(64);
+            writer.writeByte(WireFormat.BINARY_VERSION);
+            writer.writeByte(WireFormat.KIND_CONFIRMATION);
+            writer.writeUuid(response.getOriginalEventId());
+            writer.writeUuid(response.getRegisteredEventId());
+            writer.writeString(response.getStatus());
+            writer.writeTimestamp(response.getProcessedAt());
+            writer.writeString(response.getRegistryServiceName());
+            return writer.toByteArray();
+        }
+        if (data instanceof EventConfirmationBatch batch) {
+            int count = batch.getConfirmations() != null ? batch.getConfirmations().size() : 0;
+            CompactBinaryWriter writer = new CompactBinaryWriter(32 + count * 44);
+            writer.writeByte(WireFormat.BINARY_VERSION);
+            writer.writeByte(WireFormat.KIND_CONFIRMATION_BATCH);
+            writer.writeString(batch.getStatus());
+            writer.writeString(batch.getRegistryServiceName());
+            writer.writeVarInt(count);
+            for (int i = 0; i < count; i++) {
+                EventConfirmationBatch.Confirmation confirmation = batch.getConfirmations().get(i);
+                writer.writeUuid(confirmation.getOriginalEventId());
+                writer.writeUuid(confirmation.getRegisteredEventId());
+                writer.writeTimestamp(confirmation.getProcessedAt());
+            }
+            return writer.toByteArray();
+        }
+        throw new SerializationException("No binary layout for " + data.getClass().getName());
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.eventregistry.config;
+
+import org.example.eventregistry.cache.RegisteredEventCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${registry.cache.events.max-bytes:67108864}")
+    private long eventCacheMaxBytes;
+
+    @Bean
+    public RegisteredEventCache registeredEventCache() {
+        return new RegisteredEventCache(eventCacheMaxBytes);
+    }
+}
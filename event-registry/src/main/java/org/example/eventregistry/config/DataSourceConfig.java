@@ -0,0 +1,102 @@
+package org.example.eventregistry.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.eventregistry.datasource.ReadWriteRoutingDataSource;
+import org.example.eventregistry.datasource.ReplicaLagMonitor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * A primary pool for ingest and everything else that writes, and a replica pool for
+ * read-only transactions, each with its own size and connection timeout. Without
+ * replica settings the replica pool points at the primary database as a stand-in.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${spring.datasource.url}")
+    private String primaryUrl;
+
+    @Value("${spring.datasource.username}")
+    private String primaryUsername;
+
+    @Value("${spring.datasource.password}")
+    private String primaryPassword;
+
+    @Value("${spring.datasource.driver-class-name:org.postgresql.Driver}")
+    private String driverClassName;
+
+    @Value("${registry.datasource.primary.maximum-pool-size:10}")
+    private int primaryMaximumPoolSize;
+
+    @Value("${registry.datasource.primary.connection-timeout-ms:30000}")
+    private long primaryConnectionTimeoutMs;
+
+    @Value("${registry.datasource.replica.url:${spring.datasource.url}}")
+    private String replicaUrl;
+
+    @Value("${registry.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${registry.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${registry.datasource.replica.maximum-pool-size:10}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${registry.datasource.replica.connection-timeout-ms:2000}")
+    private long replicaConnectionTimeoutMs;
+
+    @Value("${registry.datasource.replica.max-lag-ms:5000}")
+    private long replicaMaxLagMs;
+
+    @Bean
+    public HikariDataSource primaryDataSource() {
+        return pool("registry-primary", primaryUrl, primaryUsername, primaryPassword,
+                primaryMaximumPoolSize, primaryConnectionTimeoutMs);
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource replica = pool("registry-replica", replicaUrl, replicaUsername, replicaPassword,
+                replicaMaximumPoolSize, replicaConnectionTimeoutMs);
+        // Also keeps writes off the primary when it stands in for the replica.
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor() {
+        return new ReplicaLagMonitor(new JdbcTemplate(replicaDataSource()), replicaMaxLagMs);
+    }
+
+    /**
+     * The data source JPA, JdbcTemplate and Flyway use. Connections are fetched on the first
+     * statement, once the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource(), replicaDataSource(), replicaLagMonitor()));
+    }
+
+    private HikariDataSource pool(String name, String url, String username, String password,
+                                  int maximumPoolSize, long connectionTimeoutMs) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setDriverClassName(driverClassName);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setConnectionTimeout(connectionTimeoutMs);
+        return pool;
+    }
+}
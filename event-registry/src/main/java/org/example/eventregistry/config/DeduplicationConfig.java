@@ -0,0 +1,24 @@
+package org.example.eventregistry.config;
+
+import org.example.eventregistry.dedup.OriginalEventIdFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class DeduplicationConfig {
+
+    @Value("${registry.dedup.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${registry.dedup.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${registry.dedup.recent-capacity:100000}")
+    private int recentCapacity;
+
+    @Bean
+    public OriginalEventIdFilter originalEventIdFilter() {
+        return new OriginalEventIdFilter(expectedInsertions, falsePositiveRate, recentCapacity);
+    }
+}
@@ -1,17 +1,23 @@
 package org.example.eventregistry.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.eventregistry.ingest.KeyedWorkerPool;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ThreadFactory;
 
 @Configuration
 @EnableKafka
@@ -20,23 +26,75 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${registry.ingest.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${registry.ingest.batch.size:500}")
+    private int batchSize;
+
+    @Value("${registry.ingest.batch.max-wait-ms:200}")
+    private int batchMaxWaitMs;
+
+    @Value("${registry.ingest.batch.min-bytes:16384}")
+    private int batchMinBytes;
+
+    @Value("${registry.ingest.concurrency:3}")
+    private int concurrency;
+
+    @Value("${registry.ingest.workers:4}")
+    private int workers;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "event-registry-group");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // Values are decoded from the raw bytes by EventMessageDecoder
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+
+        if (batchEnabled) {
+            // One poll == one batch: the broker holds the fetch until min-bytes
+            // are available or max-wait elapses, whichever comes first.
+            props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+            props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchMinBytes);
+            props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchMaxWaitMs);
+        }
 
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory(
+            DefaultErrorHandler ingestErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(batchEnabled);
+        // One consumer thread per partition at most; extra threads stay idle.
+        factory.setConcurrency(concurrency);
+        // Offsets are committed only after the listener returns, i.e. after the
+        // DB transaction around the whole poll has been committed.
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        // Redelivers with backoff what could not be routed to a retry topic; see RetryTopicConfig.
+        factory.setCommonErrorHandler(ingestErrorHandler);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor consumerExecutor = new SimpleAsyncTaskExecutor("registry-consumer-");
+            consumerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(consumerExecutor);
+        }
         return factory;
     }
-}
\ No newline at end of file
+
+    @Bean(destroyMethod = "close")
+    public KeyedWorkerPool ingestWorkerPool() {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("registry-worker-", 1).factory()
+                : Thread.ofPlatform().name("registry-worker-", 1).daemon(true).factory();
+        return new KeyedWorkerPool(workers, threadFactory);
+    }
+}
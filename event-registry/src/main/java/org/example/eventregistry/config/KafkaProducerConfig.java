@@ -1,7 +1,11 @@
 package org.example.eventregistry.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.eventregistry.codec.ConfirmationSerializer;
+import org.example.eventregistry.codec.WireFormat;
+import org.example.eventregistry.dto.EventConfirmationBatch;
 import org.example.eventregistry.dto.EventResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -9,7 +13,6 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -20,20 +23,42 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${registry.kafka.wire-format:json}")
+    private String wireFormat;
+
+    @Value("${registry.kafka.compression:none}")
+    private String compression;
+
     @Bean
-    public ProducerFactory<String, EventResponse> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
-        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+    public ProducerFactory<String, EventResponse> producerFactory(ObjectMapper objectMapper) {
+        return new DefaultKafkaProducerFactory<>(producerProps(), new StringSerializer(),
+                new ConfirmationSerializer<>(WireFormat.fromProperty(wireFormat), objectMapper));
+    }
 
-        return new DefaultKafkaProducerFactory<>(configProps);
+    @Bean
+    public KafkaTemplate<String, EventResponse> kafkaTemplate(ProducerFactory<String, EventResponse> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 
     @Bean
-    public KafkaTemplate<String, EventResponse> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public ProducerFactory<String, EventConfirmationBatch> confirmationBatchProducerFactory(ObjectMapper objectMapper) {
+        return new DefaultKafkaProducerFactory<>(producerProps(), new StringSerializer(),
+                new ConfirmationSerializer<>(WireFormat.fromProperty(wireFormat), objectMapper));
+    }
+
+    @Bean
+    public KafkaTemplate<String, EventConfirmationBatch> confirmationBatchKafkaTemplate(
+            ProducerFactory<String, EventConfirmationBatch> confirmationBatchProducerFactory) {
+        return new KafkaTemplate<>(confirmationBatchProducerFactory);
+    }
+
+    private Map<String, Object> producerProps() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "1");
+        configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
+        // Whole producer batches are compressed; consumers decompress transparently.
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        return configProps;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package org.example.eventregistry.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.eventregistry.partition.PartitionInterval;
+import org.example.eventregistry.partition.RegisteredEventPartitions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+public class PartitionConfig {
+
+    @Value("${registry.partitioning.interval:month}")
+    private String interval;
+
+    @Value("${registry.partitioning.premake:3}")
+    private int premake;
+
+    @Value("${registry.partitioning.retention-days:0}")
+    private int retentionDays;
+
+    @Bean
+    public RegisteredEventPartitions registeredEventPartitions(JdbcTemplate jdbcTemplate,
+                                                               TransactionTemplate transactionTemplate,
+                                                               MeterRegistry meterRegistry) {
+        return new RegisteredEventPartitions(jdbcTemplate, transactionTemplate, PartitionInterval.fromProperty(interval),
+                premake, retentionDays, meterRegistry);
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.eventregistry.config;
+
+import org.example.eventregistry.query.EventDictionaries;
+import org.example.eventregistry.query.FilteredCountCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class QueryConfig {
+
+    @Value("${registry.query.count-cache.ttl-ms:30000}")
+    private long countCacheTtlMs;
+
+    @Value("${registry.query.count-cache.max-entries:256}")
+    private int countCacheMaxEntries;
+
+    @Bean
+    public FilteredCountCache filteredCountCache() {
+        return new FilteredCountCache(countCacheTtlMs, countCacheMaxEntries);
+    }
+
+    @Bean
+    public EventDictionaries eventDictionaries() {
+        return new EventDictionaries();
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.eventregistry.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.eventregistry.retry.DeadLetterReplayer;
+import org.example.eventregistry.retry.IngestRetryRouter;
+import org.example.eventregistry.retry.RetryTopics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Retry tiers and dead-letter topic for events.created. Records are moved between topics
+ * as raw bytes, so the wire-format header and payload stay exactly as the generator sent them.
+ */
+@Configuration
+public class RetryTopicConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${registry.retry.partitions:3}")
+    private int partitions;
+
+    @Value("${registry.retry.redelivery.initial-interval-ms:1000}")
+    private long redeliveryInitialIntervalMs;
+
+    @Value("${registry.retry.redelivery.max-interval-ms:30000}")
+    private long redeliveryMaxIntervalMs;
+
+    @Value("${registry.retry.redelivery.max-elapsed-ms:600000}")
+    private long redeliveryMaxElapsedMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    public KafkaAdmin.NewTopics retryTopics() {
+        return new KafkaAdmin.NewTopics(
+                TopicBuilder.name(RetryTopics.RETRY_1S).partitions(partitions).replicas(1).build(),
+                TopicBuilder.name(RetryTopics.RETRY_10S).partitions(partitions).replicas(1).build(),
+                TopicBuilder.name(RetryTopics.RETRY_60S).partitions(partitions).replicas(1).build(),
+                TopicBuilder.name(RetryTopics.DLT).partitions(partitions).replicas(1).build());
+    }
+
+    @Bean
+    public KafkaTemplate<String, byte[]> retryKafkaTemplate() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        // A routed record is the only copy once the source offset is committed.
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(), new ByteArraySerializer()));
+    }
+
+    @Bean
+    public IngestRetryRouter ingestRetryRouter(KafkaTemplate<String, byte[]> retryKafkaTemplate) {
+        return new IngestRetryRouter(retryKafkaTemplate);
+    }
+
+    @Bean
+    public DeadLetterReplayer deadLetterReplayer(ConsumerFactory<String, byte[]> consumerFactory,
+                                                 KafkaTemplate<String, byte[]> retryKafkaTemplate) {
+        return new DeadLetterReplayer(consumerFactory, retryKafkaTemplate);
+    }
+
+    /**
+     * Handles what the ingest listeners rethrow, i.e. records that could be routed neither to
+     * the database nor to a retry topic. They are redelivered with exponential backoff, and
+     * published to the dead-letter topic once {@code max-elapsed-ms} has passed. A record
+     * whose dead-letter publish fails as well is redelivered again, so its offset is never
+     * committed without a copy on some topic.
+     */
+    @Bean
+    public DefaultErrorHandler ingestErrorHandler(KafkaTemplate<String, byte[]> retryKafkaTemplate) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(retryKafkaTemplate,
+                (record, e) -> new TopicPartition(RetryTopics.DLT, -1));
+        ExponentialBackOff backOff = new ExponentialBackOff(redeliveryInitialIntervalMs, 2.0);
+        backOff.setMaxInterval(redeliveryMaxIntervalMs);
+        backOff.setMaxElapsedTime(redeliveryMaxElapsedMs);
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> retryKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> consumerFactory, DefaultErrorHandler ingestErrorHandler) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        // Record mode: a record that is not due yet is nacked with its remaining delay,
+        // which pauses the tier's consumer instead of blocking it in a sleep.
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.setCommonErrorHandler(ingestErrorHandler);
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor consumerExecutor = new SimpleAsyncTaskExecutor("registry-retry-");
+            consumerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(consumerExecutor);
+        }
+        return factory;
+    }
+}
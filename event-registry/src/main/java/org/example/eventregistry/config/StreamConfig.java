@@ -0,0 +1,33 @@
+package org.example.eventregistry.config;
+
+import org.example.eventregistry.stream.RegisteredEventStream;
+import org.example.eventregistry.stream.RegisteredEventStream.OverflowPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+@Configuration
+public class StreamConfig {
+
+    @Value("${registry.stream.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${registry.stream.max-subscribers:100}")
+    private int maxSubscribers;
+
+    @Value("${registry.stream.overflow:drop-oldest}")
+    private String overflow;
+
+    @Value("${registry.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Bean
+    public RegisteredEventStream registeredEventStream() {
+        // A sender blocked on a slow client parks its virtual thread, not a platform thread.
+        SimpleAsyncTaskExecutor sender = new SimpleAsyncTaskExecutor("registry-sse-");
+        sender.setVirtualThreads(true);
+        return new RegisteredEventStream(sender, queueCapacity, maxSubscribers,
+                OverflowPolicy.fromProperty(overflow), timeoutMs);
+    }
+}
@@ -1,21 +1,44 @@
 package org.example.eventregistry.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.eventregistry.dto.CursorPage;
+import org.example.eventregistry.dto.EventCounts;
+import org.example.eventregistry.dto.RegisteredEventSummary;
 import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.partition.RegisteredEventPartitions;
+import org.example.eventregistry.query.BucketSize;
+import org.example.eventregistry.query.EventDictionaries;
+import org.example.eventregistry.query.RollupDimension;
+import org.example.eventregistry.query.TotalMode;
+import org.example.eventregistry.retry.DeadLetterReplayer;
 import org.example.eventregistry.service.EventProcessingService;
+import org.example.eventregistry.stream.RegisteredEventStream;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -24,28 +47,75 @@ import java.util.UUID;
 @Slf4j
 public class RegistryController {
 
+    // Properties with a matching index in db/migration for every filter combination.
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("createdAt", "registeredAt");
+
+    private static final int MAX_SEARCH_LIMIT = 1000;
+
+    private static final int MAX_TIMESERIES_BUCKETS = 10_000;
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     private final EventProcessingService eventService;
+    private final DeadLetterReplayer deadLetterReplayer;
+    private final RegisteredEventStream eventStream;
+    private final RegisteredEventPartitions partitions;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * DOWN (503) once registered_events has no partition for events created now, since every
+     * insert then fails.
+     */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean partitioned = partitions.isCovered(now);
         Map<String, Object> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", partitioned ? "UP" : "DOWN");
         response.put("service", "event-registry");
-        response.put("timestamp", LocalDateTime.now());
+        response.put("timestamp", now);
         response.put("kafka", "listening to: events.created");
-        return ResponseEntity.ok(response);
+        response.put("partitionsCoveredUntil", partitions.getCoveredUntil());
+        return partitioned ? ResponseEntity.ok(response) : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("serviceName", "event-registry");
-        stats.put("totalRegisteredEvents", eventService.getTotalRegisteredEvents());
+        EventCounts counts = eventService.getEventCounts();
+        stats.put("totalRegisteredEvents", counts.total());
+        stats.put("byEventType", counts.byEventType());
+        stats.put("byServiceName", counts.byServiceName());
+        stats.put("deduplication", eventService.getDeduplicationStats());
+        stats.put("countCache", eventService.getCountCacheStats());
+        stats.put("eventCache", eventService.getEventCacheStats());
+        stats.put("stream", eventStream.getStats());
+        Map<String, Object> retry = new HashMap<>(eventService.getRetryStats());
+        retry.put("replayed", deadLetterReplayer.getReplayedCount());
+        stats.put("retry", retry);
+        stats.put("replica", eventService.getReplicaStats());
         stats.put("timestamp", LocalDateTime.now());
         stats.put("status", "ACTIVE");
         return ResponseEntity.ok(stats);
     }
 
+    /**
+     * Sends dead-lettered events back to events.created, e.g. after a fix for the
+     * failure that put them there has been deployed.
+     */
+    @PostMapping("/dlt/replay")
+    public ResponseEntity<Map<String, Object>> replayDeadLetters(
+            @RequestParam(name = "limit", defaultValue = "1000") int limit) {
+        if (limit <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("replayed", deadLetterReplayer.replay(limit));
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/events")
     public ResponseEntity<Map<String, Object>> getEventsWithFilters(
             @RequestParam(name = "page", defaultValue = "0") int page,
@@ -57,20 +127,44 @@ public class RegistryController {
             @RequestParam(name = "endDate", required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
             @RequestParam(name = "eventType", required = false) String eventType,
-            @RequestParam(name = "serviceName", required = false) String serviceName) {
+            @RequestParam(name = "serviceName", required = false) String serviceName,
+            @RequestParam(name = "pagination", defaultValue = "offset") String pagination,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "includeTotal", defaultValue = "false") boolean includeTotal,
+            @RequestParam(name = "totalMode", defaultValue = "exact") String totalModeParam,
+            @RequestParam(name = "include", required = false) Set<String> include) {
+
+        TotalMode totalMode;
+        try {
+            totalMode = TotalMode.fromParam(totalModeParam);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid totalMode: {}", totalModeParam);
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (!SORTABLE_PROPERTIES.contains(sort)) {
+            log.warn("Unsupported sort property: {}, supported: {}", sort, SORTABLE_PROPERTIES);
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (cursor != null || "cursor".equalsIgnoreCase(pagination)) {
+            return getEventsByCursor(listView(include), cursor, size, sort, direction, includeTotal ? totalMode : null,
+                    startDate, endDate, eventType, serviceName);
+        }
 
         Sort.Direction sortDirection = "ASC".equalsIgnoreCase(direction) ?
                 Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, sort));
 
-        Page<RegisteredEvent> eventsPage = eventService.getEventsWithFilters(
-                pageable, startDate, endDate, eventType, serviceName
+        Page<?> eventsPage = eventService.getEventsWithFilters(
+                listView(include), pageable, startDate, endDate, eventType, serviceName, totalMode
         );
 
         Map<String, Object> response = new HashMap<>();
         response.put("content", eventsPage.getContent());
         response.put("currentPage", eventsPage.getNumber());
         response.put("totalItems", eventsPage.getTotalElements());
+        response.put("totalMode", totalMode.paramValue());
         response.put("totalPages", eventsPage.getTotalPages());
         response.put("pageSize", eventsPage.getSize());
         response.put("hasNext", eventsPage.hasNext());
@@ -88,9 +182,126 @@ public class RegistryController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * List endpoints return {@link RegisteredEventSummary} rows; {@code include=payload} asks for
+     * full events. Single-event lookups always include the payload.
+     */
+    private static Class<?> listView(Set<String> include) {
+        return include != null && include.contains("payload") ? RegisteredEvent.class : RegisteredEventSummary.class;
+    }
+
+    /**
+     * Keyset mode of {@code /events}: ordered by createdAt (ties broken by id), seeking past
+     * the last row of the previous page, so every page costs the same regardless of depth.
+     * Pass {@code nextCursor} back as {@code cursor}, together with the same filters.
+     */
+    private ResponseEntity<Map<String, Object>> getEventsByCursor(
+            Class<?> view,
+            String cursor,
+            int size,
+            String sort,
+            String direction,
+            TotalMode totalMode,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
+
+        if (!"createdAt".equals(sort) || size < 1) {
+            log.warn("Cursor pagination supports sort=createdAt and size >= 1 only, got sort={}, size={}", sort, size);
+            return ResponseEntity.badRequest().build();
+        }
+
+        CursorPage<?> eventsPage;
+        try {
+            eventsPage = eventService.getEventsAfterCursor(view, cursor, "ASC".equalsIgnoreCase(direction), size,
+                    totalMode, startDate, endDate, eventType, serviceName);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid cursor: {}", cursor);
+            return ResponseEntity.badRequest().build();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", eventsPage.content());
+        response.put("pageSize", size);
+        response.put("hasNext", eventsPage.hasNext());
+        response.put("nextCursor", eventsPage.nextCursor());
+        if (eventsPage.total() != null) {
+            response.put("totalItems", eventsPage.total());
+            response.put("totalMode", totalMode.paramValue());
+        }
+
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("startDate", startDate);
+        filters.put("endDate", endDate);
+        filters.put("eventType", eventType);
+        filters.put("serviceName", serviceName);
+        filters.put("sort", sort);
+        filters.put("direction", direction);
+        response.put("filters", filters);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Loads the whole table into memory; use {@code /events/export} for anything but small tables.
+     */
     @GetMapping("/events/all")
-    public ResponseEntity<?> getAllEvents() {
-        return ResponseEntity.ok(eventService.getAllEvents());
+    public ResponseEntity<?> getAllEvents(@RequestParam(name = "include", required = false) Set<String> include) {
+        return ResponseEntity.ok(eventService.getAllEvents(listView(include)));
+    }
+
+    /**
+     * Every event created within the optional range as NDJSON, one object per line in createdAt
+     * order. Rows are read through a database cursor and written as they arrive, so memory use
+     * does not depend on the number of rows.
+     */
+    @GetMapping(value = "/events/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEvents(
+            @RequestParam(name = "startDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(name = "endDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+
+        ObjectWriter writer = objectMapper.writerFor(RegisteredEvent.class)
+                .without(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        StreamingResponseBody body = out -> eventService.exportEvents(startDate, endDate, event -> {
+            try {
+                out.write(writer.writeValueAsBytes(event));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Live tail: every event this instance registers from now on, pushed after its transaction
+     * commits, as "registered" Server-Sent Events with the event id as SSE id. Same filters and
+     * {@code include} as {@code /events}. 503 when the subscriber limit is reached.
+     */
+    @GetMapping(value = "/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestParam(name = "eventType", required = false) String eventType,
+            @RequestParam(name = "serviceName", required = false) String serviceName,
+            @RequestParam(name = "include", required = false) Set<String> include) {
+
+        SseEmitter emitter = eventStream.subscribe(eventType, serviceName,
+                listView(include) == RegisteredEvent.class);
+        if (emitter == null) {
+            log.warn("Stream subscriber limit reached");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Registered events never change, so the id is a strong validator and clients and proxies
+     * may keep the response for good; a matching If-None-Match gets 304 Not Modified.
+     */
+    private static ResponseEntity<RegisteredEvent> immutable(RegisteredEvent event) {
+        return ResponseEntity.ok().eTag(event.getId().toString()).cacheControl(IMMUTABLE).body(event);
     }
 
     @GetMapping("/events/{id}")
@@ -99,7 +310,7 @@ public class RegistryController {
             UUID uuid = UUID.fromString(id);
             RegisteredEvent event = eventService.getEventById(uuid);
             if (event != null) {
-                return ResponseEntity.ok(event);
+                return immutable(event);
             }
             return ResponseEntity.notFound().build();
         } catch (IllegalArgumentException e) {
@@ -115,7 +326,7 @@ public class RegistryController {
             UUID uuid = UUID.fromString(originalId);
             RegisteredEvent event = eventService.getEventByOriginalId(uuid);
             if (event != null) {
-                return ResponseEntity.ok(event);
+                return immutable(event);
             }
             return ResponseEntity.notFound().build();
         } catch (IllegalArgumentException e) {
@@ -124,24 +335,34 @@ public class RegistryController {
         }
     }
 
+    /**
+     * Served from memory with an ETag; a matching If-None-Match gets 304 Not Modified.
+     */
     @GetMapping("/events/types")
-    public ResponseEntity<?> getEventTypes() {
-        return ResponseEntity.ok(eventService.getDistinctEventTypes());
+    public ResponseEntity<List<String>> getEventTypes() {
+        EventDictionaries.Snapshot eventTypes = eventService.getEventTypeDictionary();
+        return ResponseEntity.ok().eTag(eventTypes.etag()).body(eventTypes.values());
     }
 
     @GetMapping("/events/services")
-    public ResponseEntity<?> getServiceNames() {
-        return ResponseEntity.ok(eventService.getDistinctServiceNames());
+    public ResponseEntity<List<String>> getServiceNames() {
+        EventDictionaries.Snapshot serviceNames = eventService.getServiceNameDictionary();
+        return ResponseEntity.ok().eTag(serviceNames.etag()).body(serviceNames.values());
     }
 
     @GetMapping("/events/search")
     public ResponseEntity<?> searchEvents(
             @RequestParam(name = "id", required = false) String id,
-            @RequestParam(name = "originalId", required = false) String originalId) {
+            @RequestParam(name = "originalId", required = false) String originalId,
+            @RequestParam(name = "limit", defaultValue = "50") int limit,
+            @RequestParam(name = "include", required = false) Set<String> include) {
 
         if (id == null && originalId == null) {
             return ResponseEntity.badRequest().body("Please provide 'id' or 'originalId' parameter");
         }
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            return ResponseEntity.badRequest().body("Parameter 'limit' must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
 
         if (id != null) {
             try {
@@ -150,12 +371,12 @@ public class RegistryController {
                 if (event != null) {
                     return ResponseEntity.ok(event);
                 }
-                List<RegisteredEvent> events = searchEventsByPartialId(id);
+                List<?> events = eventService.searchEventsByPartialId(id, limit, listView(include));
                 if (!events.isEmpty()) {
                     return ResponseEntity.ok(events);
                 }
             } catch (IllegalArgumentException e) {
-                List<RegisteredEvent> events = searchEventsByPartialId(id);
+                List<?> events = eventService.searchEventsByPartialId(id, limit, listView(include));
                 if (!events.isEmpty()) {
                     return ResponseEntity.ok(events);
                 }
@@ -170,12 +391,12 @@ public class RegistryController {
                 if (event != null) {
                     return ResponseEntity.ok(event);
                 }
-                List<RegisteredEvent> events = searchEventsByPartialOriginalId(originalId);
+                List<?> events = eventService.searchEventsByPartialOriginalId(originalId, limit, listView(include));
                 if (!events.isEmpty()) {
                     return ResponseEntity.ok(events);
                 }
             } catch (IllegalArgumentException e) {
-                List<RegisteredEvent> events = searchEventsByPartialOriginalId(originalId);
+                List<?> events = eventService.searchEventsByPartialOriginalId(originalId, limit, listView(include));
                 if (!events.isEmpty()) {
                     return ResponseEntity.ok(events);
                 }
@@ -186,17 +407,52 @@ public class RegistryController {
         return ResponseEntity.notFound().build();
     }
 
-    private List<RegisteredEvent> searchEventsByPartialId(String partialId) {
-        List<RegisteredEvent> allEvents = eventService.getAllEvents();
-        return allEvents.stream()
-                .filter(event -> event.getId().toString().contains(partialId))
-                .collect(java.util.stream.Collectors.toList());
-    }
+    /**
+     * Event counts and min/max/avg ingest lag per minute, hour or day bucket of createdAt,
+     * optionally grouped by eventType and/or serviceName. Served from the rollup table.
+     * The range defaults to the last 24 hours.
+     */
+    @GetMapping("/analytics/timeseries")
+    public ResponseEntity<?> getTimeseries(
+            @RequestParam(name = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "bucket", defaultValue = "hour") String bucket,
+            @RequestParam(name = "groupBy", required = false) List<String> groupBy) {
 
-    private List<RegisteredEvent> searchEventsByPartialOriginalId(String partialOriginalId) {
-        List<RegisteredEvent> allEvents = eventService.getAllEvents();
-        return allEvents.stream()
-                .filter(event -> event.getOriginalEventId().toString().contains(partialOriginalId))
-                .collect(java.util.stream.Collectors.toList());
+        BucketSize bucketSize;
+        Set<RollupDimension> dimensions = EnumSet.noneOf(RollupDimension.class);
+        try {
+            bucketSize = BucketSize.fromParam(bucket);
+            if (groupBy != null) {
+                for (String dimension : groupBy) {
+                    if (!dimension.isBlank()) {
+                        dimensions.add(RollupDimension.fromParam(dimension.trim()));
+                    }
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        LocalDateTime rangeEnd = to != null ? to : LocalDateTime.now();
+        LocalDateTime rangeStart = from != null ? from : rangeEnd.minusHours(24);
+        if (rangeStart.isAfter(rangeEnd)) {
+            return ResponseEntity.badRequest().body("Parameter 'from' must not be after 'to'");
+        }
+        long buckets = Duration.between(rangeStart, rangeEnd).dividedBy(bucketSize.width()) + 1;
+        if (buckets > MAX_TIMESERIES_BUCKETS) {
+            return ResponseEntity.badRequest().body("Range spans " + buckets + " " + bucketSize.paramValue()
+                    + " buckets; at most " + MAX_TIMESERIES_BUCKETS + " are allowed");
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("from", rangeStart);
+        response.put("to", rangeEnd);
+        response.put("bucket", bucketSize.paramValue());
+        response.put("groupBy", dimensions.stream().map(RollupDimension::paramValue).toList());
+        response.put("points", eventService.getTimeseries(bucketSize, rangeStart, rangeEnd, dimensions));
+        return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package org.example.eventregistry.dedup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory dedup front end for original event ids.
+ * <p>
+ * A recent-id cache answers "definitely registered" and lets the ingest path skip the
+ * database for redelivered events; a Bloom filter answers "definitely new". Everything
+ * else is a possible duplicate and is settled by the unique index on original_event_id.
+ * Until {@link #markWarmedUp()} is called every id is treated as a possible duplicate.
+ */
+public class OriginalEventIdFilter {
+
+    public enum Verdict {
+        NEW,
+        DUPLICATE,
+        POSSIBLE_DUPLICATE
+    }
+
+    private final BloomFilter bloomFilter;
+    private final RecentIdCache recentIds;
+
+    private volatile boolean warmedUp;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong bloomMisses = new AtomicLong();
+    private final AtomicLong bloomHits = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+    private final AtomicLong confirmedDuplicates = new AtomicLong();
+    private final AtomicLong missedDuplicates = new AtomicLong();
+
+    public OriginalEventIdFilter(long expectedInsertions, double falsePositiveRate, int recentCapacity) {
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.recentIds = new RecentIdCache(recentCapacity);
+    }
+
+    public Verdict check(UUID originalEventId) {
+        if (!warmedUp) {
+            return Verdict.POSSIBLE_DUPLICATE;
+        }
+
+        long msb = originalEventId.getMostSignificantBits();
+        long lsb = originalEventId.getLeastSignificantBits();
+
+        lookups.incrementAndGet();
+        if (recentIds.contains(msb, lsb)) {
+            cacheHits.incrementAndGet();
+            return Verdict.DUPLICATE;
+        }
+        if (!bloomFilter.mightContain(msb, lsb)) {
+            bloomMisses.incrementAndGet();
+            return Verdict.NEW;
+        }
+        bloomHits.incrementAndGet();
+        return Verdict.POSSIBLE_DUPLICATE;
+    }
+
+    /**
+     * Records an id the database has just accepted. Call only after the insert committed.
+     */
+    public void recordRegistered(UUID originalEventId, Verdict verdict) {
+        if (warmedUp && verdict == Verdict.POSSIBLE_DUPLICATE) {
+            falsePositives.incrementAndGet();
+        }
+        add(originalEventId);
+    }
+
+    /**
+     * Records an id the database has rejected as already registered.
+     */
+    public void recordDuplicate(UUID originalEventId, Verdict verdict) {
+        if (warmedUp) {
+            if (verdict == Verdict.POSSIBLE_DUPLICATE) {
+                confirmedDuplicates.incrementAndGet();
+            } else if (verdict == Verdict.NEW) {
+                // Registered by another instance or before warm-up finished.
+                missedDuplicates.incrementAndGet();
+            }
+        }
+        add(originalEventId);
+    }
+
+    /**
+     * Adds an already registered id without touching the counters (used for warm-up).
+     */
+    public void add(UUID originalEventId) {
+        long msb = originalEventId.getMostSignificantBits();
+        long lsb = originalEventId.getLeastSignificantBits();
+        bloomFilter.put(msb, lsb);
+        recentIds.add(msb, lsb);
+    }
+
+    /**
+     * Adds an id to the Bloom filter only; used to load the full history at startup
+     * while keeping the recent cache for the newest ids.
+     */
+    public void addToBloomFilter(UUID originalEventId) {
+        bloomFilter.put(originalEventId.getMostSignificantBits(), originalEventId.getLeastSignificantBits());
+    }
+
+    public void markWarmedUp() {
+        this.warmedUp = true;
+    }
+
+    public boolean isWarmedUp() {
+        return warmedUp;
+    }
+
+    public int getRecentCapacity() {
+        return recentIds.capacity();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("warmedUp", warmedUp);
+        stats.put("lookups", lookups.get());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("bloomMisses", bloomMisses.get());
+        stats.put("bloomHits", bloomHits.get());
+        stats.put("falsePositives", falsePositives.get());
+        stats.put("confirmedDuplicates", confirmedDuplicates.get());
+        stats.put("missedDuplicates", missedDuplicates.get());
+        stats.put("recentCacheSize", recentIds.size());
+        stats.put("recentCacheCapacity", recentIds.capacity());
+        stats.put("bloomBits", bloomFilter.bitCount());
+        stats.put("bloomHashFunctions", bloomFilter.hashCount());
+        stats.put("bloomEstimatedFalsePositiveRate", bloomFilter.estimatedFalsePositiveRate());
+        return stats;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.eventregistry.dedup;
+
+import java.util.Arrays;
+
+/**
+ * Bounded FIFO set of recently registered 128-bit ids stored as primitive long pairs.
+ * <p>
+ * Ids live in a ring buffer (oldest entry is evicted when full) and are indexed by an
+ * open-addressing table of ring slots with linear probing, so neither lookups nor
+ * inserts allocate.
+ */
+class RecentIdCache {
+
+    private static final int EMPTY = -1;
+
+    private final long[] ringMsb;
+    private final long[] ringLsb;
+    private final int[] index;
+    private final int indexMask;
+
+    private int head;
+    private int size;
+
+    RecentIdCache(int capacity) {
+        int ringCapacity = Math.max(1, capacity);
+        this.ringMsb = new long[ringCapacity];
+        this.ringLsb = new long[ringCapacity];
+
+        int indexCapacity = Integer.highestOneBit(Math.max(2, ringCapacity * 2 - 1)) << 1;
+        this.index = new int[indexCapacity];
+        this.indexMask = indexCapacity - 1;
+        Arrays.fill(index, EMPTY);
+    }
+
+    synchronized boolean contains(long msb, long lsb) {
+        return findPosition(msb, lsb) >= 0;
+    }
+
+    /**
+     * @return false if the id was already present
+     */
+    synchronized boolean add(long msb, long lsb) {
+        if (findPosition(msb, lsb) >= 0) {
+            return false;
+        }
+
+        int slot;
+        if (size == ringMsb.length) {
+            slot = head;
+            removeFromIndex(findPosition(ringMsb[slot], ringLsb[slot]));
+            head = (head + 1) % ringMsb.length;
+        } else {
+            slot = (head + size) % ringMsb.length;
+            size++;
+        }
+
+        ringMsb[slot] = msb;
+        ringLsb[slot] = lsb;
+
+        int position = home(msb, lsb);
+        while (index[position] != EMPTY) {
+            position = (position + 1) & indexMask;
+        }
+        index[position] = slot;
+        return true;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    int capacity() {
+        return ringMsb.length;
+    }
+
+    private int findPosition(long msb, long lsb) {
+        int position = home(msb, lsb);
+        int slot;
+        while ((slot = index[position]) != EMPTY) {
+            if (ringMsb[slot] == msb && ringLsb[slot] == lsb) {
+                return position;
+            }
+            position = (position + 1) & indexMask;
+        }
+        return -1;
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones.
+    private void removeFromIndex(int position) {
+        int hole = position;
+        int next = position;
+        index[hole] = EMPTY;
+
+        while (true) {
+            next = (next + 1) & indexMask;
+            int slot = index[next];
+            if (slot == EMPTY) {
+                return;
+            }
+            int home = home(ringMsb[slot], ringLsb[slot]);
+            boolean homeBetweenHoleAndNext = hole <= next
+                    ? hole < home && home <= next
+                    : hole < home || home <= next;
+            if (!homeBetweenHoleAndNext) {
+                index[hole] = slot;
+                index[next] = EMPTY;
+                hole = next;
+            }
+        }
+    }
+
+    private int home(long msb, long lsb) {
+        return (int) BloomFilter.mix(msb * 31 + lsb) & indexMask;
+    }
+}
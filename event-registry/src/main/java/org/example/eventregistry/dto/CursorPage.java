@@ -0,0 +1,16 @@
+package org.example.eventregistry.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param nextCursor token for the following page, {@code null} on the last page
+ * @param total      number of matching rows, {@code null} unless it was asked for
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, Long total) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
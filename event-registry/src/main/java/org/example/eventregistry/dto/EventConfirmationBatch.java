@@ -0,0 +1,31 @@
+package org.example.eventregistry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One events.processed record confirming a whole ingest batch. Consumers tell it apart
+ * from a single {@link EventResponse} by the presence of the {@code confirmations} field.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventConfirmationBatch {
+    private String status;
+    private String registryServiceName;
+    private List<Confirmation> confirmations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Confirmation {
+        private UUID originalEventId;
+        private UUID registeredEventId;
+        private LocalDateTime processedAt;
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.eventregistry.dto;
+
+import java.util.Map;
+
+/**
+ * Registered event counts from the counter table, overall and per event type and service name.
+ */
+public record EventCounts(long total, Map<String, Long> byEventType, Map<String, Long> byServiceName) {
+}
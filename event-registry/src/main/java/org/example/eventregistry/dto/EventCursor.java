@@ -0,0 +1,39 @@
+package org.example.eventregistry.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a createdAt-ordered listing: the (createdAt, id) of the last row served and
+ * the direction of the walk. Clients only see it as an opaque token.
+ */
+public record EventCursor(LocalDateTime createdAt, UUID id, boolean ascending) {
+
+    private static final String VERSION = "v1";
+
+    public String encode() {
+        String raw = String.join("|", VERSION, ascending ? "asc" : "desc", createdAt.toString(), id.toString());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static EventCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4 || !VERSION.equals(parts[0])
+                    || !("asc".equals(parts[1]) || "desc".equals(parts[1]))) {
+                throw new IllegalArgumentException("Unsupported cursor: " + token);
+            }
+            return new EventCursor(LocalDateTime.parse(parts[2]), UUID.fromString(parts[3]), "asc".equals(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.eventregistry.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A registered event without its payload; what the list endpoints return unless
+ * {@code include=payload} is given. Component names match the entity's attributes.
+ */
+public record RegisteredEventSummary(
+        UUID id,
+        UUID originalEventId,
+        String eventType,
+        String serviceName,
+        LocalDateTime createdAt,
+        LocalDateTime registeredAt,
+        LocalDateTime processedAt) {
+}
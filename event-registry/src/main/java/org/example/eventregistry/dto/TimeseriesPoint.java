@@ -0,0 +1,20 @@
+package org.example.eventregistry.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * One bucket of {@code /analytics/timeseries}; eventType and serviceName are only present
+ * when grouped by them. Lag is registeredAt - createdAt.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TimeseriesPoint(
+        LocalDateTime bucketStart,
+        String eventType,
+        String serviceName,
+        long count,
+        long lagMinMs,
+        long lagMaxMs,
+        double lagAvgMs) {
+}
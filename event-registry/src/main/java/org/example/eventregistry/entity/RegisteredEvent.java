@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+// Indexes are declared in db/migration, next to the queries they serve.
 @Table(name = "registered_events")
 @Data
 @NoArgsConstructor
@@ -19,7 +20,8 @@ public class RegisteredEvent {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(name = "original_event_id", nullable = false, unique = true)
+    // Unique together with createdAt, the partition key.
+    @Column(name = "original_event_id", nullable = false)
     private UUID originalEventId;
 
     @Column(nullable = false, length = 100)
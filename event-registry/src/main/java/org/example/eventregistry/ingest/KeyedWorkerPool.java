@@ -0,0 +1,106 @@
+package org.example.eventregistry.ingest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fixed set of single-threaded lanes. Items are assigned to a lane by key hash, so items
+ * with the same key are always handled in submission order by the same thread, while
+ * different keys are processed in parallel.
+ */
+public class KeyedWorkerPool implements AutoCloseable {
+
+    private final ExecutorService[] lanes;
+
+    public KeyedWorkerPool(int laneCount, ThreadFactory threadFactory) {
+        this.lanes = new ExecutorService[Math.max(1, laneCount)];
+        if (lanes.length > 1) {
+            for (int i = 0; i < lanes.length; i++) {
+                lanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+            }
+        }
+    }
+
+    public int size() {
+        return lanes.length;
+    }
+
+    public int laneFor(String key) {
+        int hash = key == null ? 0 : key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * Splits {@code items} by lane, keeping their relative order, runs {@code laneTask}
+     * once per non-empty lane and waits for all of them. The first failure is rethrown
+     * after every lane has finished.
+     */
+    public <T> void forEachLane(List<T> items, Function<T, String> keyOf, Consumer<List<T>> laneTask) {
+        if (items.isEmpty()) {
+            return;
+        }
+        if (lanes.length == 1) {
+            laneTask.accept(items);
+            return;
+        }
+
+        List<List<T>> byLane = new ArrayList<>(lanes.length);
+        for (int i = 0; i < lanes.length; i++) {
+            byLane.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            byLane.get(laneFor(keyOf.apply(item))).add(item);
+        }
+
+        List<Future<?>> futures = new ArrayList<>(lanes.length);
+        List<T> inline = null;
+        for (int i = 0; i < lanes.length; i++) {
+            List<T> laneItems = byLane.get(i);
+            if (laneItems.isEmpty()) {
+                continue;
+            }
+            if (inline == null && laneItems.size() == items.size()) {
+                // Everything maps to one lane: no point in a thread hop.
+                inline = laneItems;
+            } else {
+                futures.add(lanes[i].submit(() -> laneTask.accept(laneItems)));
+            }
+        }
+        if (inline != null) {
+            laneTask.accept(inline);
+        }
+
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = failure != null ? failure : new IllegalStateException("Interrupted while waiting for lanes", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                failure = failure != null ? failure
+                        : cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            if (lane != null) {
+                lane.shutdown();
+            }
+        }
+    }
+}
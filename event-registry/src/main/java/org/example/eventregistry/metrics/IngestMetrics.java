@@ -0,0 +1,163 @@
+package org.example.eventregistry.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.eventregistry.codec.WireFormat;
+import org.example.eventregistry.dto.EventMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Micrometer meters for the consume → persist → confirm pipeline. Stage timers are
+ * tagged with the listener {@code mode} (record or batch); stage timers and per-event
+ * outcomes carry {@code eventType} and {@code serviceName}. A multi-row stage in batch
+ * mode is tagged with the most frequent type and service among its events, see
+ * {@link #dominant(Collection, Function)}. All timers publish histogram buckets so p99
+ * can be computed in Prometheus with {@code histogram_quantile}.
+ *
+ * <p>Names and tags are part of the alerting contract: rename only together with the
+ * dashboards and alert rules that use them.
+ */
+@Component
+public class IngestMetrics {
+
+    public static final String MODE_RECORD = "record";
+    public static final String MODE_BATCH = "batch";
+
+    private static final String PREFIX = "registry.ingest.";
+
+    private final MeterRegistry registry;
+
+    public IngestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Time to turn a record value into an {@link EventMessage}. */
+    public Timer decode(WireFormat format) {
+        return timer("decode", "Record value decoding", "format", format.name().toLowerCase(Locale.ROOT));
+    }
+
+    /** Time for one dedup verdict (recent cache, Bloom filter). */
+    public Timer dedupLookup(String eventType, String serviceName) {
+        return timer("dedup.lookup", "Dedup filter lookup",
+                "eventType", tagValue(eventType), "serviceName", tagValue(serviceName));
+    }
+
+    /** Time of the insert statement, single row or multi-row. */
+    public Timer dbInsert(String mode, String eventType, String serviceName) {
+        return timer("db.insert", "Insert into registered_events",
+                "mode", mode, "eventType", tagValue(eventType), "serviceName", tagValue(serviceName));
+    }
+
+    /**
+     * Time of a whole listener invocation, including the transaction commit. Type and
+     * service are unknown when nothing in the invocation could be decoded.
+     */
+    public Timer handler(String mode, String eventType, String serviceName) {
+        return timer("handler", "Listener invocation",
+                "mode", mode, "eventType", tagValue(eventType), "serviceName", tagValue(serviceName));
+    }
+
+    /**
+     * Records the time from {@code send} until the broker acknowledged (or rejected) the confirmation.
+     */
+    public void recordSendAck(String eventType, String serviceName, long sendStartedNanos, boolean success) {
+        timer("kafka.send.ack", "Confirmation send until broker ack",
+                "eventType", tagValue(eventType), "serviceName", tagValue(serviceName),
+                "outcome", success ? "success" : "failure")
+                .record(System.nanoTime() - sendStartedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Most frequent value among the items, used to tag a stage that covers several events
+     * with one sample; null (tagged unknown) for no items. Ties go to the value that got there first.
+     */
+    public static <T> String dominant(Collection<T> items, Function<T, String> tag) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        String dominant = null;
+        int dominantCount = 0;
+        for (T item : items) {
+            String value = tag.apply(item);
+            int count = counts.merge(value != null ? value : "unknown", 1, Integer::sum);
+            if (count > dominantCount) {
+                dominant = value;
+                dominantCount = count;
+            }
+        }
+        return dominant;
+    }
+
+    /**
+     * Counts a registered event and records how long after {@code createdAt} it got registered.
+     */
+    public void recordRegistered(String eventType, String serviceName, LocalDateTime createdAt,
+                                 LocalDateTime registeredAt) {
+        Counter.builder(PREFIX + "registered")
+                .description("Events registered")
+                .tags("eventType", tagValue(eventType), "serviceName", tagValue(serviceName))
+                .register(registry)
+                .increment();
+
+        if (createdAt != null) {
+            Duration lag = Duration.between(createdAt, registeredAt);
+            if (!lag.isNegative()) {
+                Timer.builder(PREFIX + "lag")
+                        .description("Time from event creation to registration")
+                        .tags("eventType", tagValue(eventType), "serviceName", tagValue(serviceName))
+                        .publishPercentileHistogram()
+                        .register(registry)
+                        .record(lag);
+            }
+        }
+    }
+
+    public void countDuplicate(String eventType, String serviceName) {
+        Counter.builder(PREFIX + "duplicates")
+                .description("Events dropped as already registered")
+                .tags("eventType", tagValue(eventType), "serviceName", tagValue(serviceName))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * @param stage decode, register or route
+     */
+    public void countError(String stage) {
+        Counter.builder(PREFIX + "errors")
+                .description("Records that failed in a pipeline stage")
+                .tag("stage", stage)
+                .register(registry)
+                .increment();
+    }
+
+    public void recordBatchSize(int records) {
+        DistributionSummary.builder(PREFIX + "batch.size")
+                .description("Records per batch listener invocation")
+                .baseUnit("records")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(records);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(PREFIX + name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private static String tagValue(String value) {
+        return value != null ? value : "unknown";
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.eventregistry.partition;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of the created_at range partitions of registered_events. Boundaries are aligned to
+ * midnight, Monday midnight or the first of the month.
+ */
+public enum PartitionInterval {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public static PartitionInterval fromProperty(String value) {
+        for (PartitionInterval interval : values()) {
+            if (interval.name().equalsIgnoreCase(value)) {
+                return interval;
+            }
+        }
+        throw new IllegalArgumentException("Unknown partition interval: " + value + " (expected day, week or month)");
+    }
+
+    /**
+     * Start of the period containing {@code time}.
+     */
+    public LocalDateTime floor(LocalDateTime time) {
+        LocalDateTime midnight = time.truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case DAY -> midnight;
+            case WEEK -> midnight.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> midnight.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * First period boundary strictly after {@code time}.
+     */
+    public LocalDateTime next(LocalDateTime time) {
+        LocalDateTime start = floor(time);
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+}
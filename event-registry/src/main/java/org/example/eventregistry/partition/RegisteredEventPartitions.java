@@ -0,0 +1,234 @@
+package org.example.eventregistry.partition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the created_at range partitions of registered_events ahead of the clock and drops
+ * the ones that fall out of retention.
+ *
+ * <p>New partitions continue from the upper bound of the newest one, so changing the interval
+ * never produces overlapping ranges. There is no default partition: an insert whose created_at
+ * no partition covers fails, which keeping {@code premake} periods ahead prevents for new events.
+ * Retention detaches a partition with DETACH PARTITION ... CONCURRENTLY, which only takes a
+ * SHARE UPDATE EXCLUSIVE lock on registered_events, then drops the detached table: no DELETE,
+ * no vacuum debt, and ingest and queries keep running. The drop takes the detached rows out
+ * of the counters, the rollups and registered_event_ids in the same transaction, so /stats
+ * and the timeseries only describe retained events and expired ids can be registered again.
+ *
+ * <p>A partition that cannot be created is counted in {@code registry.partitions.create.failures},
+ * {@code registry.partitions.ahead} shows how far past now the newest partition reaches, and the
+ * health endpoint reports DOWN once it no longer reaches past now.
+ */
+@Slf4j
+public class RegisteredEventPartitions {
+
+    static final String PARENT = "registered_events";
+    static final String PREFIX = PARENT + "_p";
+
+    private static final DateTimeFormatter NAME_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    // pg_get_expr of a range partition bound, e.g. "FOR VALUES FROM ('2025-01-01 00:00:00') TO ('2025-02-01 00:00:00')".
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid), i.inhdetachpending FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = '" + PARENT + "'::regclass";
+
+    // Tables named like a partition but no longer attached: detached by a run that stopped before dropping them.
+    private static final String LIST_DETACHED_SQL =
+            "SELECT relname FROM pg_class WHERE relkind = 'r' AND NOT relispartition " +
+            "AND relname ~ '^" + PREFIX + "[0-9]{8}$'";
+
+    // Negative deltas in shard 0, upserted in (name, key) order like the ingest increments.
+    private static final String DECREMENT_COUNTERS_SQL =
+            "INSERT INTO registered_event_counters AS c (counter_name, counter_key, shard, value) " +
+            "SELECT 'total', '', 0, -COUNT(*) FROM %1$s " +
+            "UNION ALL SELECT 'event_type', event_type, 0, -COUNT(*) FROM %1$s GROUP BY event_type " +
+            "UNION ALL SELECT 'service_name', service_name, 0, -COUNT(*) FROM %1$s GROUP BY service_name " +
+            "ORDER BY 1, 2 " +
+            "ON CONFLICT (counter_name, counter_key, shard) DO UPDATE SET value = c.value + EXCLUDED.value";
+
+    // Partition bounds fall on midnight, so no minute or hour bucket holds rows of a later partition,
+    // and older partitions are dropped first.
+    private static final String DELETE_ROLLUPS_SQL =
+            "DELETE FROM registered_event_rollups WHERE bucket_start <= (SELECT MAX(created_at) FROM %s)";
+
+    private static final String DELETE_IDS_SQL =
+            "DELETE FROM registered_event_ids WHERE created_at <= (SELECT MAX(created_at) FROM %s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionInterval interval;
+    private final int premake;
+    private final int retentionDays;
+    private final Counter createFailures;
+
+    // Upper bound of the newest partition as of the last run; null until the first one.
+    private volatile LocalDateTime coveredUntil;
+
+    public RegisteredEventPartitions(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                     PartitionInterval interval, int premake, int retentionDays,
+                                     MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.interval = interval;
+        this.premake = premake;
+        this.retentionDays = retentionDays;
+        this.createFailures = Counter.builder("registry.partitions.create.failures")
+                .description("Partitions that could not be created ahead of the clock")
+                .register(meterRegistry);
+        Gauge.builder("registry.partitions.ahead", this, partitions -> partitions.secondsAhead(LocalDateTime.now()))
+                .description("Time from now until the upper bound of the newest partition")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${registry.partitioning.maintenance-ms:3600000}")
+    public void maintain() {
+        maintain(LocalDateTime.now());
+    }
+
+    /**
+     * Creates the partitions up to {@code premake} periods past the one containing {@code now},
+     * then drops every partition that ends more than retentionDays before {@code now}.
+     * Never runs in a transaction as a whole: DETACH PARTITION ... CONCURRENTLY cannot.
+     */
+    public synchronized void maintain(LocalDateTime now) {
+        List<Partition> partitions = listPartitions();
+        createAhead(partitions, now);
+        if (retentionDays > 0) {
+            LocalDateTime cutoff = now.minusDays(retentionDays);
+            dropDetached(cutoff);
+            dropExpired(partitions, cutoff);
+        }
+    }
+
+    List<Partition> listPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        jdbcTemplate.query(LIST_PARTITIONS_SQL, (RowCallbackHandler) rs -> {
+            Matcher bound = RANGE_BOUND.matcher(rs.getString(2));
+            // A default partition, should one have been attached by hand, has no range and is left alone.
+            if (bound.find()) {
+                partitions.add(new Partition(rs.getString(1), parse(bound.group(1)), parse(bound.group(2)),
+                        rs.getBoolean(3)));
+            }
+        });
+        partitions.sort(Comparator.comparing(Partition::from));
+        return partitions;
+    }
+
+    private void createAhead(List<Partition> partitions, LocalDateTime now) {
+        LocalDateTime current = interval.floor(now);
+        LocalDateTime until = current;
+        for (int i = 0; i < premake; i++) {
+            until = interval.next(until);
+        }
+        until = interval.next(until);
+
+        LocalDateTime covered = partitions.isEmpty() ? null : partitions.getLast().to();
+        LocalDateTime from = current;
+        if (covered != null && covered.isAfter(from)) {
+            from = covered;
+        }
+
+        while (from.isBefore(until)) {
+            LocalDateTime to = interval.next(from);
+            String name = PREFIX + from.format(NAME_SUFFIX);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                log.info("🗂️ Created partition {} for [{}, {})", name, from, to);
+            } catch (DataAccessException e) {
+                createFailures.increment();
+                log.error("❌ Could not create partition {} for [{}, {})", name, from, to, e);
+                break;
+            }
+            covered = to;
+            from = to;
+        }
+        coveredUntil = covered;
+    }
+
+    /**
+     * False once the newest partition ends at or before {@code now}: events created from then on
+     * have no partition and fail to insert. True before the first run has listed the partitions.
+     */
+    public boolean isCovered(LocalDateTime now) {
+        LocalDateTime until = coveredUntil;
+        return until == null || until.isAfter(now);
+    }
+
+    public LocalDateTime getCoveredUntil() {
+        return coveredUntil;
+    }
+
+    private double secondsAhead(LocalDateTime now) {
+        LocalDateTime until = coveredUntil;
+        return until == null ? Double.NaN : Duration.between(now, until).toSeconds();
+    }
+
+    private void dropExpired(List<Partition> partitions, LocalDateTime cutoff) {
+        for (Partition partition : partitions) {
+            if (!partition.to().isAfter(cutoff)) {
+                // A detach interrupted half way leaves the partition pending; FINALIZE completes it.
+                jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition.name()
+                        + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+                dropTable(partition.name());
+                log.info("🗑️ Dropped partition {} for [{}, {})", partition.name(), partition.from(), partition.to());
+            }
+        }
+    }
+
+    /**
+     * Drops the tables an earlier run detached but did not get to drop. Their range is gone
+     * with the detach, so the start date in the name must lie before the cutoff.
+     */
+    private void dropDetached(LocalDateTime cutoff) {
+        for (String name : jdbcTemplate.queryForList(LIST_DETACHED_SQL, String.class)) {
+            LocalDateTime from = LocalDate.parse(name.substring(PREFIX.length()), NAME_SUFFIX).atStartOfDay();
+            if (from.isBefore(cutoff)) {
+                dropTable(name);
+                log.info("🗑️ Dropped detached partition {}", name);
+            }
+        }
+    }
+
+    /**
+     * Takes the rows of a detached partition out of the counters, rollups and registered_event_ids,
+     * then drops it, all in one transaction: a run that stops half way leaves the table for
+     * {@link #dropDetached} and the derived tables untouched.
+     */
+    private void dropTable(String name) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(DECREMENT_COUNTERS_SQL.formatted(name));
+            jdbcTemplate.update(DELETE_ROLLUPS_SQL.formatted(name));
+            jdbcTemplate.update(DELETE_IDS_SQL.formatted(name));
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+        });
+    }
+
+    private static LocalDateTime parse(String bound) {
+        return LocalDateTime.parse(bound.replace(' ', 'T'));
+    }
+
+    record Partition(String name, LocalDateTime from, LocalDateTime to, boolean detachPending) {
+    }
+}
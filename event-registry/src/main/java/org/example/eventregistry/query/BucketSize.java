@@ -0,0 +1,58 @@
+package org.example.eventregistry.query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket width of {@code /analytics/timeseries}. Minute and hour buckets are stored as rollup
+ * rows; day buckets are summed from the hour rows.
+ */
+public enum BucketSize {
+    MINUTE("minute", Duration.ofMinutes(1)),
+    HOUR("hour", Duration.ofHours(1)),
+    DAY("hour", Duration.ofDays(1));
+
+    /** Bucket sizes with rollup rows of their own, maintained by the ingest path. */
+    public static final BucketSize[] STORED = {MINUTE, HOUR};
+
+    private final String storedAs;
+    private final Duration width;
+
+    BucketSize(String storedAs, Duration width) {
+        this.storedAs = storedAs;
+        this.width = width;
+    }
+
+    public static BucketSize fromParam(String value) {
+        for (BucketSize size : values()) {
+            if (size.name().equalsIgnoreCase(value)) {
+                return size;
+            }
+        }
+        throw new IllegalArgumentException("Unknown bucket size: " + value + " (expected minute, hour or day)");
+    }
+
+    public String paramValue() {
+        return name().toLowerCase();
+    }
+
+    /**
+     * bucket_size of the rollup rows this size is read from.
+     */
+    public String storedAs() {
+        return storedAs;
+    }
+
+    public Duration width() {
+        return width;
+    }
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        return switch (this) {
+            case MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+        };
+    }
+}
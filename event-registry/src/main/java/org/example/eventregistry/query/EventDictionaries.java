@@ -0,0 +1,95 @@
+package org.example.eventregistry.query;
+
+import org.example.eventregistry.entity.RegisteredEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * In-memory copies of the distinct event types and service names in registered_events.
+ *
+ * <p>Both dictionaries only grow: values are added from committed registrations and merged
+ * from periodic database refreshes, which pick up what other registry instances registered.
+ * Readers get an immutable sorted snapshot with an ETag derived from its content, so every
+ * instance hands out the same ETag for the same dictionary.
+ */
+public class EventDictionaries {
+
+    private final Dictionary eventTypes = new Dictionary();
+    private final Dictionary serviceNames = new Dictionary();
+    private volatile boolean seeded;
+
+    public Snapshot eventTypes() {
+        return eventTypes.snapshot;
+    }
+
+    public Snapshot serviceNames() {
+        return serviceNames.snapshot;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    /**
+     * Merges a full read of both dictionaries from the database.
+     */
+    public void merge(Collection<String> eventTypeValues, Collection<String> serviceNameValues) {
+        eventTypes.addAll(eventTypeValues);
+        serviceNames.addAll(serviceNameValues);
+        seeded = true;
+    }
+
+    /**
+     * Adds the types and service names of committed registrations; a no-op for known values.
+     */
+    public void onRegistered(Collection<RegisteredEvent> events) {
+        for (RegisteredEvent event : events) {
+            eventTypes.add(event.getEventType());
+            serviceNames.add(event.getServiceName());
+        }
+    }
+
+    public record Snapshot(List<String> values, String etag) {
+
+        static Snapshot of(Collection<String> sortedValues) {
+            CRC32 crc = new CRC32();
+            for (String value : sortedValues) {
+                crc.update(value.getBytes(StandardCharsets.UTF_8));
+                crc.update(0);
+            }
+            return new Snapshot(List.copyOf(sortedValues),
+                    sortedValues.size() + "-" + Long.toHexString(crc.getValue()));
+        }
+    }
+
+    private static final class Dictionary {
+
+        private final Set<String> known = ConcurrentHashMap.newKeySet();
+        private volatile Snapshot snapshot = Snapshot.of(List.of());
+
+        void add(String value) {
+            // Lock-free for the common case: the value has been seen before.
+            if (value != null && !known.contains(value)) {
+                addAll(List.of(value));
+            }
+        }
+
+        synchronized void addAll(Collection<String> values) {
+            boolean changed = false;
+            for (String value : values) {
+                if (value != null) {
+                    changed |= known.add(value);
+                }
+            }
+            if (changed) {
+                snapshot = Snapshot.of(new TreeSet<>(known));
+            }
+        }
+    }
+}
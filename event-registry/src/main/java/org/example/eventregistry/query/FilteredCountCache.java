@@ -0,0 +1,114 @@
+package org.example.eventregistry.query;
+
+import org.example.eventregistry.entity.RegisteredEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Memoized COUNT results of filtered registry listings, one entry per filter combination.
+ *
+ * <p>Rows are only ever added to registered_events, so instead of dropping an entry on
+ * every registration (which would empty the cache under steady ingest) committed
+ * registrations are added to every entry whose filters they match. The TTL bounds the
+ * drift from everything this instance does not see, e.g. other registry instances.
+ */
+public class FilteredCountCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+
+    private final Map<Filters, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public FilteredCountCache(long ttlMillis, int maxEntries) {
+        this(ttlMillis, maxEntries, System::nanoTime);
+    }
+
+    FilteredCountCache(long ttlMillis, int maxEntries, LongSupplier nanoClock) {
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return the cached count, or the result of {@code exactCount} which is then cached
+     */
+    public long get(Filters filters, LongSupplier exactCount) {
+        long now = nanoClock.getAsLong();
+        Entry entry = entries.get(filters);
+        if (entry != null && now - entry.loadedNanos < ttlNanos) {
+            hits.incrementAndGet();
+            return entry.count.get();
+        }
+
+        misses.incrementAndGet();
+        long count = exactCount.getAsLong();
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(stale -> now - stale.loadedNanos >= ttlNanos);
+        }
+        if (entries.size() < maxEntries || entries.containsKey(filters)) {
+            entries.put(filters, new Entry(count, now));
+        }
+        return count;
+    }
+
+    /**
+     * Applies committed registrations to every cached count they fall into.
+     */
+    public void onRegistered(Collection<RegisteredEvent> events) {
+        if (entries.isEmpty() || events.isEmpty()) {
+            return;
+        }
+        entries.forEach((filters, entry) -> {
+            long matching = events.stream().filter(filters::matches).count();
+            if (matching > 0) {
+                entry.count.addAndGet(matching);
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        return stats;
+    }
+
+    /**
+     * Filter combination of a listing; blank strings mean "no filter", as in the query.
+     */
+    public record Filters(LocalDateTime startDate, LocalDateTime endDate, String eventType, String serviceName) {
+
+        public Filters {
+            eventType = eventType == null || eventType.isEmpty() ? null : eventType;
+            serviceName = serviceName == null || serviceName.isEmpty() ? null : serviceName;
+        }
+
+        boolean matches(RegisteredEvent event) {
+            LocalDateTime createdAt = event.getCreatedAt();
+            return (startDate == null || (createdAt != null && !createdAt.isBefore(startDate)))
+                    && (endDate == null || (createdAt != null && !createdAt.isAfter(endDate)))
+                    && (eventType == null || eventType.equals(event.getEventType()))
+                    && (serviceName == null || serviceName.equals(event.getServiceName()));
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long loadedNanos;
+
+        private Entry(long count, long loadedNanos) {
+            this.count = new AtomicLong(count);
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
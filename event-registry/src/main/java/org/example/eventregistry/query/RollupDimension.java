@@ -0,0 +1,34 @@
+package org.example.eventregistry.query;
+
+/**
+ * Columns {@code /analytics/timeseries} can group by, besides the bucket.
+ */
+public enum RollupDimension {
+    EVENT_TYPE("eventType", "event_type"),
+    SERVICE_NAME("serviceName", "service_name");
+
+    private final String paramValue;
+    private final String column;
+
+    RollupDimension(String paramValue, String column) {
+        this.paramValue = paramValue;
+        this.column = column;
+    }
+
+    public static RollupDimension fromParam(String value) {
+        for (RollupDimension dimension : values()) {
+            if (dimension.paramValue.equalsIgnoreCase(value)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Unknown groupBy: " + value + " (expected eventType or serviceName)");
+    }
+
+    public String paramValue() {
+        return paramValue;
+    }
+
+    public String column() {
+        return column;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example.eventregistry.query;
+
+/**
+ * How {@code totalItems} of a filtered listing is computed.
+ */
+public enum TotalMode {
+    /** COUNT(*) with the listing's predicates on every request. */
+    EXACT,
+    /** Exact count memoized per filter combination, kept current as events are registered. */
+    CACHED,
+    /** The planner's row estimate from EXPLAIN; no rows are read. */
+    ESTIMATE;
+
+    public static TotalMode fromParam(String value) {
+        for (TotalMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new IllegalArgumentException("Unknown total mode: " + value + " (expected exact, cached or estimate)");
+    }
+
+    public String paramValue() {
+        return name().toLowerCase();
+    }
+}
@@ -4,6 +4,7 @@ import org.example.eventregistry.entity.RegisteredEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
@@ -12,4 +13,9 @@ public interface RegisteredEventRepository extends
         RegisteredEventRepositoryCustom {
 
     RegisteredEvent findByOriginalEventId(UUID originalEventId);
-}
\ No newline at end of file
+
+    /**
+     * All rows as {@code type}; a summary type selects only its own columns.
+     */
+    <T> List<T> findAllBy(Class<T> type);
+}
@@ -1,14 +1,29 @@
 package org.example.eventregistry.repository;
 
+import org.example.eventregistry.dto.EventCounts;
+import org.example.eventregistry.dto.EventCursor;
+import org.example.eventregistry.dto.RegisteredEventSummary;
+import org.example.eventregistry.dto.TimeseriesPoint;
 import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.query.BucketSize;
+import org.example.eventregistry.query.RollupDimension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+/**
+ * Listing methods take the type to read rows as: {@link RegisteredEvent}, or
+ * {@link RegisteredEventSummary}, which never reads the payload column.
+ */
 public interface RegisteredEventRepositoryCustom {
-    Page<RegisteredEvent> findWithFilters(
+    <T> Page<T> findWithFilters(
+            Class<T> type,
             Pageable pageable,
             LocalDateTime startDate,
             LocalDateTime endDate,
@@ -16,6 +31,130 @@ public interface RegisteredEventRepositoryCustom {
             String serviceName
     );
 
-    List<String> findDistinctEventTypes();
-    List<String> findDistinctServiceNames();
+    /**
+     * Content of one offset page, without the COUNT that {@link #findWithFilters} runs.
+     */
+    <T> List<T> findPageWithFilters(
+            Class<T> type,
+            Pageable pageable,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName
+    );
+
+    /**
+     * Keyset variant of {@link #findWithFilters}: rows ordered by (createdAt, id) that come
+     * strictly after {@code after}, or from the start if it is null. The cost of a page does
+     * not depend on how deep it is.
+     */
+    <T> List<T> findWithFiltersAfter(
+            Class<T> type,
+            EventCursor after,
+            boolean ascending,
+            int limit,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName
+    );
+
+    long countWithFilters(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName
+    );
+
+    /**
+     * Planner row estimate for the filtered listing, taken from EXPLAIN; reads no rows.
+     * Only as accurate as the table statistics from the last ANALYZE.
+     */
+    long estimateWithFilters(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName
+    );
+
+    /**
+     * Substring match on the id's text form, served by the trigram index from V2.
+     * {@code fragment} must not contain LIKE wildcards.
+     */
+    <T> List<T> findByIdFragment(String fragment, int limit, Class<T> type);
+
+    /**
+     * Same as {@link #findByIdFragment} on original_event_id.
+     */
+    <T> List<T> findByOriginalIdFragment(String fragment, int limit, Class<T> type);
+
+    /**
+     * Inserts the event unless its original_event_id is already registered.
+     *
+     * @return id of the inserted row, or null if the event is a duplicate
+     */
+    UUID insertIfAbsent(RegisteredEvent event);
+
+    /**
+     * Inserts the event without a conflict check, for ids the dedup filter has ruled out.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if the id is registered after all;
+     *         the statement has then aborted the surrounding transaction
+     */
+    void insert(RegisteredEvent event);
+
+    /**
+     * Multi-row variant of {@link #insert(RegisteredEvent)}.
+     */
+    void insertAll(List<RegisteredEvent> events);
+
+    /**
+     * Multi-row variant of {@link #insertIfAbsent(RegisteredEvent)}.
+     *
+     * @return original event ids of the rows that were actually inserted
+     */
+    Set<UUID> insertAllIfAbsent(List<RegisteredEvent> events);
+
+    /**
+     * Streams every registered original event id through a forward-only cursor.
+     * Must run inside a transaction for the fetch size to take effect.
+     */
+    void forEachOriginalEventId(Consumer<UUID> action);
+
+    /**
+     * Streams events with createdAt in [startDate, endDate] (either bound optional), ordered by
+     * (createdAt, id), through a forward-only cursor. Rows are mapped straight from the result set
+     * and never enter the persistence context. Must run inside a transaction for the fetch size
+     * to take effect.
+     */
+    void forEachEvent(LocalDateTime startDate, LocalDateTime endDate, Consumer<RegisteredEvent> action);
+
+    /**
+     * @return original event ids of the most recently registered events, oldest first
+     */
+    List<UUID> findRecentOriginalEventIds(int limit);
+
+    /**
+     * Adds the given newly inserted events to the total, per-type and per-service counters.
+     * Must run in the transaction that inserted them.
+     */
+    void incrementCounters(Collection<RegisteredEvent> inserted);
+
+    EventCounts readCounters();
+
+    /**
+     * Adds the given newly inserted events to the minute and hour rollups, bucketed by createdAt.
+     * Must run in the transaction that inserted them.
+     */
+    void upsertRollups(Collection<RegisteredEvent> inserted);
+
+    /**
+     * Sums the rollups into buckets of the given size whose start lies in [from, to], grouped by
+     * the given dimensions; ordered by bucket start, then by the dimensions.
+     */
+    List<TimeseriesPoint> findTimeseries(
+            BucketSize bucketSize,
+            LocalDateTime from,
+            LocalDateTime to,
+            Set<RollupDimension> groupBy);
 }
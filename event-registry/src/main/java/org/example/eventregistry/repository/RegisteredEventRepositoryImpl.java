@@ -3,51 +3,153 @@ package org.example.eventregistry.repository;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.criteria.*;
+import lombok.RequiredArgsConstructor;
+import org.example.eventregistry.dto.EventCounts;
+import org.example.eventregistry.dto.EventCursor;
+import org.example.eventregistry.dto.RegisteredEventSummary;
+import org.example.eventregistry.dto.TimeseriesPoint;
 import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.query.BucketSize;
+import org.example.eventregistry.query.RollupDimension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Repository
+@RequiredArgsConstructor
 public class RegisteredEventRepositoryImpl implements RegisteredEventRepositoryCustom {
 
+    private static final String INSERT_SQL =
+            "INSERT INTO registered_events " +
+            "(id, original_event_id, event_type, service_name, payload, created_at, registered_at, processed_at) " +
+            "VALUES ";
+    private static final String VALUES_ROW = "(?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // registered_events is partitioned on created_at and can only enforce uniqueness together with it;
+    // the id is claimed in the unpartitioned registered_event_ids first, which is unique across partitions.
+    private static final String CLAIM_SQL = "INSERT INTO registered_event_ids (original_event_id, created_at) VALUES ";
+    private static final String CLAIM_ROW = "(?, ?)";
+    private static final String CLAIM_IF_ABSENT_SQL = " ON CONFLICT (original_event_id) DO NOTHING RETURNING original_event_id";
+
+    // 8 bind parameters per row; keeps each statement well below the 65535 parameter limit.
+    private static final int MAX_ROWS_PER_INSERT = 1000;
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private static final String EVENT_COLUMNS =
+            "id, original_event_id, event_type, service_name, payload, created_at, registered_at, processed_at";
+    // Leaving out payload keeps list queries off its TOAST storage.
+    private static final String SUMMARY_COLUMNS =
+            "id, original_event_id, event_type, service_name, created_at, registered_at, processed_at";
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    private static final String COUNTER_TOTAL = "total";
+    private static final String COUNTER_EVENT_TYPE = "event_type";
+    private static final String COUNTER_SERVICE_NAME = "service_name";
+
+    // Concurrent ingest transactions pick a random shard, so they rarely queue on the same counter row.
+    private static final int COUNTER_SHARDS = 16;
+
+    // Rows are upserted in (name, key) order so transactions lock shared shard rows in the same order.
+    private static final String INCREMENT_COUNTERS_SQL =
+            "INSERT INTO registered_event_counters AS c (counter_name, counter_key, shard, value) " +
+            "SELECT d.name, d.key, ?, d.delta FROM unnest(?::varchar[], ?::varchar[], ?::bigint[]) AS d(name, key, delta) " +
+            "ORDER BY d.name, d.key " +
+            "ON CONFLICT (counter_name, counter_key, shard) DO UPDATE SET value = c.value + EXCLUDED.value";
+
+    // Same ordering rule as the counters: hot current-minute rows are always locked in primary key order.
+    private static final String UPSERT_ROLLUPS_SQL =
+            "INSERT INTO registered_event_rollups AS r " +
+            "(bucket_size, bucket_start, event_type, service_name, event_count, lag_min_ms, lag_max_ms, lag_sum_ms) " +
+            "SELECT * FROM unnest(?::varchar[], ?::timestamp[], ?::varchar[], ?::varchar[], " +
+            "?::bigint[], ?::bigint[], ?::bigint[], ?::bigint[]) " +
+            "AS d(bucket_size, bucket_start, event_type, service_name, event_count, lag_min_ms, lag_max_ms, lag_sum_ms) " +
+            "ORDER BY d.bucket_size, d.bucket_start, d.event_type, d.service_name " +
+            "ON CONFLICT (bucket_size, bucket_start, event_type, service_name) DO UPDATE SET " +
+            "event_count = r.event_count + EXCLUDED.event_count, " +
+            "lag_min_ms = LEAST(r.lag_min_ms, EXCLUDED.lag_min_ms), " +
+            "lag_max_ms = GREATEST(r.lag_max_ms, EXCLUDED.lag_max_ms), " +
+            "lag_sum_ms = r.lag_sum_ms + EXCLUDED.lag_sum_ms";
+
+    private static final RowMapper<RegisteredEvent> EVENT_ROW_MAPPER = (rs, rowNum) -> new RegisteredEvent(
+            rs.getObject("id", UUID.class),
+            rs.getObject("original_event_id", UUID.class),
+            rs.getString("event_type"),
+            rs.getString("service_name"),
+            rs.getString("payload"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("registered_at", LocalDateTime.class),
+            rs.getObject("processed_at", LocalDateTime.class));
+
+    private static final RowMapper<RegisteredEventSummary> SUMMARY_ROW_MAPPER = (rs, rowNum) -> new RegisteredEventSummary(
+            rs.getObject("id", UUID.class),
+            rs.getObject("original_event_id", UUID.class),
+            rs.getString("event_type"),
+            rs.getString("service_name"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("registered_at", LocalDateTime.class),
+            rs.getObject("processed_at", LocalDateTime.class));
+
     @PersistenceContext
     private EntityManager entityManager;
 
+    private final JdbcTemplate jdbcTemplate;
+
     @Override
-    public Page<RegisteredEvent> findWithFilters(
+    public <T> Page<T> findWithFilters(
+            Class<T> type,
             Pageable pageable,
             LocalDateTime startDate,
             LocalDateTime endDate,
             String eventType,
             String serviceName) {
 
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<RegisteredEvent> query = cb.createQuery(RegisteredEvent.class);
-        Root<RegisteredEvent> root = query.from(RegisteredEvent.class);
+        List<T> result = findPageWithFilters(type, pageable, startDate, endDate, eventType, serviceName);
 
-        List<Predicate> predicates = new ArrayList<>();
+        long total = countWithFilters(startDate, endDate, eventType, serviceName);
 
-        if (startDate != null) {
-            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), startDate));
-        }
+        return new PageImpl<>(result, pageable, total);
+    }
 
-        if (endDate != null) {
-            predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endDate));
-        }
+    @Override
+    public <T> List<T> findPageWithFilters(
+            Class<T> type,
+            Pageable pageable,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
 
-        if (eventType != null && !eventType.isEmpty()) {
-            predicates.add(cb.equal(root.get("eventType"), eventType));
-        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<RegisteredEvent> root = query.from(RegisteredEvent.class);
+        query.select(selection(cb, root, type));
 
-        if (serviceName != null && !serviceName.isEmpty()) {
-            predicates.add(cb.equal(root.get("serviceName"), serviceName));
-        }
+        List<Predicate> predicates = filterPredicates(cb, root, startDate, endDate, eventType, serviceName);
 
         if (!predicates.isEmpty()) {
             query.where(cb.and(predicates.toArray(new Predicate[0])));
@@ -65,45 +167,473 @@ public class RegisteredEventRepositoryImpl implements RegisteredEventRepositoryC
             query.orderBy(orders);
         }
 
-        List<RegisteredEvent> result = entityManager.createQuery(query)
+        return entityManager.createQuery(query)
                 .setFirstResult((int) pageable.getOffset())
                 .setMaxResults(pageable.getPageSize())
                 .getResultList();
+    }
+
+    @Override
+    public <T> List<T> findWithFiltersAfter(
+            Class<T> type,
+            EventCursor after,
+            boolean ascending,
+            int limit,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
+
+        StringBuilder sql = new StringBuilder(select(type));
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, startDate, endDate, eventType, serviceName);
+
+        if (after != null) {
+            // Row-value comparison, so PostgreSQL seeks straight into idx_registered_events_created_at_id.
+            sql.append(ascending ? " AND (created_at, id) > (?, ?)" : " AND (created_at, id) < (?, ?)");
+            args.add(after.createdAt());
+            args.add(after.id());
+        }
+
+        String direction = ascending ? "ASC" : "DESC";
+        sql.append(" ORDER BY created_at ").append(direction).append(", id ").append(direction).append(" LIMIT ?");
+        args.add(limit);
 
+        return jdbcTemplate.query(sql.toString(), rowMapper(type), args.toArray());
+    }
+
+    @Override
+    public long countWithFilters(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
         CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
         Root<RegisteredEvent> countRoot = countQuery.from(RegisteredEvent.class);
         countQuery.select(cb.count(countRoot));
 
+        List<Predicate> predicates = filterPredicates(cb, countRoot, startDate, endDate, eventType, serviceName);
         if (!predicates.isEmpty()) {
             countQuery.where(cb.and(predicates.toArray(new Predicate[0])));
         }
 
-        Long total = entityManager.createQuery(countQuery).getSingleResult();
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
 
-        return new PageImpl<>(result, pageable, total);
+    @Override
+    public long estimateWithFilters(
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
+
+        StringBuilder sql = new StringBuilder("EXPLAIN SELECT 1 FROM registered_events");
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, startDate, endDate, eventType, serviceName);
+
+        // The first plan line is the top node, e.g. "Seq Scan on registered_events  (cost=0.00..1.01 rows=1 width=4)".
+        List<String> plan = jdbcTemplate.queryForList(sql.toString(), String.class, args.toArray());
+        Matcher rows = PLAN_ROWS.matcher(plan.isEmpty() ? "" : plan.get(0));
+        if (!rows.find()) {
+            throw new IllegalStateException("No row estimate in plan: " + plan);
+        }
+        return Long.parseLong(rows.group(1));
+    }
+
+    private void appendFilters(
+            StringBuilder sql,
+            List<Object> args,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
+
+        sql.append(" WHERE TRUE");
+        if (startDate != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(startDate);
+        }
+        if (endDate != null) {
+            sql.append(" AND created_at <= ?");
+            args.add(endDate);
+        }
+        if (eventType != null && !eventType.isEmpty()) {
+            sql.append(" AND event_type = ?");
+            args.add(eventType);
+        }
+        if (serviceName != null && !serviceName.isEmpty()) {
+            sql.append(" AND service_name = ?");
+            args.add(serviceName);
+        }
+    }
+
+    private List<Predicate> filterPredicates(
+            CriteriaBuilder cb,
+            Root<RegisteredEvent> root,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        // Plain comparisons on the partition key, bound as timestamp parameters, so PostgreSQL
+        // prunes the partitions outside [startDate, endDate].
+        if (startDate != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), startDate));
+        }
+
+        if (endDate != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), endDate));
+        }
+
+        if (eventType != null && !eventType.isEmpty()) {
+            predicates.add(cb.equal(root.get("eventType"), eventType));
+        }
+
+        if (serviceName != null && !serviceName.isEmpty()) {
+            predicates.add(cb.equal(root.get("serviceName"), serviceName));
+        }
+
+        return predicates;
     }
 
     @Override
-    public List<String> findDistinctEventTypes() {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<String> query = cb.createQuery(String.class);
-        Root<RegisteredEvent> root = query.from(RegisteredEvent.class);
+    public <T> List<T> findByIdFragment(String fragment, int limit, Class<T> type) {
+        return jdbcTemplate.query(select(type) + " WHERE id::text LIKE '%' || ? || '%' LIMIT ?",
+                rowMapper(type), fragment, limit);
+    }
 
-        query.select(root.get("eventType")).distinct(true);
-        query.orderBy(cb.asc(root.get("eventType")));
+    @Override
+    public <T> List<T> findByOriginalIdFragment(String fragment, int limit, Class<T> type) {
+        return jdbcTemplate.query(select(type) + " WHERE original_event_id::text LIKE '%' || ? || '%' LIMIT ?",
+                rowMapper(type), fragment, limit);
+    }
+
+    @Override
+    public UUID insertIfAbsent(RegisteredEvent event) {
+        // A concurrent claim of the same id blocks here until its transaction ends, then loses.
+        List<UUID> claimed = jdbcTemplate.query(CLAIM_SQL + CLAIM_ROW + CLAIM_IF_ABSENT_SQL,
+                (PreparedStatement ps) -> bindClaims(ps, List.of(event)),
+                (rs, rowNum) -> rs.getObject(1, UUID.class));
+        if (claimed.isEmpty()) {
+            return null;
+        }
 
-        return entityManager.createQuery(query).getResultList();
+        jdbcTemplate.update(INSERT_SQL + VALUES_ROW, (PreparedStatement ps) -> bindRow(ps, 1, event));
+        return event.getId();
     }
 
     @Override
-    public List<String> findDistinctServiceNames() {
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<String> query = cb.createQuery(String.class);
-        Root<RegisteredEvent> root = query.from(RegisteredEvent.class);
+    public void insert(RegisteredEvent event) {
+        insertAll(List.of(event));
+    }
+
+    @Override
+    public void insertAll(List<RegisteredEvent> events) {
+        for (int from = 0; from < events.size(); from += MAX_ROWS_PER_INSERT) {
+            List<RegisteredEvent> chunk = events.subList(from,
+                    Math.min(from + MAX_ROWS_PER_INSERT, events.size()));
+
+            jdbcTemplate.update(CLAIM_SQL + String.join(", ", Collections.nCopies(chunk.size(), CLAIM_ROW)),
+                    (PreparedStatement ps) -> bindClaims(ps, chunk));
+            insertRows(chunk);
+        }
+    }
 
-        query.select(root.get("serviceName")).distinct(true);
-        query.orderBy(cb.asc(root.get("serviceName")));
+    @Override
+    public Set<UUID> insertAllIfAbsent(List<RegisteredEvent> events) {
+        Set<UUID> inserted = new HashSet<>();
+
+        for (int from = 0; from < events.size(); from += MAX_ROWS_PER_INSERT) {
+            List<RegisteredEvent> chunk = events.subList(from,
+                    Math.min(from + MAX_ROWS_PER_INSERT, events.size()));
 
-        return entityManager.createQuery(query).getResultList();
+            Set<UUID> claimed = new HashSet<>(jdbcTemplate.query(
+                    CLAIM_SQL + String.join(", ", Collections.nCopies(chunk.size(), CLAIM_ROW)) + CLAIM_IF_ABSENT_SQL,
+                    (PreparedStatement ps) -> bindClaims(ps, chunk),
+                    (rs, rowNum) -> rs.getObject(1, UUID.class)));
+            inserted.addAll(claimed);
+
+            // remove() keeps only the first of two events with the same id in one chunk.
+            List<RegisteredEvent> rows = new ArrayList<>(claimed.size());
+            for (RegisteredEvent event : chunk) {
+                if (claimed.remove(event.getOriginalEventId())) {
+                    rows.add(event);
+                }
+            }
+            insertRows(rows);
+        }
+
+        return inserted;
+    }
+
+    private void insertRows(List<RegisteredEvent> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.update(INSERT_SQL + String.join(", ", Collections.nCopies(rows.size(), VALUES_ROW)),
+                    (PreparedStatement ps) -> bindRows(ps, rows));
+        }
+    }
+
+    @Override
+    public void forEachOriginalEventId(Consumer<UUID> action) {
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(
+                            "SELECT original_event_id FROM registered_events");
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> action.accept(rs.getObject(1, UUID.class)));
+    }
+
+    @Override
+    public void forEachEvent(LocalDateTime startDate, LocalDateTime endDate, Consumer<RegisteredEvent> action) {
+        StringBuilder sql = new StringBuilder(select(RegisteredEvent.class));
+        List<Object> args = new ArrayList<>();
+        appendFilters(sql, args, startDate, endDate, null, null);
+        sql.append(" ORDER BY created_at, id");
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql.toString());
+                    ps.setFetchSize(STREAM_FETCH_SIZE);
+                    for (int i = 0; i < args.size(); i++) {
+                        ps.setObject(i + 1, args.get(i));
+                    }
+                    return ps;
+                },
+                (RowCallbackHandler) rs -> action.accept(EVENT_ROW_MAPPER.mapRow(rs, rs.getRow())));
+    }
+
+    @Override
+    public List<UUID> findRecentOriginalEventIds(int limit) {
+        List<UUID> ids = jdbcTemplate.query(
+                "SELECT original_event_id FROM registered_events ORDER BY registered_at DESC LIMIT ?",
+                (rs, rowNum) -> rs.getObject(1, UUID.class),
+                limit);
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    @Override
+    public void incrementCounters(Collection<RegisteredEvent> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        Map<CounterKey, Long> deltas = new HashMap<>();
+        deltas.put(new CounterKey(COUNTER_TOTAL, ""), (long) inserted.size());
+        for (RegisteredEvent event : inserted) {
+            deltas.merge(new CounterKey(COUNTER_EVENT_TYPE, event.getEventType()), 1L, Long::sum);
+            deltas.merge(new CounterKey(COUNTER_SERVICE_NAME, event.getServiceName()), 1L, Long::sum);
+        }
+
+        String[] names = new String[deltas.size()];
+        String[] keys = new String[deltas.size()];
+        Long[] values = new Long[deltas.size()];
+        int i = 0;
+        for (Map.Entry<CounterKey, Long> delta : deltas.entrySet()) {
+            names[i] = delta.getKey().name();
+            keys[i] = delta.getKey().key();
+            values[i] = delta.getValue();
+            i++;
+        }
+
+        int shard = ThreadLocalRandom.current().nextInt(COUNTER_SHARDS);
+        jdbcTemplate.update(INCREMENT_COUNTERS_SQL, ps -> {
+            ps.setInt(1, shard);
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", names));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", keys));
+            ps.setArray(4, ps.getConnection().createArrayOf("bigint", values));
+        });
+    }
+
+    @Override
+    public EventCounts readCounters() {
+        long[] total = new long[1];
+        Map<String, Long> byEventType = new TreeMap<>();
+        Map<String, Long> byServiceName = new TreeMap<>();
+        jdbcTemplate.query(
+                "SELECT counter_name, counter_key, SUM(value) FROM registered_event_counters " +
+                "GROUP BY counter_name, counter_key HAVING SUM(value) <> 0",
+                (RowCallbackHandler) rs -> {
+                    String key = rs.getString(2);
+                    long value = rs.getLong(3);
+                    switch (rs.getString(1)) {
+                        case COUNTER_TOTAL -> total[0] = value;
+                        case COUNTER_EVENT_TYPE -> byEventType.put(key, value);
+                        case COUNTER_SERVICE_NAME -> byServiceName.put(key, value);
+                        default -> { }
+                    }
+                });
+        return new EventCounts(total[0], byEventType, byServiceName);
+    }
+
+    @Override
+    public void upsertRollups(Collection<RegisteredEvent> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+
+        Map<RollupKey, RollupDelta> deltas = new HashMap<>();
+        for (RegisteredEvent event : inserted) {
+            long lagMs = Duration.between(event.getCreatedAt(), event.getRegisteredAt()).toMillis();
+            for (BucketSize size : BucketSize.STORED) {
+                RollupKey key = new RollupKey(size.storedAs(), size.truncate(event.getCreatedAt()),
+                        event.getEventType(), event.getServiceName());
+                deltas.computeIfAbsent(key, k -> new RollupDelta()).add(lagMs);
+            }
+        }
+
+        int rows = deltas.size();
+        String[] bucketSizes = new String[rows];
+        String[] bucketStarts = new String[rows];
+        String[] eventTypes = new String[rows];
+        String[] serviceNames = new String[rows];
+        Long[] counts = new Long[rows];
+        Long[] lagMins = new Long[rows];
+        Long[] lagMaxes = new Long[rows];
+        Long[] lagSums = new Long[rows];
+        int i = 0;
+        for (Map.Entry<RollupKey, RollupDelta> delta : deltas.entrySet()) {
+            RollupKey key = delta.getKey();
+            RollupDelta value = delta.getValue();
+            bucketSizes[i] = key.bucketSize();
+            // ISO-8601 text, cast to timestamp[] by the statement.
+            bucketStarts[i] = key.bucketStart().toString();
+            eventTypes[i] = key.eventType();
+            serviceNames[i] = key.serviceName();
+            counts[i] = value.count;
+            lagMins[i] = value.lagMinMs;
+            lagMaxes[i] = value.lagMaxMs;
+            lagSums[i] = value.lagSumMs;
+            i++;
+        }
+
+        jdbcTemplate.update(UPSERT_ROLLUPS_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("varchar", bucketSizes));
+            ps.setArray(2, ps.getConnection().createArrayOf("varchar", bucketStarts));
+            ps.setArray(3, ps.getConnection().createArrayOf("varchar", eventTypes));
+            ps.setArray(4, ps.getConnection().createArrayOf("varchar", serviceNames));
+            ps.setArray(5, ps.getConnection().createArrayOf("bigint", counts));
+            ps.setArray(6, ps.getConnection().createArrayOf("bigint", lagMins));
+            ps.setArray(7, ps.getConnection().createArrayOf("bigint", lagMaxes));
+            ps.setArray(8, ps.getConnection().createArrayOf("bigint", lagSums));
+        });
+    }
+
+    @Override
+    public List<TimeseriesPoint> findTimeseries(
+            BucketSize bucketSize,
+            LocalDateTime from,
+            LocalDateTime to,
+            Set<RollupDimension> groupBy) {
+
+        // Only enum-defined column names are ever appended to the statement.
+        StringBuilder columns = new StringBuilder();
+        for (RollupDimension dimension : groupBy) {
+            columns.append(", ").append(dimension.column());
+        }
+        boolean byEventType = groupBy.contains(RollupDimension.EVENT_TYPE);
+        boolean byServiceName = groupBy.contains(RollupDimension.SERVICE_NAME);
+
+        String sql = "SELECT date_trunc(?::text, bucket_start) AS bucket" + columns +
+                ", SUM(event_count) AS event_count, MIN(lag_min_ms) AS lag_min_ms, MAX(lag_max_ms) AS lag_max_ms, " +
+                "SUM(lag_sum_ms) AS lag_sum_ms " +
+                "FROM registered_event_rollups " +
+                "WHERE bucket_size = ? AND bucket_start >= ? AND bucket_start <= ? " +
+                "GROUP BY 1" + columns + " ORDER BY 1" + columns;
+
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> {
+                    long count = rs.getLong("event_count");
+                    return new TimeseriesPoint(
+                            rs.getObject("bucket", LocalDateTime.class),
+                            byEventType ? rs.getString("event_type") : null,
+                            byServiceName ? rs.getString("service_name") : null,
+                            count,
+                            rs.getLong("lag_min_ms"),
+                            rs.getLong("lag_max_ms"),
+                            count == 0 ? 0 : (double) rs.getLong("lag_sum_ms") / count);
+                },
+                bucketSize.paramValue(), bucketSize.storedAs(), bucketSize.truncate(from), to);
+    }
+
+    private static String select(Class<?> type) {
+        return "SELECT " + (type == RegisteredEvent.class ? EVENT_COLUMNS : SUMMARY_COLUMNS) + " FROM registered_events";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RowMapper<T> rowMapper(Class<T> type) {
+        if (type == RegisteredEvent.class) {
+            return (RowMapper<T>) EVENT_ROW_MAPPER;
+        }
+        if (type == RegisteredEventSummary.class) {
+            return (RowMapper<T>) SUMMARY_ROW_MAPPER;
+        }
+        throw new IllegalArgumentException("Unsupported event type: " + type.getName());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Selection<T> selection(CriteriaBuilder cb, Root<RegisteredEvent> root, Class<T> type) {
+        if (type == RegisteredEvent.class) {
+            return (Selection<T>) root;
+        }
+        if (type == RegisteredEventSummary.class) {
+            return cb.construct(type, root.get("id"), root.get("originalEventId"), root.get("eventType"),
+                    root.get("serviceName"), root.get("createdAt"), root.get("registeredAt"), root.get("processedAt"));
+        }
+        throw new IllegalArgumentException("Unsupported event type: " + type.getName());
+    }
+
+    private int bindRow(PreparedStatement ps, int index, RegisteredEvent event) throws SQLException {
+        ps.setObject(index++, event.getId());
+        ps.setObject(index++, event.getOriginalEventId());
+        ps.setString(index++, event.getEventType());
+        ps.setString(index++, event.getServiceName());
+        ps.setString(index++, event.getPayload());
+        ps.setObject(index++, event.getCreatedAt());
+        ps.setObject(index++, event.getRegisteredAt());
+        ps.setObject(index++, event.getProcessedAt());
+        return index;
+    }
+
+    private void bindRows(PreparedStatement ps, List<RegisteredEvent> events) throws SQLException {
+        int index = 1;
+        for (RegisteredEvent event : events) {
+            index = bindRow(ps, index, event);
+        }
+    }
+
+    private void bindClaims(PreparedStatement ps, List<RegisteredEvent> events) throws SQLException {
+        int index = 1;
+        for (RegisteredEvent event : events) {
+            ps.setObject(index++, event.getOriginalEventId());
+            ps.setObject(index++, event.getCreatedAt());
+        }
+    }
+
+    private record CounterKey(String name, String key) {
+    }
+
+    private record RollupKey(String bucketSize, LocalDateTime bucketStart, String eventType, String serviceName) {
+    }
+
+    private static final class RollupDelta {
+
+        private long count;
+        private long lagMinMs = Long.MAX_VALUE;
+        private long lagMaxMs = Long.MIN_VALUE;
+        private long lagSumMs;
+
+        void add(long lagMs) {
+            count++;
+            lagMinMs = Math.min(lagMinMs, lagMs);
+            lagMaxMs = Math.max(lagMaxMs, lagMs);
+            lagSumMs += lagMs;
+        }
     }
 }
@@ -0,0 +1,122 @@
+package org.example.eventregistry.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Republishes dead-lettered records to events.created once the cause has been fixed.
+ * Each replay uses a short-lived consumer in its own group, so the group's committed
+ * offset marks how far the DLT has been replayed.
+ */
+@Slf4j
+public class DeadLetterReplayer {
+
+    static final String GROUP_ID = "event-registry-dlt-replay";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final ConsumerFactory<String, byte[]> consumerFactory;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final AtomicLong replayed = new AtomicLong();
+
+    public DeadLetterReplayer(ConsumerFactory<String, byte[]> consumerFactory,
+                              KafkaTemplate<String, byte[]> kafkaTemplate) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Replays up to {@code limit} records, stopping early once a poll comes back empty.
+     * Offsets are committed per partition only up to the last record whose republish was
+     * acknowledged; a failed send ends the replay, and that record and everything after it
+     * on its partition are replayed again next time.
+     *
+     * @return number of records sent back to events.created
+     */
+    public synchronized int replay(int limit) {
+        Properties properties = new Properties();
+        // Closing the consumer must not commit what has been polled but not republished.
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        int count = 0;
+        try (Consumer<String, byte[]> consumer =
+                     consumerFactory.createConsumer(GROUP_ID, "dlt-replay", null, properties)) {
+            consumer.subscribe(List.of(RetryTopics.DLT));
+            int sent = 0;
+            while (sent < limit) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                // Records left over once the limit is reached are not committed, so the next
+                // replay starts with them.
+                Map<TopicPartition, List<Republish>> sends = new LinkedHashMap<>();
+                for (TopicPartition partition : records.partitions()) {
+                    for (ConsumerRecord<String, byte[]> record : records.records(partition)) {
+                        if (sent == limit) {
+                            break;
+                        }
+                        sends.computeIfAbsent(partition, key -> new ArrayList<>()).add(new Republish(record.offset(),
+                                kafkaTemplate.send(new ProducerRecord<>(RetryTopics.MAIN, null, record.key(),
+                                        record.value(), IngestRetryRouter.withoutRetryHeaders(record.headers())))));
+                        sent++;
+                    }
+                }
+
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                RuntimeException failure = null;
+                for (Map.Entry<TopicPartition, List<Republish>> partition : sends.entrySet()) {
+                    for (Republish republish : partition.getValue()) {
+                        try {
+                            republish.result().join();
+                        } catch (CompletionException | CancellationException e) {
+                            failure = failure != null ? failure : e;
+                            break;
+                        }
+                        offsets.put(partition.getKey(), new OffsetAndMetadata(republish.offset() + 1));
+                        count++;
+                    }
+                }
+                if (!offsets.isEmpty()) {
+                    consumer.commitSync(offsets);
+                }
+                if (failure != null) {
+                    log.error("❌ DLT replay stopped after {} events: republishing to {} failed",
+                            count, RetryTopics.MAIN, failure);
+                    throw failure;
+                }
+            }
+        } finally {
+            replayed.addAndGet(count);
+        }
+        log.info("♻️ Replayed {} dead-lettered events to {}", count, RetryTopics.MAIN);
+        return count;
+    }
+
+    public long getReplayedCount() {
+        return replayed.get();
+    }
+
+    private record Republish(long offset, CompletableFuture<?> result) {
+    }
+}
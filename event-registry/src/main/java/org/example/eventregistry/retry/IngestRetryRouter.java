@@ -0,0 +1,180 @@
+package org.example.eventregistry.retry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves failed events.created records to the next retry tier or to the dead-letter topic.
+ * Records are republished byte for byte with their original key and headers, plus retry
+ * headers: the attempt number and the earliest time the record may be processed again.
+ */
+@Slf4j
+public class IngestRetryRouter {
+
+    public static final String ATTEMPT_HEADER = "retry-attempt";
+    public static final String NOT_BEFORE_HEADER = "retry-not-before";
+    public static final String EXCEPTION_HEADER = "retry-exception";
+    public static final String ORIGIN_HEADER = "retry-origin";
+
+    private static final long SEND_TIMEOUT_SECONDS = 10;
+    private static final int MAX_EXCEPTION_LENGTH = 512;
+
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final Map<String, AtomicLong> routed = new LinkedHashMap<>();
+
+    public IngestRetryRouter(KafkaTemplate<String, byte[]> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+        RetryTopics.TIERS.forEach(tier -> routed.put(tier.topic(), new AtomicLong()));
+        routed.put(RetryTopics.DLT, new AtomicLong());
+    }
+
+    /**
+     * Sends a record that failed with {@code failure} to the next retry tier if the failure
+     * is transient, or straight to the dead-letter topic if it is not.
+     */
+    public void route(ConsumerRecord<String, byte[]> record, Exception failure) {
+        if (isRetriable(failure)) {
+            retry(record, failure);
+        } else {
+            deadLetter(record, failure);
+        }
+    }
+
+    /**
+     * Sends the record to the next retry tier regardless of the failure type; used when a
+     * whole batch failed and the offending record is not known yet.
+     */
+    public void retry(ConsumerRecord<String, byte[]> record, Exception failure) {
+        int attempt = attemptOf(record.headers());
+        if (attempt >= RetryTopics.TIERS.size()) {
+            deadLetter(record, failure);
+            return;
+        }
+        RetryTopics.Tier tier = RetryTopics.TIERS.get(attempt);
+        long notBefore = System.currentTimeMillis() + tier.delay().toMillis();
+        send(tier.topic(), record, failure, attempt + 1, notBefore);
+    }
+
+    public void deadLetter(ConsumerRecord<String, byte[]> record, Exception failure) {
+        send(RetryTopics.DLT, record, failure, attemptOf(record.headers()), 0);
+    }
+
+    /**
+     * @return how long the record must still wait before its retry may run, 0 if it is due
+     */
+    public long remainingDelayMs(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(NOT_BEFORE_HEADER);
+        if (header == null) {
+            return 0;
+        }
+        long notBefore = Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+        return Math.max(0, notBefore - System.currentTimeMillis());
+    }
+
+    /**
+     * Connection loss, timeouts, lock conflicts and serialization failures are worth
+     * retrying; anything else (bad data, constraint violations, bugs) is a poison message.
+     */
+    public static boolean isRetriable(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof org.apache.kafka.common.errors.RetriableException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        routed.forEach((topic, count) -> stats.put(topic, count.get()));
+        return stats;
+    }
+
+    /**
+     * Copies the record's headers without any retry bookkeeping, e.g. for a DLT replay.
+     */
+    public static Headers withoutRetryHeaders(Headers headers) {
+        RecordHeaders copy = new RecordHeaders();
+        for (Header header : headers) {
+            if (!header.key().startsWith("retry-")) {
+                copy.add(header.key(), header.value());
+            }
+        }
+        return copy;
+    }
+
+    private void send(String topic, ConsumerRecord<String, byte[]> record, Exception failure,
+                      int attempt, long notBefore) {
+        Headers headers = withoutRetryHeaders(record.headers());
+        headers.add(ATTEMPT_HEADER, bytes(Integer.toString(attempt)));
+        if (notBefore > 0) {
+            headers.add(NOT_BEFORE_HEADER, bytes(Long.toString(notBefore)));
+        }
+        headers.add(EXCEPTION_HEADER, bytes(describe(failure)));
+        headers.add(ORIGIN_HEADER, bytes(originOf(record)));
+
+        try {
+            // Synchronous on purpose: the source offset is committed right after this returns.
+            kafkaTemplate.send(new ProducerRecord<>(topic, null, record.key(), record.value(), headers))
+                    .get(SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while routing record to " + topic, e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not route record to " + topic, e);
+        }
+
+        routed.get(topic).incrementAndGet();
+        log.warn("🔁 Record from {}-{}@{} routed to {} (attempt {}): {}",
+                record.topic(), record.partition(), record.offset(), topic, attempt, describe(failure));
+    }
+
+    private static int attemptOf(Headers headers) {
+        Header header = headers.lastHeader(ATTEMPT_HEADER);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    private static String originOf(ConsumerRecord<String, byte[]> record) {
+        Header origin = record.headers().lastHeader(ORIGIN_HEADER);
+        return origin != null ? new String(origin.value(), StandardCharsets.UTF_8)
+                : record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
+
+    private static String describe(Exception failure) {
+        String description = failure.getClass().getName() + ": " + failure.getMessage();
+        return description.length() > MAX_EXCEPTION_LENGTH ? description.substring(0, MAX_EXCEPTION_LENGTH) : description;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
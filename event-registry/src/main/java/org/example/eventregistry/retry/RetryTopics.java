@@ -0,0 +1,28 @@
+package org.example.eventregistry.retry;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Topology of the non-blocking retry path for events.created: failed records move through
+ * fixed-delay tiers and end up in the dead-letter topic.
+ */
+public final class RetryTopics {
+
+    public static final String MAIN = "events.created";
+    public static final String RETRY_1S = "events.created.retry-1s";
+    public static final String RETRY_10S = "events.created.retry-10s";
+    public static final String RETRY_60S = "events.created.retry-60s";
+    public static final String DLT = "events.created.dlt";
+
+    public static final List<Tier> TIERS = List.of(
+            new Tier(RETRY_1S, Duration.ofSeconds(1)),
+            new Tier(RETRY_10S, Duration.ofSeconds(10)),
+            new Tier(RETRY_60S, Duration.ofSeconds(60)));
+
+    public record Tier(String topic, Duration delay) {
+    }
+
+    private RetryTopics() {
+    }
+}
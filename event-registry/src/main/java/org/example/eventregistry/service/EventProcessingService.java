@@ -1,21 +1,74 @@
 package org.example.eventregistry.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.eventregistry.cache.RegisteredEventCache;
+import org.example.eventregistry.codec.EventMessageDecoder;
+import org.example.eventregistry.codec.WireFormat;
+import org.example.eventregistry.datasource.ReplicaLagMonitor;
+import org.example.eventregistry.dedup.OriginalEventIdFilter;
+import org.example.eventregistry.dedup.OriginalEventIdFilter.Verdict;
+import org.example.eventregistry.dto.CursorPage;
+import org.example.eventregistry.dto.EventConfirmationBatch;
+import org.example.eventregistry.dto.EventCounts;
+import org.example.eventregistry.dto.EventCursor;
+import org.example.eventregistry.dto.EventMessage;
 import org.example.eventregistry.dto.EventResponse;
+import org.example.eventregistry.dto.RegisteredEventSummary;
+import org.example.eventregistry.dto.TimeseriesPoint;
 import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.ingest.KeyedWorkerPool;
+import org.example.eventregistry.metrics.IngestMetrics;
+import org.example.eventregistry.query.BucketSize;
+import org.example.eventregistry.query.EventDictionaries;
+import org.example.eventregistry.query.FilteredCountCache;
+import org.example.eventregistry.query.FilteredCountCache.Filters;
+import org.example.eventregistry.query.RollupDimension;
+import org.example.eventregistry.query.TotalMode;
 import org.example.eventregistry.repository.RegisteredEventRepository;
+import org.example.eventregistry.retry.IngestRetryRouter;
+import org.example.eventregistry.retry.RetryTopics;
+import org.example.eventregistry.stream.RegisteredEventStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -24,79 +77,453 @@ public class EventProcessingService {
 
     private final RegisteredEventRepository eventRepository;
     private final KafkaTemplate<String, EventResponse> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, EventConfirmationBatch> confirmationBatchKafkaTemplate;
+    private final EventMessageDecoder eventMessageDecoder;
+    private final OriginalEventIdFilter eventIdFilter;
+    private final KeyedWorkerPool ingestWorkerPool;
+    private final TransactionTemplate transactionTemplate;
+    private final IngestRetryRouter retryRouter;
+    private final IngestMetrics ingestMetrics;
+    private final FilteredCountCache countCache;
+    private final EventDictionaries dictionaries;
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final RegisteredEventCache eventCache;
+    private final RegisteredEventStream eventStream;
 
+    private static final String CONFIRMATION_TOPIC = "events.processed";
+
+    // Keeps a single envelope well below the producer's 1 MB max.request.size.
+    private static final int MAX_CONFIRMATIONS_PER_MESSAGE = 1_000;
+
+    // Hex digits and dashes, at least one trigram long: anything else cannot match a UUID or use the index.
+    private static final Pattern ID_FRAGMENT = Pattern.compile("[0-9a-f-]{3,36}");
+
+    @Value("${registry.dedup.warm-up.enabled:true}")
+    private boolean dedupWarmUpEnabled;
+
+    @Value("${registry.confirmations.batched:true}")
+    private boolean batchedConfirmations;
+
+    /**
+     * Loads the Bloom filter with every registered id and the recent cache with the
+     * newest ones. Until this completes the filter sends every id to the database.
+     * Deliberately not read-only: a lagging replica would leave its newest ids out of the
+     * filter, and those ids would then be inserted as NEW without a conflict check.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUpDeduplicationFilter() {
+        if (!dedupWarmUpEnabled) {
+            return;
+        }
+
+        long started = System.currentTimeMillis();
+        long[] loaded = new long[1];
+        eventRepository.forEachOriginalEventId(id -> {
+            eventIdFilter.addToBloomFilter(id);
+            loaded[0]++;
+        });
+        eventRepository.findRecentOriginalEventIds(eventIdFilter.getRecentCapacity())
+                .forEach(eventIdFilter::add);
+        eventIdFilter.markWarmedUp();
+
+        log.info("🧮 Dedup filter warmed up with {} ids in {} ms",
+                loaded[0], System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Registers one events.created record. Transient failures (database unavailable,
+     * lock conflicts) send the record to the retry tiers; records that can never
+     * succeed, such as undecodable payloads, go straight to the dead-letter topic.
+     */
+    @KafkaListener(
+            topics = RetryTopics.MAIN,
+            groupId = "event-registry-group",
+            containerFactory = "kafkaListenerContainerFactory",
+            batch = "false",
+            autoStartup = "#{!${registry.ingest.batch.enabled:false}}"
+    )
+    public void processEvent(ConsumerRecord<String, byte[]> record) {
+        if (record.value() == null) {
+            return;
+        }
+        long started = System.nanoTime();
+        EventMessage eventData = null;
+        try {
+            eventData = handleEvent(record);
+        } finally {
+            ingestMetrics.handler(IngestMetrics.MODE_RECORD,
+                            eventData != null ? eventData.getEventType() : null,
+                            eventData != null ? eventData.getServiceName() : null)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return the decoded event, or null if the record could not be decoded
+     */
+    private EventMessage handleEvent(ConsumerRecord<String, byte[]> record) {
+        EventMessage eventData;
+        try {
+            eventData = decode(record);
+        } catch (Exception e) {
+            ingestMetrics.countError("decode");
+            // The raw JSON is only materialized as a String on this error path.
+            log.error("❌ Error parsing event. JSON: {}", new String(record.value(), StandardCharsets.UTF_8), e);
+            retryRouter.deadLetter(record, e);
+            return null;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> registerEvent(eventData, status));
+        } catch (Exception e) {
+            ingestMetrics.countError("register");
+            log.error("❌ Error processing event: {}", eventData.getEventId(), e);
+            retryRouter.route(record, e);
+        }
+        return eventData;
+    }
+
+    /**
+     * Delayed redelivery of records that failed on events.created. A record that is not
+     * due yet is nacked with its remaining delay; the tier's consumer is paused meanwhile,
+     * and since every record in a tier has the same delay, nothing behind it is due either.
+     */
+    @KafkaListener(id = "registry-retry-1s", topics = RetryTopics.RETRY_1S,
+            groupId = "event-registry-retry-group", containerFactory = "retryKafkaListenerContainerFactory")
+    @KafkaListener(id = "registry-retry-10s", topics = RetryTopics.RETRY_10S,
+            groupId = "event-registry-retry-group", containerFactory = "retryKafkaListenerContainerFactory")
+    @KafkaListener(id = "registry-retry-60s", topics = RetryTopics.RETRY_60S,
+            groupId = "event-registry-retry-group", containerFactory = "retryKafkaListenerContainerFactory")
+    public void processRetry(ConsumerRecord<String, byte[]> record, Acknowledgment acknowledgment) {
+        long remainingMs = retryRouter.remainingDelayMs(record);
+        if (remainingMs > 0) {
+            acknowledgment.nack(Duration.ofMillis(remainingMs));
+            return;
+        }
+        processEvent(record);
+        acknowledgment.acknowledge();
+    }
+
+    private void registerEvent(EventMessage eventData, TransactionStatus status) {
+        log.info("=== START PROCESSING EVENT ===");
+        log.info("Event ID: {}", eventData.getEventId());
+        log.info("Type: {}, Service: {}",
+                eventData.getEventType(), eventData.getServiceName());
+
+        UUID eventId = eventData.getEventId();
+        Verdict verdict = ingestMetrics.dedupLookup(eventData.getEventType(), eventData.getServiceName())
+                .record(() -> eventIdFilter.check(eventId));
+        if (verdict == Verdict.DUPLICATE) {
+            ingestMetrics.countDuplicate(eventData.getEventType(), eventData.getServiceName());
+            log.warn("⚠️ Event already registered (dedup cache): {}", eventId);
+            return;
+        }
+
+        RegisteredEvent registeredEvent = toRegisteredEvent(eventData, LocalDateTime.now());
+
+        UUID savedId = ingestMetrics.dbInsert(IngestMetrics.MODE_RECORD,
+                        eventData.getEventType(), eventData.getServiceName())
+                .record(() -> insert(registeredEvent, verdict, status));
+
+        if (savedId == null) {
+            eventIdFilter.recordDuplicate(eventId, verdict);
+            ingestMetrics.countDuplicate(eventData.getEventType(), eventData.getServiceName());
+            log.warn("⚠️ Event already registered: {}", eventId);
+            return;
+        }
+        eventRepository.incrementCounters(List.of(registeredEvent));
+        eventRepository.upsertRollups(List.of(registeredEvent));
+        afterCommit(() -> {
+            eventIdFilter.recordRegistered(eventId, verdict);
+            countCache.onRegistered(List.of(registeredEvent));
+            dictionaries.onRegistered(List.of(registeredEvent));
+            eventCache.putAll(List.of(registeredEvent));
+            eventStream.publish(List.of(registeredEvent));
+            recordRegistered(registeredEvent);
+            sendConfirmation(() -> kafkaTemplate.send(CONFIRMATION_TOPIC, toResponse(registeredEvent)),
+                    registeredEvent.getEventType(), registeredEvent.getServiceName());
+            log.info("📤 Confirmation sent for event: {}", eventId);
+        });
+        log.info("✅ Event saved to DB with ID: {}", savedId);
+        log.info("=== PROCESSING COMPLETED ===");
+    }
+
+    private EventMessage decode(ConsumerRecord<String, byte[]> record) throws Exception {
+        WireFormat format = WireFormat.of(record.headers());
+        EventMessage eventData = ingestMetrics.decode(format)
+                .recordCallable(() -> eventMessageDecoder.decode(record.value(), format));
+        if (eventData.getEventId() == null) {
+            throw new IllegalArgumentException("Event has no eventId");
+        }
+        return eventData;
+    }
+
+    /**
+     * Batch counterpart of {@link #processEvent(ConsumerRecord)}: handles a whole poll at once.
+     * Records are spread over the worker lanes by Kafka key, so events sharing a key keep
+     * their order while different keys are registered in parallel. Each lane writes its
+     * share with one multi-row insert in its own transaction, and the container commits
+     * offsets only after every lane has finished. A failed lane hands all of its records to
+     * the first retry tier, where they are retried one by one so a poison record only
+     * takes itself to the dead-letter topic.
+     */
     @KafkaListener(
             topics = "events.created",
             groupId = "event-registry-group",
-            containerFactory = "kafkaListenerContainerFactory"
+            containerFactory = "kafkaListenerContainerFactory",
+            batch = "true",
+            autoStartup = "${registry.ingest.batch.enabled:false}"
     )
-    @Transactional
-    public void processEvent(String eventJson) {
+    public void processEventBatch(List<ConsumerRecord<String, byte[]>> records) {
+        ingestMetrics.recordBatchSize(records.size());
+        long started = System.nanoTime();
+        Collection<KeyedEvent> decoded = List.of();
         try {
-            log.info("📥 Received event JSON: {}", eventJson);
+            decoded = handleBatch(records);
+        } finally {
+            ingestMetrics.handler(IngestMetrics.MODE_BATCH,
+                            IngestMetrics.dominant(decoded, event -> event.data().getEventType()),
+                            IngestMetrics.dominant(decoded, event -> event.data().getServiceName()))
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            EventData eventData = objectMapper.readValue(eventJson, EventData.class);
+    /**
+     * @return the decoded events, without duplicates within the poll
+     */
+    private Collection<KeyedEvent> handleBatch(List<ConsumerRecord<String, byte[]>> records) {
+        Map<UUID, KeyedEvent> uniqueEvents = new LinkedHashMap<>();
+        for (ConsumerRecord<String, byte[]> record : records) {
+            if (record.value() == null) {
+                continue;
+            }
+            try {
+                EventMessage eventData = decode(record);
+                String key = record.key() != null ? record.key() : eventData.getEventId().toString();
+                uniqueEvents.putIfAbsent(eventData.getEventId(), new KeyedEvent(key, eventData, record));
+            } catch (Exception e) {
+                ingestMetrics.countError("decode");
+                log.error("❌ Error parsing event. Partition: {}, Offset: {}, JSON: {}",
+                        record.partition(), record.offset(),
+                        new String(record.value(), StandardCharsets.UTF_8), e);
+                retryRouter.deadLetter(record, e);
+            }
+        }
 
-            log.info("=== START PROCESSING EVENT ===");
-            log.info("Event ID: {}", eventData.getEventId());
-            log.info("Type: {}, Service: {}",
-                    eventData.getEventType(), eventData.getServiceName());
+        if (uniqueEvents.isEmpty()) {
+            return uniqueEvents.values();
+        }
 
-            RegisteredEvent existingEvent = eventRepository
-                    .findByOriginalEventId(eventData.getEventId());
+        // Routing failures propagate, so the container redelivers the poll instead of
+        // committing offsets for records that reached neither the database nor a retry topic.
+        AtomicInteger registered = new AtomicInteger();
+        ingestWorkerPool.forEachLane(new ArrayList<>(uniqueEvents.values()), KeyedEvent::key, laneEvents -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> registered.addAndGet(registerBatch(laneEvents)));
+            } catch (Exception e) {
+                log.error("❌ Error registering {} events, sending them to retry", laneEvents.size(), e);
+                laneEvents.forEach(event -> {
+                    ingestMetrics.countError("register");
+                    retryRouter.retry(event.record(), e);
+                });
+            }
+        });
 
-            if (existingEvent != null) {
-                log.warn("⚠️ Event already registered: {}", eventData.getEventId());
-                return;
+        log.info("✅ Batch processed. Records: {}, Registered: {}, Duplicates: {}",
+                records.size(), registered.get(), records.size() - registered.get());
+        return uniqueEvents.values();
+    }
+
+    private int registerBatch(List<KeyedEvent> events) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RegisteredEvent> candidates = new ArrayList<>(events.size());
+        Map<UUID, Verdict> verdicts = new HashMap<>();
+        for (KeyedEvent event : events) {
+            Verdict verdict = ingestMetrics.dedupLookup(event.data().getEventType(), event.data().getServiceName())
+                    .record(() -> eventIdFilter.check(event.data().getEventId()));
+            if (verdict != Verdict.DUPLICATE) {
+                verdicts.put(event.data().getEventId(), verdict);
+                candidates.add(toRegisteredEvent(event.data(), now));
+            } else {
+                ingestMetrics.countDuplicate(event.data().getEventType(), event.data().getServiceName());
             }
-            RegisteredEvent registeredEvent = new RegisteredEvent();
-            registeredEvent.setOriginalEventId(eventData.getEventId());
-            registeredEvent.setEventType(eventData.getEventType());
-            registeredEvent.setServiceName(eventData.getServiceName());
-            registeredEvent.setPayload(eventData.getPayload());
-            registeredEvent.setCreatedAt(eventData.getCreatedAt());
-            registeredEvent.setProcessedAt(LocalDateTime.now());
-
-            RegisteredEvent savedEvent = eventRepository.save(registeredEvent);
-            log.info("✅ Event saved to DB with ID: {}", savedEvent.getId());
-
-            EventResponse response = new EventResponse();
-            response.setOriginalEventId(eventData.getEventId());
-            response.setRegisteredEventId(savedEvent.getId());
-            response.setStatus("PROCESSED");
-            response.setProcessedAt(savedEvent.getProcessedAt());
-            response.setRegistryServiceName("event-registry");
-
-            kafkaTemplate.send("events.processed", response);
-            log.info("📤 Confirmation sent for event: {}", eventData.getEventId());
-            log.info("=== PROCESSING COMPLETED ===");
+        }
 
-        } catch (Exception e) {
-            log.error("❌ Error processing event. JSON: {}", eventJson, e);
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        // Ids the filter has ruled out skip the conflict check. Should one of them be registered
+        // after all, the insert fails the lane and the retry tier settles it record by record.
+        List<RegisteredEvent> fresh = new ArrayList<>();
+        List<RegisteredEvent> unsure = new ArrayList<>();
+        for (RegisteredEvent candidate : candidates) {
+            (verdicts.get(candidate.getOriginalEventId()) == Verdict.NEW ? fresh : unsure).add(candidate);
+        }
+        Timer dbInsert = ingestMetrics.dbInsert(IngestMetrics.MODE_BATCH,
+                IngestMetrics.dominant(candidates, RegisteredEvent::getEventType),
+                IngestMetrics.dominant(candidates, RegisteredEvent::getServiceName));
+        Set<UUID> insertedIds = dbInsert.record(() -> {
+            Set<UUID> ids = new HashSet<>(unsure.isEmpty() ? Set.of() : eventRepository.insertAllIfAbsent(unsure));
+            if (!fresh.isEmpty()) {
+                eventRepository.insertAll(fresh);
+                fresh.forEach(event -> ids.add(event.getOriginalEventId()));
+            }
+            return ids;
+        });
+
+        List<RegisteredEvent> inserted = new ArrayList<>(insertedIds.size());
+        for (RegisteredEvent candidate : candidates) {
+            if (insertedIds.contains(candidate.getOriginalEventId())) {
+                inserted.add(candidate);
+            } else {
+                eventIdFilter.recordDuplicate(candidate.getOriginalEventId(),
+                        verdicts.get(candidate.getOriginalEventId()));
+                ingestMetrics.countDuplicate(candidate.getEventType(), candidate.getServiceName());
+            }
+        }
+        eventRepository.incrementCounters(inserted);
+        eventRepository.upsertRollups(inserted);
+        afterCommit(() -> {
+            countCache.onRegistered(inserted);
+            dictionaries.onRegistered(inserted);
+            eventCache.putAll(inserted);
+            eventStream.publish(inserted);
+            inserted.forEach(event -> {
+                eventIdFilter.recordRegistered(event.getOriginalEventId(), verdicts.get(event.getOriginalEventId()));
+                recordRegistered(event);
+            });
+            sendConfirmations(inserted);
+        });
+
+        return insertedIds.size();
+    }
+
+    /**
+     * A NEW verdict means the id is in neither the recent cache nor the Bloom filter, so the
+     * row goes in with a plain insert. The filter only misses ids registered by another
+     * instance; the unique index still rejects those, and as the failed statement has
+     * aborted the transaction it is rolled back and the event counted as a duplicate.
+     *
+     * @return id of the inserted row, or null if the event was already registered
+     */
+    private UUID insert(RegisteredEvent event, Verdict verdict, TransactionStatus status) {
+        if (verdict != Verdict.NEW) {
+            return eventRepository.insertIfAbsent(event);
+        }
+        try {
+            eventRepository.insert(event);
+            return event.getId();
+        } catch (DuplicateKeyException e) {
+            status.setRollbackOnly();
+            return null;
+        }
+    }
+
+    /**
+     * Confirms a batch with as few records as possible: one envelope per
+     * {@link #MAX_CONFIRMATIONS_PER_MESSAGE} events, or one {@link EventResponse} per
+     * event when batched confirmations are switched off for older generators.
+     */
+    private void sendConfirmations(List<RegisteredEvent> registeredEvents) {
+        if (!batchedConfirmations) {
+            registeredEvents.forEach(event ->
+                    sendConfirmation(() -> kafkaTemplate.send(CONFIRMATION_TOPIC, toResponse(event)),
+                            event.getEventType(), event.getServiceName()));
+            return;
+        }
+
+        for (int from = 0; from < registeredEvents.size(); from += MAX_CONFIRMATIONS_PER_MESSAGE) {
+            List<RegisteredEvent> chunk = registeredEvents.subList(
+                    from, Math.min(from + MAX_CONFIRMATIONS_PER_MESSAGE, registeredEvents.size()));
+            List<EventConfirmationBatch.Confirmation> confirmations = new ArrayList<>(chunk.size());
+            for (RegisteredEvent event : chunk) {
+                confirmations.add(new EventConfirmationBatch.Confirmation(
+                        event.getOriginalEventId(), event.getId(), event.getProcessedAt()));
+            }
+            sendConfirmation(() -> confirmationBatchKafkaTemplate.send(CONFIRMATION_TOPIC,
+                            new EventConfirmationBatch("PROCESSED", "event-registry", confirmations)),
+                    IngestMetrics.dominant(chunk, RegisteredEvent::getEventType),
+                    IngestMetrics.dominant(chunk, RegisteredEvent::getServiceName));
         }
     }
 
-    private static class EventData {
-        private UUID eventId;
-        private String eventType;
-        private String serviceName;
-        private String payload;
-        private LocalDateTime createdAt;
+    /**
+     * Sends a confirmation and times it from just before {@code send}, so time spent
+     * blocked in the producer (metadata, full buffer) is part of the ack latency.
+     */
+    private void sendConfirmation(Supplier<CompletableFuture<?>> send, String eventType, String serviceName) {
+        long sendStarted = System.nanoTime();
+        send.get().whenComplete((result, ex) ->
+                ingestMetrics.recordSendAck(eventType, serviceName, sendStarted, ex == null));
+    }
+
+    /**
+     * The dedup cache must never learn about an id whose insert may still roll back,
+     * otherwise the redelivered event would be dropped as a duplicate. Confirmations wait
+     * for the commit too: the generator acts on the first one only, so a confirmation for a
+     * rolled-back insert would mark an event processed that the registry never stored.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void recordRegistered(RegisteredEvent event) {
+        ingestMetrics.recordRegistered(event.getEventType(), event.getServiceName(),
+                event.getCreatedAt(), event.getRegisteredAt());
+    }
+
+    private RegisteredEvent toRegisteredEvent(EventMessage eventData, LocalDateTime processedAt) {
+        RegisteredEvent registeredEvent = new RegisteredEvent();
+        registeredEvent.setId(UUID.randomUUID());
+        registeredEvent.setOriginalEventId(eventData.getEventId());
+        registeredEvent.setEventType(eventData.getEventType());
+        registeredEvent.setServiceName(eventData.getServiceName());
+        registeredEvent.setPayload(eventData.getPayload());
+        registeredEvent.setCreatedAt(toStoredPrecision(eventData.getCreatedAt()));
+        registeredEvent.setRegisteredAt(toStoredPrecision(processedAt));
+        registeredEvent.setProcessedAt(toStoredPrecision(processedAt));
+        return registeredEvent;
+    }
+
+    /**
+     * PostgreSQL keeps microseconds and the JDBC driver rounds half up to them. Rounding the same
+     * way here stores the same values as before and keeps the in-memory event, which goes into
+     * the event cache, identical to the row.
+     */
+    private static LocalDateTime toStoredPrecision(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.plusNanos(500).truncatedTo(ChronoUnit.MICROS) : null;
+    }
+
+    private EventResponse toResponse(RegisteredEvent savedEvent) {
+        EventResponse response = new EventResponse();
+        response.setOriginalEventId(savedEvent.getOriginalEventId());
+        response.setRegisteredEventId(savedEvent.getId());
+        response.setStatus("PROCESSED");
+        response.setProcessedAt(savedEvent.getProcessedAt());
+        response.setRegistryServiceName("event-registry");
+        return response;
+    }
 
-        public UUID getEventId() { return eventId; }
-        public void setEventId(UUID eventId) { this.eventId = eventId; }
-        public String getEventType() { return eventType; }
-        public void setEventType(String eventType) { this.eventType = eventType; }
-        public String getServiceName() { return serviceName; }
-        public void setServiceName(String serviceName) { this.serviceName = serviceName; }
-        public String getPayload() { return payload; }
-        public void setPayload(String payload) { this.payload = payload; }
-        public LocalDateTime getCreatedAt() { return createdAt; }
-        public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    private record KeyedEvent(String key, EventMessage data, ConsumerRecord<String, byte[]> record) {
     }
 
-    public Page<RegisteredEvent> getEventsWithFilters(
+    /**
+     * @param view {@link RegisteredEvent}, or {@link RegisteredEventSummary} to leave the payload unread
+     */
+    @Transactional(readOnly = true)
+    public <T> Page<T> getEventsWithFilters(
+            Class<T> view,
             Pageable pageable,
             LocalDateTime startDate,
             LocalDateTime endDate,
@@ -104,31 +531,213 @@ public class EventProcessingService {
             String serviceName) {
 
         return eventRepository.findWithFilters(
-                pageable, startDate, endDate, eventType, serviceName
+                view, pageable, startDate, endDate, eventType, serviceName
         );
     }
 
-    public long getTotalRegisteredEvents() {
-        return eventRepository.count();
+    /**
+     * Keyset pagination over createdAt. One extra row is fetched to know whether another
+     * page follows; a total is only computed when {@code totalMode} is given.
+     *
+     * @param cursor token from a previous page, which also fixes the direction; null for the first page
+     */
+    @Transactional(readOnly = true)
+    public <T> CursorPage<T> getEventsAfterCursor(
+            Class<T> view,
+            String cursor,
+            boolean ascending,
+            int pageSize,
+            TotalMode totalMode,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName) {
+
+        EventCursor after = cursor != null ? EventCursor.decode(cursor) : null;
+        boolean direction = after != null ? after.ascending() : ascending;
+
+        List<T> rows = eventRepository.findWithFiltersAfter(
+                view, after, direction, pageSize + 1, startDate, endDate, eventType, serviceName);
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = cursorAfter(rows.get(rows.size() - 1), direction).encode();
+        }
+
+        Long total = totalMode != null ? countEvents(totalMode, startDate, endDate, eventType, serviceName) : null;
+        return new CursorPage<>(rows, nextCursor, total);
     }
 
-    public List<RegisteredEvent> getAllEvents() {
-        return eventRepository.findAll();
+    private static EventCursor cursorAfter(Object row, boolean ascending) {
+        return switch (row) {
+            case RegisteredEvent event -> new EventCursor(event.getCreatedAt(), event.getId(), ascending);
+            case RegisteredEventSummary summary -> new EventCursor(summary.createdAt(), summary.id(), ascending);
+            default -> throw new IllegalArgumentException("Unsupported event type: " + row.getClass().getName());
+        };
+    }
+
+    /**
+     * Offset page whose total is computed as {@code totalMode} says; EXACT is the plain
+     * {@link #getEventsWithFilters(Class, Pageable, LocalDateTime, LocalDateTime, String, String)}.
+     */
+    @Transactional(readOnly = true)
+    public <T> Page<T> getEventsWithFilters(
+            Class<T> view,
+            Pageable pageable,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            String eventType,
+            String serviceName,
+            TotalMode totalMode) {
+
+        if (totalMode == TotalMode.EXACT) {
+            return getEventsWithFilters(view, pageable, startDate, endDate, eventType, serviceName);
+        }
+        List<T> content = eventRepository.findPageWithFilters(
+                view, pageable, startDate, endDate, eventType, serviceName);
+        return new PageImpl<>(content, pageable, countEvents(totalMode, startDate, endDate, eventType, serviceName));
     }
 
+    private long countEvents(TotalMode totalMode, LocalDateTime startDate, LocalDateTime endDate,
+                             String eventType, String serviceName) {
+        return switch (totalMode) {
+            case EXACT -> eventRepository.countWithFilters(startDate, endDate, eventType, serviceName);
+            case CACHED -> countCache.get(new Filters(startDate, endDate, eventType, serviceName),
+                    () -> eventRepository.countWithFilters(startDate, endDate, eventType, serviceName));
+            case ESTIMATE -> eventRepository.estimateWithFilters(startDate, endDate, eventType, serviceName);
+        };
+    }
+
+    /**
+     * Totals from the counter table, which the ingest transactions keep up to date;
+     * never scans registered_events.
+     */
+    public EventCounts getEventCounts() {
+        return eventRepository.readCounters();
+    }
+
+    /**
+     * Event counts and ingest lag per bucket, read from the rollup table; the cost depends on
+     * the number of buckets in the range, not on the number of events.
+     */
+    @Transactional(readOnly = true)
+    public List<TimeseriesPoint> getTimeseries(
+            BucketSize bucketSize,
+            LocalDateTime from,
+            LocalDateTime to,
+            Set<RollupDimension> groupBy) {
+        return eventRepository.findTimeseries(bucketSize, from, to, groupBy);
+    }
+
+    @Transactional(readOnly = true)
+    public <T> List<T> getAllEvents(Class<T> view) {
+        return eventRepository.findAllBy(view);
+    }
+
+    /**
+     * Feeds every event created within the range to {@code action} in createdAt order, holding
+     * one fetch-size worth of rows at a time. The read-only transaction stays open until the
+     * last row has been handed over.
+     */
+    @Transactional(readOnly = true)
+    public void exportEvents(LocalDateTime startDate, LocalDateTime endDate, Consumer<RegisteredEvent> action) {
+        eventRepository.forEachEvent(startDate, endDate, action);
+    }
+
+    /**
+     * Single-event lookups are served from the event cache, which ingest fills as registrations
+     * commit. Misses stay on the primary, so the id in a confirmation that was just sent is
+     * always found.
+     */
     public RegisteredEvent getEventById(UUID id) {
-        return eventRepository.findById(id).orElse(null);
+        RegisteredEvent cached = eventCache.getById(id);
+        if (cached != null) {
+            return cached;
+        }
+        return cache(eventRepository.findById(id).orElse(null));
     }
 
     public RegisteredEvent getEventByOriginalId(UUID originalId) {
-        return eventRepository.findByOriginalEventId(originalId);
+        RegisteredEvent cached = eventCache.getByOriginalId(originalId);
+        if (cached != null) {
+            return cached;
+        }
+        return cache(eventRepository.findByOriginalEventId(originalId));
+    }
+
+    private RegisteredEvent cache(RegisteredEvent event) {
+        if (event != null) {
+            eventCache.putAll(List.of(event));
+        }
+        return event;
+    }
+
+    /**
+     * Up to {@code limit} events whose id contains {@code partialId}, case-insensitively.
+     * Fragments shorter than three characters match nothing.
+     */
+    @Transactional(readOnly = true)
+    public <T> List<T> searchEventsByPartialId(String partialId, int limit, Class<T> view) {
+        String fragment = partialId.trim().toLowerCase(Locale.ROOT);
+        return ID_FRAGMENT.matcher(fragment).matches()
+                ? eventRepository.findByIdFragment(fragment, limit, view)
+                : List.of();
+    }
+
+    @Transactional(readOnly = true)
+    public <T> List<T> searchEventsByPartialOriginalId(String partialOriginalId, int limit, Class<T> view) {
+        String fragment = partialOriginalId.trim().toLowerCase(Locale.ROOT);
+        return ID_FRAGMENT.matcher(fragment).matches()
+                ? eventRepository.findByOriginalIdFragment(fragment, limit, view)
+                : List.of();
+    }
+
+    /**
+     * Seeds the type and service-name dictionaries at startup, then merges in what other
+     * registry instances have registered. This instance's own registrations are added as
+     * they commit. The keys come from the counter table, which holds a row per type and
+     * service name, so a refresh never scans registered_events.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${registry.dictionary.refresh-ms:60000}",
+            fixedDelayString = "${registry.dictionary.refresh-ms:60000}")
+    public void refreshDictionaries() {
+        EventCounts counts = eventRepository.readCounters();
+        dictionaries.merge(counts.byEventType().keySet(), counts.byServiceName().keySet());
+    }
+
+    public EventDictionaries.Snapshot getEventTypeDictionary() {
+        if (!dictionaries.isSeeded()) {
+            refreshDictionaries();
+        }
+        return dictionaries.eventTypes();
+    }
+
+    public EventDictionaries.Snapshot getServiceNameDictionary() {
+        if (!dictionaries.isSeeded()) {
+            refreshDictionaries();
+        }
+        return dictionaries.serviceNames();
+    }
+
+    public Map<String, Object> getDeduplicationStats() {
+        return eventIdFilter.getStats();
+    }
+
+    public Map<String, Object> getCountCacheStats() {
+        return countCache.getStats();
+    }
+
+    public Map<String, Object> getRetryStats() {
+        return retryRouter.getStats();
     }
 
-    public List<String> getDistinctEventTypes() {
-        return eventRepository.findDistinctEventTypes();
+    public Map<String, Object> getEventCacheStats() {
+        return eventCache.getStats();
     }
 
-    public List<String> getDistinctServiceNames() {
-        return eventRepository.findDistinctServiceNames();
+    public Map<String, Object> getReplicaStats() {
+        return replicaLagMonitor.getStats();
     }
 }
\ No newline at end of file
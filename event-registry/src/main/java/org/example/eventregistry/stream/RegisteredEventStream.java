@@ -0,0 +1,268 @@
+package org.example.eventregistry.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.eventregistry.dto.RegisteredEventSummary;
+import org.example.eventregistry.entity.RegisteredEvent;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Pushes committed registrations to Server-Sent Events subscribers, filtered by event type
+ * and service name.
+ *
+ * <p>Ingest only offers events to a bounded queue per subscriber and never waits on a client.
+ * Each queue is drained by a sender task on the {@code sender} executor, at most one per
+ * subscriber at a time, so a subscriber sees events in registration order and a slow client
+ * only ever holds up its own sender. A full queue is handled by the {@link OverflowPolicy}.
+ *
+ * <p>Every instance streams the events it registers itself. Behind a load balancer a client
+ * sees the share of the partitions its instance consumes.
+ */
+@Slf4j
+public class RegisteredEventStream {
+
+    public enum OverflowPolicy {
+        /**
+         * Discards the oldest queued events; the client is sent a "dropped" event with the
+         * number it missed before the next registrations.
+         */
+        DROP_OLDEST,
+        /**
+         * Ends the stream; the client reconnects and catches up through the cursor endpoint.
+         */
+        DISCONNECT;
+
+        public static OverflowPolicy fromProperty(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Executor sender;
+    private final int queueCapacity;
+    private final int maxSubscribers;
+    private final OverflowPolicy overflowPolicy;
+    private final LongFunction<SseEmitter> emitterFactory;
+    private final long timeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // Slots are reserved before a subscriber is added and released when it is removed, so
+    // concurrent connects cannot overshoot maxSubscribers.
+    private final AtomicInteger slots = new AtomicInteger();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong disconnected = new AtomicLong();
+
+    public RegisteredEventStream(Executor sender, int queueCapacity, int maxSubscribers,
+                                 OverflowPolicy overflowPolicy, long timeoutMs) {
+        this(sender, queueCapacity, maxSubscribers, overflowPolicy, timeoutMs, SseEmitter::new);
+    }
+
+    RegisteredEventStream(Executor sender, int queueCapacity, int maxSubscribers, OverflowPolicy overflowPolicy,
+                          long timeoutMs, LongFunction<SseEmitter> emitterFactory) {
+        this.sender = sender;
+        this.queueCapacity = queueCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.overflowPolicy = overflowPolicy;
+        this.timeoutMs = timeoutMs;
+        this.emitterFactory = emitterFactory;
+    }
+
+    /**
+     * @param eventType   only events of this type; null for all
+     * @param serviceName only events of this service; null for all
+     * @param withPayload full events instead of {@link RegisteredEventSummary} rows
+     * @return the emitter to return from the handler, or null when maxSubscribers are connected
+     */
+    public SseEmitter subscribe(String eventType, String serviceName, boolean withPayload) {
+        if (!reserveSlot()) {
+            return null;
+        }
+        SseEmitter emitter = emitterFactory.apply(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, eventType, serviceName, withPayload, queueCapacity);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        log.info("📡 Stream subscriber connected. eventType: {}, serviceName: {}, subscribers: {}",
+                eventType, serviceName, subscribers.size());
+        return emitter;
+    }
+
+    private boolean reserveSlot() {
+        int taken;
+        do {
+            taken = slots.get();
+            if (taken >= maxSubscribers) {
+                return false;
+            }
+        } while (!slots.compareAndSet(taken, taken + 1));
+        return true;
+    }
+
+    /**
+     * Hands committed events to every matching subscriber; never blocks.
+     */
+    public void publish(List<RegisteredEvent> events) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            boolean queued = false;
+            for (RegisteredEvent event : events) {
+                if (subscriber.accepts(event)) {
+                    queued |= offer(subscriber, event);
+                }
+            }
+            if (queued || subscriber.overflowed.get()) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private boolean offer(Subscriber subscriber, RegisteredEvent event) {
+        if (subscriber.overflowed.get()) {
+            return false;
+        }
+        while (!subscriber.queue.offer(event)) {
+            if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                subscriber.overflowed.set(true);
+                return false;
+            }
+            if (subscriber.queue.poll() != null) {
+                subscriber.droppedSinceLastSend.incrementAndGet();
+                dropped.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keeps idle connections open through proxies and finds clients that have gone away.
+     */
+    @Scheduled(fixedDelayString = "${registry.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue.set(true);
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                if (subscriber.overflowed.get()) {
+                    disconnected.incrementAndGet();
+                    log.warn("🐢 Stream subscriber fell {} events behind, disconnecting", queueCapacity);
+                    close(subscriber);
+                    return;
+                }
+                send(subscriber);
+                subscriber.draining.set(false);
+                // Work that arrived while draining was still set could not schedule a new task.
+            } while (subscriber.hasWork() && subscriber.draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            // The client has gone away or the emitter has completed; the container completes it.
+            remove(subscriber);
+            log.debug("Stream subscriber gone: {}", e.getMessage());
+        }
+    }
+
+    private void send(Subscriber subscriber) throws IOException {
+        SseEmitter emitter = subscriber.emitter;
+        int missed = subscriber.droppedSinceLastSend.getAndSet(0);
+        if (missed > 0) {
+            emitter.send(SseEmitter.event().name("dropped").data(Map.of("count", missed)));
+        }
+        RegisteredEvent event;
+        while ((event = subscriber.queue.poll()) != null) {
+            emitter.send(SseEmitter.event()
+                    .name("registered")
+                    .id(event.getId().toString())
+                    .data(subscriber.withPayload ? event : summaryOf(event)));
+            delivered.incrementAndGet();
+        }
+        if (subscriber.heartbeatDue.getAndSet(false)) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        subscriber.emitter.complete();
+    }
+
+    /**
+     * Frees the subscriber's slot; safe to call from every path that ends a stream.
+     */
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.decrementAndGet();
+        }
+    }
+
+    private static RegisteredEventSummary summaryOf(RegisteredEvent event) {
+        return new RegisteredEventSummary(event.getId(), event.getOriginalEventId(), event.getEventType(),
+                event.getServiceName(), event.getCreatedAt(), event.getRegisteredAt(), event.getProcessedAt());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("delivered", delivered.get());
+        stats.put("dropped", dropped.get());
+        stats.put("disconnected", disconnected.get());
+        stats.put("overflowPolicy", overflowPolicy);
+        return stats;
+    }
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        final String eventType;
+        final String serviceName;
+        final boolean withPayload;
+        final ArrayBlockingQueue<RegisteredEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean overflowed = new AtomicBoolean();
+        final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        final AtomicInteger droppedSinceLastSend = new AtomicInteger();
+
+        Subscriber(SseEmitter emitter, String eventType, String serviceName, boolean withPayload, int capacity) {
+            this.emitter = emitter;
+            this.eventType = eventType;
+            this.serviceName = serviceName;
+            this.withPayload = withPayload;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        boolean hasWork() {
+            return !queue.isEmpty() || heartbeatDue.get() || overflowed.get();
+        }
+
+        boolean accepts(RegisteredEvent event) {
+            return (eventType == null || Objects.equals(eventType, event.getEventType()))
+                    && (serviceName == null || Objects.equals(serviceName, event.getServiceName()));
+        }
+    }
+}
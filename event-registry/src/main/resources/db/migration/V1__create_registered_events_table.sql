@@ -0,0 +1,35 @@
+-- Existing databases were created by ddl-auto; every statement is a no-op for what is already there.
+CREATE TABLE IF NOT EXISTS registered_events (
+    id UUID PRIMARY KEY,
+    original_event_id UUID NOT NULL UNIQUE,
+    event_type VARCHAR(100) NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    payload TEXT,
+    created_at TIMESTAMP(6) NOT NULL,
+    registered_at TIMESTAMP(6) NOT NULL,
+    processed_at TIMESTAMP(6) NULL
+    );
+
+COMMENT ON TABLE registered_events IS 'Events registered from events.created';
+COMMENT ON COLUMN registered_events.id IS 'Registry-side identifier';
+COMMENT ON COLUMN registered_events.original_event_id IS 'Generator event id; ON CONFLICT target for idempotent inserts';
+COMMENT ON COLUMN registered_events.event_type IS 'Event type';
+COMMENT ON COLUMN registered_events.service_name IS 'Producing service';
+COMMENT ON COLUMN registered_events.payload IS 'Event payload';
+COMMENT ON COLUMN registered_events.created_at IS 'Time the event was created by the generator';
+COMMENT ON COLUMN registered_events.registered_at IS 'Time the event was registered';
+COMMENT ON COLUMN registered_events.processed_at IS 'Time the event was processed';
+
+-- GET /api/registry/events: any subset of {createdAt range, eventType, serviceName}, sorted by
+-- createdAt or registeredAt. Equality columns lead, created_at follows so the range filter and the
+-- ORDER BY are served by the same index; id keeps keyset pagination on (created_at, id) an index seek.
+CREATE INDEX IF NOT EXISTS idx_registered_events_created_at_id
+    ON registered_events (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_registered_events_type_created_at
+    ON registered_events (event_type, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_registered_events_service_created_at
+    ON registered_events (service_name, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_registered_events_type_service_created_at
+    ON registered_events (event_type, service_name, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_registered_events_registered_at
+    ON registered_events (registered_at);
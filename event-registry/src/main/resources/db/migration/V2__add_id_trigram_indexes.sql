@@ -0,0 +1,7 @@
+-- GET /api/registry/events/search?id=|originalId=<fragment>: substring match on the UUIDs' text form.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_registered_events_id_trgm
+    ON registered_events USING gin ((id::text) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_registered_events_original_event_id_trgm
+    ON registered_events USING gin ((original_event_id::text) gin_trgm_ops);
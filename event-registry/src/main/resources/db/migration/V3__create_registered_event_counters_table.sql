@@ -0,0 +1,27 @@
+-- Running totals behind GET /api/registry/stats, incremented in the ingest transaction.
+-- Each counter is split over a few shard rows so concurrent transactions rarely wait on the same row;
+-- a read sums the shards of every counter, which is a scan of a table with a few hundred rows at most.
+CREATE TABLE IF NOT EXISTS registered_event_counters (
+    counter_name VARCHAR(32) NOT NULL,
+    counter_key VARCHAR(100) NOT NULL,
+    shard SMALLINT NOT NULL,
+    value BIGINT NOT NULL,
+    PRIMARY KEY (counter_name, counter_key, shard)
+    );
+
+COMMENT ON TABLE registered_event_counters IS 'Sharded running counts of registered_events';
+COMMENT ON COLUMN registered_event_counters.counter_name IS 'total, event_type or service_name';
+COMMENT ON COLUMN registered_event_counters.counter_key IS 'Event type or service name; empty for total';
+
+-- Rows registered before the counters existed go into shard 0.
+INSERT INTO registered_event_counters (counter_name, counter_key, shard, value)
+SELECT 'total', '', 0, COUNT(*) FROM registered_events
+ON CONFLICT DO NOTHING;
+
+INSERT INTO registered_event_counters (counter_name, counter_key, shard, value)
+SELECT 'event_type', event_type, 0, COUNT(*) FROM registered_events GROUP BY event_type
+ON CONFLICT DO NOTHING;
+
+INSERT INTO registered_event_counters (counter_name, counter_key, shard, value)
+SELECT 'service_name', service_name, 0, COUNT(*) FROM registered_events GROUP BY service_name
+ON CONFLICT DO NOTHING;
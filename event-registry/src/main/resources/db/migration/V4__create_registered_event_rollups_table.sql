@@ -0,0 +1,30 @@
+-- Per-minute and per-hour event counts and ingest lag (registered_at - created_at) by type and service,
+-- upserted by the ingest transaction. GET /api/registry/analytics/timeseries reads only this table;
+-- the primary key serves its (bucket_size, bucket_start range) scans.
+CREATE TABLE IF NOT EXISTS registered_event_rollups (
+    bucket_size VARCHAR(8) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    event_count BIGINT NOT NULL,
+    lag_min_ms BIGINT NOT NULL,
+    lag_max_ms BIGINT NOT NULL,
+    lag_sum_ms BIGINT NOT NULL,
+    PRIMARY KEY (bucket_size, bucket_start, event_type, service_name)
+    );
+
+COMMENT ON TABLE registered_event_rollups IS 'Time-bucketed rollups of registered_events by created_at';
+COMMENT ON COLUMN registered_event_rollups.bucket_size IS 'minute or hour';
+COMMENT ON COLUMN registered_event_rollups.lag_sum_ms IS 'Sum of ingest lags; average is lag_sum_ms / event_count';
+
+-- Events registered before the rollups existed.
+INSERT INTO registered_event_rollups
+SELECT s.bucket_size, date_trunc(s.bucket_size, e.created_at), e.event_type, e.service_name, COUNT(*),
+       MIN(l.lag_ms), MAX(l.lag_ms), SUM(l.lag_ms)
+FROM registered_events e
+CROSS JOIN (VALUES ('minute'), ('hour')) AS s(bucket_size)
+CROSS JOIN LATERAL (
+    SELECT (EXTRACT(EPOCH FROM (e.registered_at - e.created_at)) * 1000)::BIGINT AS lag_ms
+    ) AS l
+GROUP BY s.bucket_size, date_trunc(s.bucket_size, e.created_at), e.event_type, e.service_name
+ON CONFLICT DO NOTHING;
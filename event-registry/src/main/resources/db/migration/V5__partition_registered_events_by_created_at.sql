@@ -0,0 +1,71 @@
+-- registered_events becomes range-partitioned on created_at. PostgreSQL requires the partition
+-- key in every unique constraint, so the primary key is (id, created_at) and deduplication is
+-- on (original_event_id, created_at): a redelivered event carries the createdAt it was created with.
+-- Later partitions are created, and expired ones dropped, by RegisteredEventPartitions.
+CREATE TABLE registered_events_partitioned (
+    id UUID NOT NULL,
+    original_event_id UUID NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    service_name VARCHAR(100) NOT NULL,
+    payload TEXT,
+    created_at TIMESTAMP(6) NOT NULL,
+    registered_at TIMESTAMP(6) NOT NULL,
+    processed_at TIMESTAMP(6) NULL,
+    CONSTRAINT registered_events_partitioned_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT registered_events_original_event_id_created_at_key UNIQUE (original_event_id, created_at)
+    ) PARTITION BY RANGE (created_at);
+
+-- Catches rows no range partition covers, e.g. events created far in the future.
+CREATE TABLE registered_events_default PARTITION OF registered_events_partitioned DEFAULT;
+
+-- Monthly partitions from the oldest existing event through three months ahead.
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+BEGIN
+    FOR month_start IN
+        SELECT generate_series(
+                       date_trunc('month', COALESCE((SELECT MIN(created_at) FROM registered_events), LOCALTIMESTAMP)),
+                       date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months',
+                       INTERVAL '1 month')
+    LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF registered_events_partitioned FOR VALUES FROM (%L) TO (%L)',
+                       'registered_events_p' || to_char(month_start, 'YYYYMMDD'),
+                       month_start, month_start + INTERVAL '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO registered_events_partitioned
+SELECT id, original_event_id, event_type, service_name, payload, created_at, registered_at, processed_at
+FROM registered_events;
+
+DROP TABLE registered_events;
+ALTER TABLE registered_events_partitioned RENAME TO registered_events;
+ALTER TABLE registered_events RENAME CONSTRAINT registered_events_partitioned_pkey TO registered_events_pkey;
+
+COMMENT ON TABLE registered_events IS 'Events registered from events.created, range-partitioned on created_at';
+COMMENT ON COLUMN registered_events.id IS 'Registry-side identifier';
+COMMENT ON COLUMN registered_events.original_event_id IS 'Generator event id; with created_at the ON CONFLICT target for idempotent inserts';
+COMMENT ON COLUMN registered_events.event_type IS 'Event type';
+COMMENT ON COLUMN registered_events.service_name IS 'Producing service';
+COMMENT ON COLUMN registered_events.payload IS 'Event payload';
+COMMENT ON COLUMN registered_events.created_at IS 'Time the event was created by the generator; partition key';
+COMMENT ON COLUMN registered_events.registered_at IS 'Time the event was registered';
+COMMENT ON COLUMN registered_events.processed_at IS 'Time the event was processed';
+
+-- The indexes of V1 and V2, created on every partition. Lookups by id or original_event_id alone
+-- probe each partition's unique index.
+CREATE INDEX idx_registered_events_created_at_id
+    ON registered_events (created_at, id);
+CREATE INDEX idx_registered_events_type_created_at
+    ON registered_events (event_type, created_at, id);
+CREATE INDEX idx_registered_events_service_created_at
+    ON registered_events (service_name, created_at, id);
+CREATE INDEX idx_registered_events_type_service_created_at
+    ON registered_events (event_type, service_name, created_at, id);
+CREATE INDEX idx_registered_events_registered_at
+    ON registered_events (registered_at);
+CREATE INDEX idx_registered_events_id_trgm
+    ON registered_events USING gin ((id::text) gin_trgm_ops);
+CREATE INDEX idx_registered_events_original_event_id_trgm
+    ON registered_events USING gin ((original_event_id::text) gin_trgm_ops);
@@ -0,0 +1,37 @@
+-- Retention detaches expired partitions with DETACH PARTITION ... CONCURRENTLY, which PostgreSQL
+-- refuses while the table has a default partition. Rows that landed in registered_events_default
+-- move to range partitions of their own, and the default partition goes away. From now on an
+-- insert whose created_at no partition covers fails, and the event takes the retry path.
+ALTER TABLE registered_events DETACH PARTITION registered_events_default;
+
+-- A month partition for every month the default partition held rows of. Where a month would
+-- overlap an existing partition (after switching to weekly or daily partitions), one partition
+-- per day with rows; every partition bound is at midnight, so a day never overlaps.
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+    day_start TIMESTAMP;
+BEGIN
+    FOR month_start IN
+        SELECT DISTINCT date_trunc('month', created_at) FROM registered_events_default
+    LOOP
+        BEGIN
+            EXECUTE format('CREATE TABLE %I PARTITION OF registered_events FOR VALUES FROM (%L) TO (%L)',
+                           'registered_events_p' || to_char(month_start, 'YYYYMMDD'),
+                           month_start, month_start + INTERVAL '1 month');
+        EXCEPTION WHEN invalid_object_definition OR duplicate_table THEN
+            FOR day_start IN
+                SELECT DISTINCT date_trunc('day', created_at) FROM registered_events_default
+                WHERE created_at >= month_start AND created_at < month_start + INTERVAL '1 month'
+            LOOP
+                EXECUTE format('CREATE TABLE %I PARTITION OF registered_events FOR VALUES FROM (%L) TO (%L)',
+                               'registered_events_p' || to_char(day_start, 'YYYYMMDD'),
+                               day_start, day_start + INTERVAL '1 day');
+            END LOOP;
+        END;
+    END LOOP;
+END $$;
+
+INSERT INTO registered_events SELECT * FROM registered_events_default;
+
+DROP TABLE registered_events_default;
@@ -0,0 +1,19 @@
+-- The unique constraint of the partitioned registered_events has to include created_at, so on its
+-- own it lets the same original_event_id in twice under different created_at values. Every insert
+-- first claims the id here, in the same transaction; this table is not partitioned, so the id is
+-- unique across all partitions. Retention deletes the ids of the partitions it drops.
+CREATE TABLE registered_event_ids (
+    original_event_id UUID PRIMARY KEY,
+    created_at TIMESTAMP(6) NOT NULL
+    );
+
+COMMENT ON TABLE registered_event_ids IS 'Original event ids of registered_events, unique across partitions';
+COMMENT ON COLUMN registered_event_ids.created_at IS 'created_at of the registered row; retention deletes by it';
+
+CREATE INDEX idx_registered_event_ids_created_at ON registered_event_ids (created_at);
+
+-- Should an id already be in registered_events twice, the earliest row keeps it.
+INSERT INTO registered_event_ids (original_event_id, created_at)
+SELECT original_event_id, MIN(created_at) FROM registered_events GROUP BY original_event_id;
+
+COMMENT ON COLUMN registered_events.original_event_id IS 'Generator event id; unique through registered_event_ids';
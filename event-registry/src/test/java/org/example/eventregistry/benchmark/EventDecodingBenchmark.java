@@ -0,0 +1,105 @@
+package org.example.eventregistry.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.example.eventregistry.codec.BinaryFixtures;
+import org.example.eventregistry.codec.EventMessageDecoder;
+import org.example.eventregistry.codec.WireFormat;
+import org.example.eventregistry.dto.EventMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record decoding cost of an events.created value: the old StringDeserializer +
+ * {@code readValue(String, Class)} path against {@link EventMessageDecoder} on the raw
+ * bytes, with and without Blackbird, and the binary wire format. Look at
+ * {@code gc.alloc.rate.norm} (bytes per record).
+ *
+ * <pre>
+ * mvn -pl event-registry test -DskipTests=false -Dtest=EventDecodingBenchmark -Dbenchmark.jmh=true
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventDecodingBenchmark {
+
+    private byte[] recordValue;
+    private byte[] binaryRecordValue;
+    private ObjectMapper objectMapper;
+    private EventMessageDecoder decoder;
+    private EventMessageDecoder blackbirdDecoder;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        decoder = new EventMessageDecoder(objectMapper);
+        blackbirdDecoder = new EventMessageDecoder(new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule()));
+
+        EventMessage message = new EventMessage(UUID.randomUUID(), "USER_LOGIN", "event-generator",
+                "{\"userId\":12345,\"ip\":\"192.168.1.10\",\"userAgent\":\"Mozilla/5.0\"}", LocalDateTime.now());
+        recordValue = objectMapper.writeValueAsBytes(message);
+        binaryRecordValue = BinaryFixtures.eventMessage(message);
+    }
+
+    @Benchmark
+    public EventMessage stringThenReadValue() throws Exception {
+        String json = new String(recordValue, StandardCharsets.UTF_8);
+        return objectMapper.readValue(json, EventMessage.class);
+    }
+
+    @Benchmark
+    public EventMessage bytesWithCachedReader() throws Exception {
+        return decoder.decode(recordValue, WireFormat.JSON);
+    }
+
+    @Benchmark
+    public EventMessage bytesWithCachedReaderAndBlackbird() throws Exception {
+        return blackbirdDecoder.decode(recordValue, WireFormat.JSON);
+    }
+
+    @Benchmark
+    public EventMessage binaryWireFormat() throws Exception {
+        return decoder.decode(binaryRecordValue, WireFormat.BINARY);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.jmh", matches = "true")
+    void runBenchmark() throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EventDecodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new EventDecodingBenchmark().runBenchmark();
+    }
+}
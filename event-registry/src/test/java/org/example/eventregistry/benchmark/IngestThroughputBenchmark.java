@@ -0,0 +1,123 @@
+package org.example.eventregistry.benchmark;
+
+import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.repository.RegisteredEventRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the per-record ingest path (one idempotent insert per event, one transaction each)
+ * with the batch path (one multi-row idempotent insert per poll). Every second round re-sends
+ * the same events, so the duplicate path is measured as well.
+ *
+ * Runs only against a real database:
+ * <pre>
+ * mvn -pl event-registry test -DskipTests=false -Dtest=IngestThroughputBenchmark \
+ *     -Dbenchmark.jdbc.url="jdbc:postgresql://localhost:5433/events_db?reWriteBatchedInserts=true"
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.jdbc.url", matches = ".+")
+class IngestThroughputBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 20_000);
+    private static final int BATCH_SIZE = Integer.getInteger("benchmark.batch-size", 500);
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private RegisteredEventRepositoryImpl repository;
+    private final List<UUID> insertedIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("benchmark.jdbc.url"),
+                System.getProperty("benchmark.jdbc.user", "postgres"),
+                System.getProperty("benchmark.jdbc.password", "postgres"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new RegisteredEventRepositoryImpl(jdbcTemplate);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        for (int from = 0; from < insertedIds.size(); from += BATCH_SIZE) {
+            List<UUID> chunk = insertedIds.subList(from, Math.min(from + BATCH_SIZE, insertedIds.size()));
+            for (String table : List.of("registered_events", "registered_event_ids")) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE original_event_id = ANY(?)",
+                        ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", chunk.toArray())));
+            }
+        }
+    }
+
+    @Test
+    void compareRecordAndBatchIngest() {
+        // Warm up connections and plans for both paths before measuring.
+        runPerRecord(events(1_000));
+        runBatch(events(1_000));
+
+        List<RegisteredEvent> perRecordEvents = events(EVENTS);
+        long perRecordNanos = runPerRecord(perRecordEvents);
+        long perRecordDuplicateNanos = runPerRecord(perRecordEvents);
+
+        List<RegisteredEvent> batchEvents = events(EVENTS);
+        long batchNanos = runBatch(batchEvents);
+        long batchDuplicateNanos = runBatch(batchEvents);
+
+        System.out.printf("%nIngest throughput, %d events (batch size %d)%n", EVENTS, BATCH_SIZE);
+        System.out.printf("  per-record, new:        %,10.0f events/s%n", EVENTS / (perRecordNanos / 1e9));
+        System.out.printf("  per-record, duplicates: %,10.0f events/s%n", EVENTS / (perRecordDuplicateNanos / 1e9));
+        System.out.printf("  batch, new:             %,10.0f events/s%n", EVENTS / (batchNanos / 1e9));
+        System.out.printf("  batch, duplicates:      %,10.0f events/s%n", EVENTS / (batchDuplicateNanos / 1e9));
+
+        assertTrue(repository.insertAllIfAbsent(batchEvents).isEmpty());
+    }
+
+    private long runPerRecord(List<RegisteredEvent> events) {
+        long start = System.nanoTime();
+        for (RegisteredEvent event : events) {
+            transactionTemplate.executeWithoutResult(status -> repository.insertIfAbsent(event));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long runBatch(List<RegisteredEvent> events) {
+        long start = System.nanoTime();
+        for (int from = 0; from < events.size(); from += BATCH_SIZE) {
+            List<RegisteredEvent> batch = events.subList(from, Math.min(from + BATCH_SIZE, events.size()));
+            transactionTemplate.executeWithoutResult(status -> repository.insertAllIfAbsent(batch));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private List<RegisteredEvent> events(int count) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RegisteredEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RegisteredEvent event = new RegisteredEvent();
+            event.setId(UUID.randomUUID());
+            event.setOriginalEventId(UUID.randomUUID());
+            event.setEventType("BENCHMARK_EVENT");
+            event.setServiceName("benchmark");
+            event.setPayload("Benchmark payload " + i);
+            event.setCreatedAt(now);
+            event.setRegisteredAt(now);
+            event.setProcessedAt(now);
+            events.add(event);
+            insertedIds.add(event.getOriginalEventId());
+        }
+        return events;
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.eventregistry.benchmark;
+
+import org.example.eventregistry.EventRegistryApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the registry twice, with {@code spring.threads.virtual.enabled} off (Tomcat's
+ * 200-thread pool) and on, and drives its read endpoints over HTTP with a fixed number of
+ * requests in flight: the paged listing and the partial-id search, alternately. Requests go
+ * through the real controllers, services and the application's bounded Hikari pools, so
+ * the numbers show what virtual threads change when the connection pool is the limit.
+ * Latency is measured at the client and includes time queued in Tomcat.
+ *
+ * Needs the database and broker from docker-compose.yml; other ones can be passed as
+ * {@code -Dspring.datasource.url=...} and {@code -Dspring.kafka.bootstrap-servers=...}:
+ * <pre>
+ * docker compose up -d postgres kafka
+ * mvn -pl event-registry test -DskipTests=false -Dtest=VirtualThreadRequestBenchmark \
+ *     -Dbenchmark.virtual-threads=true [-Dbenchmark.concurrency=400] [-Dbenchmark.pool-size=10]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark.virtual-threads", matches = "true")
+class VirtualThreadRequestBenchmark {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 20_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup-requests", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int POOL_SIZE = Integer.getInteger("benchmark.pool-size", 10);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        try (HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            Result platform = runAgainstBootedApp(httpClient, false);
+            Result virtual = runAgainstBootedApp(httpClient, true);
+
+            System.out.printf("%nHTTP requests: %d, %d in flight, %d connections per pool%n",
+                    REQUESTS, CONCURRENCY, POOL_SIZE);
+            print("platform (Tomcat pool)", platform);
+            print("virtual threads", virtual);
+
+            assertEquals(0, platform.failures() + virtual.failures(), "requests failed");
+            assertTrue(virtual.requestsPerSecond() > 0 && platform.requestsPerSecond() > 0);
+        }
+    }
+
+    private Result runAgainstBootedApp(HttpClient httpClient, boolean virtualThreads) throws InterruptedException {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EventRegistryApplication.class)
+                .properties(
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.port=0",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "registry.datasource.primary.maximum-pool-size=" + POOL_SIZE,
+                        "registry.datasource.replica.maximum-pool-size=" + POOL_SIZE)
+                .run()) {
+            URI base = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+
+            // Warm up so class loading, JIT and pool start-up don't skew the measured run.
+            run(httpClient, base, WARMUP_REQUESTS);
+            return run(httpClient, base, REQUESTS);
+        }
+    }
+
+    private Result run(HttpClient httpClient, URI base, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        AtomicInteger failures = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+
+        long start = System.nanoTime();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                inFlight.acquire();
+                int request = i;
+                clients.execute(() -> {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(
+                                HttpRequest.newBuilder(base.resolve(path(request))).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        latencies[request] = System.nanoTime() - sent;
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(requests / (elapsed / 1e9),
+                latencies[requests / 2] / 1e6,
+                latencies[(int) (requests * 0.99) - 1] / 1e6,
+                latencies[requests - 1] / 1e6,
+                failures.get());
+    }
+
+    private static String path(int request) {
+        if (request % 2 == 0) {
+            return "/api/registry/events?size=20&page=" + (request / 2 % 50);
+        }
+        // A different 4-digit fragment per request, so nothing can be served from a cache.
+        return "/api/registry/events/search?id=" + HexFormat.of().toHexDigits((short) request);
+    }
+
+    private void print(String label, Result result) {
+        System.out.printf("  %-24s %,10.0f req/s   p50 %8.1f ms   p99 %8.1f ms   max %8.1f ms   failed %d%n",
+                label, result.requestsPerSecond(), result.p50Millis(), result.p99Millis(), result.maxMillis(),
+                result.failures());
+    }
+
+    private record Result(double requestsPerSecond, double p50Millis, double p99Millis, double maxMillis,
+                          int failures) {
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.eventregistry.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedLfuCacheTest {
+
+    @Test
+    void put_ShouldKeepTotalWeightWithinCapAndReportEvictions() {
+        List<Integer> evicted = new ArrayList<>();
+        WeightedLfuCache<Integer, String> cache =
+                new WeightedLfuCache<>(1_000, 100, String::length, (key, value) -> evicted.add(key));
+
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "x".repeat(50));
+        }
+
+        assertTrue(cache.weight() <= 1_000);
+        assertEquals(100, cache.size() + evicted.size());
+        assertEquals(evicted.size(), cache.evictionCount());
+    }
+
+    @Test
+    void put_ScanOfOneOffKeys_ShouldNotEvictFrequentlyReadEntries() {
+        WeightedLfuCache<Integer, String> cache =
+                new WeightedLfuCache<>(10_000, 100, value -> 100, (key, value) -> { });
+
+        for (int hot = 0; hot < 50; hot++) {
+            cache.put(hot, "hot");
+        }
+        for (int round = 0; round < 5; round++) {
+            for (int hot = 0; hot < 50; hot++) {
+                assertEquals("hot", cache.get(hot));
+            }
+        }
+
+        for (int cold = 1_000; cold < 2_000; cold++) {
+            cache.put(cold, "cold");
+        }
+
+        for (int hot = 0; hot < 50; hot++) {
+            assertEquals("hot", cache.get(hot), "hot entry " + hot + " was evicted by the scan");
+        }
+    }
+
+    @Test
+    void put_NewEntryAfterMainAreaIsFull_ShouldStayReadableFromAdmissionWindow() {
+        WeightedLfuCache<Integer, String> cache =
+                new WeightedLfuCache<>(10_000, 100, value -> 100, (key, value) -> { });
+
+        for (int hot = 0; hot < 100; hot++) {
+            cache.put(hot, "hot");
+            cache.get(hot);
+        }
+
+        // Rarer than every resident entry, yet a fresh entry is kept until it leaves the window.
+        cache.put(1_000, "new");
+
+        assertEquals("new", cache.get(1_000));
+        assertTrue(cache.weight() <= 10_000);
+    }
+
+    @Test
+    void put_ValueHeavierThanCache_ShouldBeRefusedThroughEvictionCallback() {
+        List<Integer> evicted = new ArrayList<>();
+        WeightedLfuCache<Integer, String> cache =
+                new WeightedLfuCache<>(100, 10, String::length, (key, value) -> evicted.add(key));
+
+        cache.put(1, "x".repeat(500));
+
+        assertNull(cache.get(1));
+        assertEquals(List.of(1), evicted);
+        assertEquals(0, cache.weight());
+        assertEquals(1, cache.missCount());
+    }
+}
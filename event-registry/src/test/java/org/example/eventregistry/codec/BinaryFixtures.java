@@ -0,0 +1,24 @@
+package org.example.eventregistry.codec;
+
+import org.example.eventregistry.dto.EventMessage;
+
+/**
+ * Builds binary events.created values the way the generator writes them.
+ */
+public final class BinaryFixtures {
+
+    private BinaryFixtures() {
+    }
+
+    public static byte[] eventMessage(EventMessage message) {
+        CompactBinaryWriter writer = new CompactBinaryWriter(64);
+        writer.writeByte(WireFormat.BINARY_VERSION);
+        writer.writeByte(WireFormat.KIND_EVENT_MESSAGE);
+        writer.writeUuid(message.getEventId());
+        writer.writeString(message.getEventType());
+        writer.writeString(message.getServiceName());
+        writer.writeString(message.getPayload());
+        writer.writeTimestamp(message.getCreatedAt());
+        return writer.toByteArray();
+    }
+}
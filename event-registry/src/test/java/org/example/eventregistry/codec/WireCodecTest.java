@@ -0,0 +1,123 @@
+package org.example.eventregistry.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.example.eventregistry.dto.EventConfirmationBatch;
+import org.example.eventregistry.dto.EventMessage;
+import org.example.eventregistry.dto.EventResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WireCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final EventMessageDecoder decoder = new EventMessageDecoder(objectMapper);
+
+    @Test
+    void eventMessage_BinaryAndJson_ShouldDecodeToSameMessage() throws Exception {
+        EventMessage message = new EventMessage(UUID.randomUUID(), "USER_LOGIN", "event-generator",
+                "{\"user\":\"Jürgen\",\"note\":\"ünïcödé ✓\"}", LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000));
+
+        byte[] binary = BinaryFixtures.eventMessage(message);
+        byte[] json = objectMapper.writeValueAsBytes(message);
+
+        assertEquals(message, decoder.decode(binary, WireFormat.BINARY));
+        assertEquals(message, decoder.decode(json, WireFormat.JSON));
+        assertTrue(binary.length < json.length, binary.length + " >= " + json.length);
+    }
+
+    @Test
+    void eventMessage_Binary_ShouldKeepNullsAndRoundToMicros() throws Exception {
+        EventMessage message = new EventMessage(UUID.randomUUID(), null, "event-generator", null,
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_999));
+
+        EventMessage decoded = decoder.decode(BinaryFixtures.eventMessage(message), WireFormat.BINARY);
+
+        assertNull(decoded.getEventType());
+        assertNull(decoded.getPayload());
+        assertEquals(LocalDateTime.of(1970, 1, 1, 0, 0), decoded.getCreatedAt());
+    }
+
+    @Test
+    void eventMessage_BinaryWithSubMicroNanos_ShouldRoundHalfUpLikeTheStoredRow() throws Exception {
+        LocalDateTime roundsUp = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_500);
+        LocalDateTime roundsDown = LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_499);
+
+        assertEquals(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_457_000), roundTrip(roundsUp));
+        assertEquals(LocalDateTime.of(2025, 3, 1, 12, 30, 15, 123_456_000), roundTrip(roundsDown));
+    }
+
+    @Test
+    void eventMessage_BinaryWithUnknownVersionOrTruncated_ShouldFail() {
+        byte[] binary = BinaryFixtures.eventMessage(
+                new EventMessage(UUID.randomUUID(), "A", "B", "C", LocalDateTime.now()));
+
+        byte[] truncated = Arrays.copyOf(binary, binary.length - 3);
+        byte[] futureVersion = binary.clone();
+        futureVersion[0] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(truncated, WireFormat.BINARY));
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(futureVersion, WireFormat.BINARY));
+    }
+
+    @Test
+    void wireFormat_WithoutHeader_ShouldDefaultToJson() {
+        RecordHeaders headers = new RecordHeaders();
+        assertEquals(WireFormat.JSON, WireFormat.of(headers));
+
+        headers.add(WireFormat.HEADER, "binary".getBytes(StandardCharsets.UTF_8));
+        assertEquals(WireFormat.BINARY, WireFormat.of(headers));
+        assertEquals(WireFormat.BINARY, WireFormat.fromProperty("BINARY"));
+        assertThrows(IllegalArgumentException.class, () -> WireFormat.fromProperty("avro"));
+    }
+
+    @Test
+    void confirmationSerializer_Json_ShouldWriteIsoTimestampsAndHeader() {
+        ConfirmationSerializer<EventResponse> serializer = new ConfirmationSerializer<>(WireFormat.JSON, objectMapper);
+        RecordHeaders headers = new RecordHeaders();
+        EventResponse response = new EventResponse(UUID.randomUUID(), UUID.randomUUID(), "PROCESSED",
+                LocalDateTime.of(2025, 1, 1, 10, 0), "event-registry");
+
+        String json = new String(serializer.serialize("events.processed", headers, response), StandardCharsets.UTF_8);
+
+        assertTrue(json.contains("\"processedAt\":\"2025-01-01T10:00:00\""), json);
+        assertEquals(WireFormat.JSON, WireFormat.of(headers));
+    }
+
+    @Test
+    void confirmationSerializer_BinaryBatch_ShouldWriteVersionedLayout() {
+        ConfirmationSerializer<EventConfirmationBatch> serializer =
+                new ConfirmationSerializer<>(WireFormat.BINARY, objectMapper);
+        RecordHeaders headers = new RecordHeaders();
+        UUID originalId = UUID.randomUUID();
+        UUID registeredId = UUID.randomUUID();
+        LocalDateTime processedAt = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 5_000);
+        EventConfirmationBatch batch = new EventConfirmationBatch("PROCESSED", "event-registry",
+                List.of(new EventConfirmationBatch.Confirmation(originalId, registeredId, processedAt)));
+
+        byte[] value = serializer.serialize("events.processed", headers, batch);
+
+        assertEquals(WireFormat.BINARY, WireFormat.of(headers));
+        CompactBinaryReader in = new CompactBinaryReader(value);
+        assertEquals(WireFormat.KIND_CONFIRMATION_BATCH, in.readHeader(WireFormat.BINARY_VERSION));
+        assertEquals("PROCESSED", in.readString());
+        assertEquals("event-registry", in.readString());
+        assertEquals(1, in.readVarInt());
+        assertEquals(originalId, in.readUuid());
+        assertEquals(registeredId, in.readUuid());
+        assertEquals(processedAt, in.readTimestamp());
+    }
+
+    private LocalDateTime roundTrip(LocalDateTime createdAt) throws Exception {
+        EventMessage message = new EventMessage(UUID.randomUUID(), "A", "B", "C", createdAt);
+        return decoder.decode(BinaryFixtures.eventMessage(message), WireFormat.BINARY).getCreatedAt();
+    }
+}
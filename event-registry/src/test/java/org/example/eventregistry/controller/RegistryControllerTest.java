@@ -1,24 +1,43 @@
 package org.example.eventregistry.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.eventregistry.dto.CursorPage;
+import org.example.eventregistry.dto.EventCounts;
+import org.example.eventregistry.dto.RegisteredEventSummary;
+import org.example.eventregistry.dto.TimeseriesPoint;
 import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.query.BucketSize;
+import org.example.eventregistry.query.EventDictionaries;
+import org.example.eventregistry.query.RollupDimension;
+import org.example.eventregistry.query.TotalMode;
+import org.example.eventregistry.partition.RegisteredEventPartitions;
+import org.example.eventregistry.retry.DeadLetterReplayer;
 import org.example.eventregistry.service.EventProcessingService;
+import org.example.eventregistry.stream.RegisteredEventStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -30,6 +49,18 @@ class RegistryControllerTest {
     @Mock
     private EventProcessingService eventService;
 
+    @Mock
+    private DeadLetterReplayer deadLetterReplayer;
+
+    @Mock
+    private RegisteredEventStream eventStream;
+
+    @Mock
+    private RegisteredEventPartitions partitions;
+
+    @Spy
+    private ObjectMapper jacksonObjectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     @InjectMocks
     private RegistryController registryController;
 
@@ -37,6 +68,7 @@ class RegistryControllerTest {
     private ObjectMapper objectMapper;
 
     private RegisteredEvent testRegisteredEvent;
+    private RegisteredEventSummary testSummary;
     private UUID testEventId;
     private UUID testOriginalEventId;
 
@@ -58,10 +90,16 @@ class RegistryControllerTest {
         testRegisteredEvent.setCreatedAt(LocalDateTime.now());
         testRegisteredEvent.setRegisteredAt(LocalDateTime.now());
         testRegisteredEvent.setProcessedAt(LocalDateTime.now());
+
+        testSummary = new RegisteredEventSummary(testEventId, testOriginalEventId, "SYSTEM_EVENT", "event-generator",
+                testRegisteredEvent.getCreatedAt(), testRegisteredEvent.getRegisteredAt(),
+                testRegisteredEvent.getProcessedAt());
     }
 
     @Test
     void health_ShouldReturnHealthStatus() throws Exception {
+        when(partitions.isCovered(any())).thenReturn(true);
+
         // Act & Assert
         mockMvc.perform(get("/api/registry/health"))
                 .andExpect(status().isOk())
@@ -71,35 +109,88 @@ class RegistryControllerTest {
                 .andExpect(jsonPath("$.timestamp").exists());
     }
 
+    @Test
+    void health_WhenNoPartitionCoversNow_ShouldReturnDown() throws Exception {
+        when(partitions.isCovered(any())).thenReturn(false);
+        when(partitions.getCoveredUntil()).thenReturn(LocalDateTime.of(2025, 10, 1, 0, 0));
+
+        mockMvc.perform(get("/api/registry/health"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("DOWN"))
+                .andExpect(jsonPath("$.partitionsCoveredUntil").exists());
+    }
+
     @Test
     void getStats_ShouldReturnStatistics() throws Exception {
 
-        when(eventService.getTotalRegisteredEvents()).thenReturn(15L);
+        when(eventService.getEventCounts()).thenReturn(new EventCounts(15L,
+                Map.of("SYSTEM_EVENT", 10L, "USER_LOGIN", 5L), Map.of("event-generator", 15L)));
 
         mockMvc.perform(get("/api/registry/stats"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.serviceName").value("event-registry"))
                 .andExpect(jsonPath("$.totalRegisteredEvents").value(15))
+                .andExpect(jsonPath("$.byEventType.USER_LOGIN").value(5))
+                .andExpect(jsonPath("$.byServiceName['event-generator']").value(15))
                 .andExpect(jsonPath("$.status").value("ACTIVE"))
                 .andExpect(jsonPath("$.timestamp").exists());
 
-        verify(eventService).getTotalRegisteredEvents();
+        verify(eventService).getEventCounts();
+    }
+
+    @Test
+    void getEventsWithFilters_WithCursorPagination_ShouldReturnNextCursorWithoutCount() throws Exception {
+
+        when(eventService.getEventsAfterCursor(RegisteredEventSummary.class, null, false, 20, null, null, null, null, null))
+                .thenReturn(new CursorPage<>(List.of(testSummary), "next-token", null));
+
+        mockMvc.perform(get("/api/registry/events").param("pagination", "cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(testEventId.toString()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next-token"))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+
+        verify(eventService, never()).getEventsWithFilters(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getEventsWithFilters_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+
+        when(eventService.getEventsAfterCursor(any(), eq("garbage"), anyBoolean(), anyInt(), any(),
+                any(), any(), any(), any())).thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+        mockMvc.perform(get("/api/registry/events").param("cursor", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void replayDeadLetters_ShouldReplayUpToLimit() throws Exception {
+
+        when(deadLetterReplayer.replay(50)).thenReturn(7);
+
+        mockMvc.perform(post("/api/registry/dlt/replay").param("limit", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.replayed").value(7));
+
+        verify(deadLetterReplayer).replay(50);
     }
 
     @Test
     void getEventsWithFilters_WithDefaultParameters_ShouldReturnPaginatedEvents() throws Exception {
-        List<RegisteredEvent> events = Arrays.asList(testRegisteredEvent);
-        Page<RegisteredEvent> page = new PageImpl<>(events, PageRequest.of(0, 20), 1);
+        Page<RegisteredEventSummary> page = new PageImpl<>(List.of(testSummary), PageRequest.of(0, 20), 1);
 
         when(eventService.getEventsWithFilters(
+                eq(RegisteredEventSummary.class),
                 any(Pageable.class),
-                eq(null), eq(null), eq(null), eq(null))
+                eq(null), eq(null), eq(null), eq(null), eq(TotalMode.EXACT))
         ).thenReturn(page);
 
         mockMvc.perform(get("/api/registry/events"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id").value(testEventId.toString()))
                 .andExpect(jsonPath("$.content[0].originalEventId").value(testOriginalEventId.toString()))
+                .andExpect(jsonPath("$.content[0].payload").doesNotExist())
                 .andExpect(jsonPath("$.currentPage").value(0))
                 .andExpect(jsonPath("$.totalItems").value(1))
                 .andExpect(jsonPath("$.totalPages").value(1))
@@ -110,22 +201,64 @@ class RegistryControllerTest {
                 .andExpect(jsonPath("$.filters.direction").value("DESC"));
 
         verify(eventService).getEventsWithFilters(
+                eq(RegisteredEventSummary.class),
                 any(Pageable.class),
-                eq(null), eq(null), eq(null), eq(null));
+                eq(null), eq(null), eq(null), eq(null), eq(TotalMode.EXACT));
     }
 
     @Test
-    void getAllEvents_ShouldReturnAllEvents() throws Exception {
+    void getEventsWithFilters_WithEstimateTotalMode_ShouldReportTheMode() throws Exception {
+        Page<RegisteredEventSummary> page = new PageImpl<>(List.of(testSummary), PageRequest.of(0, 20), 5_000);
+
+        when(eventService.getEventsWithFilters(eq(RegisteredEventSummary.class), any(Pageable.class), any(), any(), any(), any(), eq(TotalMode.ESTIMATE)))
+                .thenReturn(page);
 
-        List<RegisteredEvent> events = Arrays.asList(testRegisteredEvent);
-        when(eventService.getAllEvents()).thenReturn(events);
+        mockMvc.perform(get("/api/registry/events").param("totalMode", "estimate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(5000))
+                .andExpect(jsonPath("$.totalMode").value("estimate"));
+    }
+
+    @Test
+    void getEventsWithFilters_WithUnknownTotalMode_ShouldReturnBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/registry/events").param("totalMode", "guess"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void getEventsWithFilters_WithUnindexedSort_ShouldReturnBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/registry/events").param("sort", "payload"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
+    }
+
+    @Test
+    void getAllEvents_ShouldReturnSummariesWithoutPayload() throws Exception {
+
+        when(eventService.getAllEvents(RegisteredEventSummary.class)).thenReturn(List.of(testSummary));
 
         mockMvc.perform(get("/api/registry/events/all"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(testEventId.toString()))
-                .andExpect(jsonPath("$[0].originalEventId").value(testOriginalEventId.toString()));
+                .andExpect(jsonPath("$[0].originalEventId").value(testOriginalEventId.toString()))
+                .andExpect(jsonPath("$[0].payload").doesNotExist());
+
+        verify(eventService, never()).getAllEvents(RegisteredEvent.class);
+    }
+
+    @Test
+    void getAllEvents_WithIncludePayload_ShouldReturnFullEvents() throws Exception {
+
+        when(eventService.getAllEvents(RegisteredEvent.class)).thenReturn(List.of(testRegisteredEvent));
 
-        verify(eventService).getAllEvents();
+        mockMvc.perform(get("/api/registry/events/all").param("include", "payload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].payload").value("Test payload"));
     }
 
     @Test
@@ -136,11 +269,45 @@ class RegistryControllerTest {
         mockMvc.perform(get("/api/registry/events/{id}", testEventId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(testEventId.toString()))
-                .andExpect(jsonPath("$.originalEventId").value(testOriginalEventId.toString()));
+                .andExpect(jsonPath("$.originalEventId").value(testOriginalEventId.toString()))
+                .andExpect(header().string("ETag", "\"" + testEventId + "\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
 
         verify(eventService).getEventById(testEventId);
     }
 
+    @Test
+    void getEventByOriginalId_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+
+        when(eventService.getEventByOriginalId(testOriginalEventId)).thenReturn(testRegisteredEvent);
+
+        mockMvc.perform(get("/api/registry/events/original/{originalId}", testOriginalEventId)
+                        .header("If-None-Match", "\"" + testEventId + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void streamEvents_ShouldSubscribeWithFiltersAndStartAsyncResponse() throws Exception {
+
+        when(eventStream.subscribe("SYSTEM_EVENT", null, false)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/registry/events/stream").param("eventType", "SYSTEM_EVENT"))
+                .andExpect(request().asyncStarted());
+
+        verify(eventStream).subscribe("SYSTEM_EVENT", null, false);
+        verify(eventService, never()).getEventById(any());
+    }
+
+    @Test
+    void streamEvents_WhenSubscriberLimitReached_ShouldReturnServiceUnavailable() throws Exception {
+
+        when(eventStream.subscribe(null, null, true)).thenReturn(null);
+
+        mockMvc.perform(get("/api/registry/events/stream").param("include", "payload"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     @Test
     void getEventById_WithInvalidUUID_ShouldReturnBadRequest() throws Exception {
 
@@ -180,22 +347,34 @@ class RegistryControllerTest {
     void getEventTypes_ShouldReturnDistinctEventTypes() throws Exception {
 
         List<String> eventTypes = Arrays.asList("SYSTEM_EVENT", "MANUAL_EVENT", "ERROR_EVENT");
-        when(eventService.getDistinctEventTypes()).thenReturn(eventTypes);
+        when(eventService.getEventTypeDictionary()).thenReturn(new EventDictionaries.Snapshot(eventTypes, "3-abc"));
 
         mockMvc.perform(get("/api/registry/events/types"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-abc\""))
                 .andExpect(jsonPath("$[0]").value("SYSTEM_EVENT"))
                 .andExpect(jsonPath("$[1]").value("MANUAL_EVENT"))
                 .andExpect(jsonPath("$[2]").value("ERROR_EVENT"));
 
-        verify(eventService).getDistinctEventTypes();
+        verify(eventService).getEventTypeDictionary();
+    }
+
+    @Test
+    void getEventTypes_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+
+        when(eventService.getEventTypeDictionary())
+                .thenReturn(new EventDictionaries.Snapshot(List.of("SYSTEM_EVENT"), "1-def"));
+
+        mockMvc.perform(get("/api/registry/events/types").header("If-None-Match", "\"1-def\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
     }
 
     @Test
     void getServiceNames_ShouldReturnDistinctServiceNames() throws Exception {
 
         List<String> serviceNames = Arrays.asList("event-generator", "user-service", "payment-service");
-        when(eventService.getDistinctServiceNames()).thenReturn(serviceNames);
+        when(eventService.getServiceNameDictionary()).thenReturn(new EventDictionaries.Snapshot(serviceNames, "3-123"));
 
         mockMvc.perform(get("/api/registry/events/services"))
                 .andExpect(status().isOk())
@@ -203,7 +382,42 @@ class RegistryControllerTest {
                 .andExpect(jsonPath("$[1]").value("user-service"))
                 .andExpect(jsonPath("$[2]").value("payment-service"));
 
-        verify(eventService).getDistinctServiceNames();
+        verify(eventService).getServiceNameDictionary();
+    }
+
+    @Test
+    void exportEvents_ShouldStreamOneJsonObjectPerLine() throws Exception {
+        LocalDateTime startDate = LocalDateTime.of(2025, 1, 1, 0, 0);
+        RegisteredEvent second = new RegisteredEvent();
+        second.setId(UUID.randomUUID());
+        second.setOriginalEventId(UUID.randomUUID());
+        second.setEventType("USER_LOGIN");
+        second.setServiceName("event-generator");
+        second.setCreatedAt(LocalDateTime.of(2025, 1, 2, 10, 30));
+        second.setRegisteredAt(LocalDateTime.of(2025, 1, 2, 10, 30, 1));
+
+        doAnswer(invocation -> {
+            Consumer<RegisteredEvent> action = invocation.getArgument(2);
+            action.accept(testRegisteredEvent);
+            action.accept(second);
+            return null;
+        }).when(eventService).exportEvents(eq(startDate), isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/registry/events/export")
+                        .param("startDate", "2025-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(testEventId.toString(), objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("2025-01-02T10:30:00", objectMapper.readTree(lines[1]).get("createdAt").asText());
+        verify(eventService, never()).getAllEvents(any());
     }
 
     @Test
@@ -237,27 +451,56 @@ class RegistryControllerTest {
     void searchEvents_WithInvalidUUID_ShouldReturnNotFound() throws Exception {
 
         String invalidUuid = "invalid";
-        when(eventService.getAllEvents()).thenReturn(Collections.singletonList(testRegisteredEvent));
+        when(eventService.searchEventsByPartialId(invalidUuid, 50, RegisteredEventSummary.class)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/registry/events/search")
                         .param("id", invalidUuid))
                 .andExpect(status().isNotFound());
 
-        verify(eventService).getAllEvents();
+        verify(eventService).searchEventsByPartialId(invalidUuid, 50, RegisteredEventSummary.class);
     }
 
     @Test
     void searchEvents_WithPartialIdThatMatches_ShouldReturnEvent() throws Exception {
 
         String partialId = testEventId.toString().substring(0, 8);
-        when(eventService.getAllEvents()).thenReturn(Collections.singletonList(testRegisteredEvent));
+        when(eventService.searchEventsByPartialId(partialId, 10, RegisteredEventSummary.class))
+                .thenReturn(Collections.singletonList(testSummary));
 
         mockMvc.perform(get("/api/registry/events/search")
-                        .param("id", partialId))
+                        .param("id", partialId)
+                        .param("limit", "10"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(testEventId.toString()));
 
-        verify(eventService).getAllEvents();
+        verify(eventService).searchEventsByPartialId(partialId, 10, RegisteredEventSummary.class);
+        verify(eventService, never()).getAllEvents(any());
+    }
+
+    @Test
+    void searchEvents_WithPartialOriginalId_ShouldUseIndexedSearch() throws Exception {
+
+        String partialOriginalId = testOriginalEventId.toString().substring(24);
+        when(eventService.searchEventsByPartialOriginalId(partialOriginalId, 50, RegisteredEventSummary.class))
+                .thenReturn(Collections.singletonList(testSummary));
+
+        mockMvc.perform(get("/api/registry/events/search")
+                        .param("originalId", partialOriginalId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].originalEventId").value(testOriginalEventId.toString()));
+
+        verify(eventService, never()).getAllEvents(any());
+    }
+
+    @Test
+    void searchEvents_WithLimitOutOfRange_ShouldReturnBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/registry/events/search")
+                        .param("id", "abc")
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
     }
 
     @Test
@@ -268,7 +511,7 @@ class RegistryControllerTest {
 
         verify(eventService, never()).getEventById(any());
         verify(eventService, never()).getEventByOriginalId(any());
-        verify(eventService, never()).getAllEvents();
+        verify(eventService, never()).getAllEvents(any());
     }
 
     @Test
@@ -293,14 +536,50 @@ class RegistryControllerTest {
 
         when(eventService.getEventById(nonExistentId)).thenReturn(null);
 
-        List<RegisteredEvent> allEvents = Arrays.asList(testRegisteredEvent);
-        when(eventService.getAllEvents()).thenReturn(allEvents);
+        when(eventService.searchEventsByPartialId(nonExistentId.toString(), 50, RegisteredEventSummary.class)).thenReturn(List.of());
 
         mockMvc.perform(get("/api/registry/events/search")
                         .param("id", nonExistentId.toString()))
                 .andExpect(status().isNotFound());
 
         verify(eventService).getEventById(nonExistentId);
-        verify(eventService).getAllEvents();
+        verify(eventService, never()).getAllEvents(any());
+    }
+
+    @Test
+    void getTimeseries_ShouldReadRollupsForRequestedBucketsAndDimensions() throws Exception {
+
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 2, 0, 0);
+        when(eventService.getTimeseries(BucketSize.HOUR, from, to, EnumSet.of(RollupDimension.SERVICE_NAME)))
+                .thenReturn(List.of(new TimeseriesPoint(from, null, "event-generator", 42, 5, 120, 17.5)));
+
+        mockMvc.perform(get("/api/registry/analytics/timeseries")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-01-02T00:00:00")
+                        .param("groupBy", "serviceName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucket").value("hour"))
+                .andExpect(jsonPath("$.groupBy[0]").value("serviceName"))
+                .andExpect(jsonPath("$.points[0].serviceName").value("event-generator"))
+                .andExpect(jsonPath("$.points[0].eventType").doesNotExist())
+                .andExpect(jsonPath("$.points[0].count").value(42))
+                .andExpect(jsonPath("$.points[0].lagAvgMs").value(17.5));
+    }
+
+    @Test
+    void getTimeseries_WithTooManyBucketsOrUnknownGroupBy_ShouldReturnBadRequest() throws Exception {
+
+        mockMvc.perform(get("/api/registry/analytics/timeseries")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2025-01-01T00:00:00")
+                        .param("bucket", "minute"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/registry/analytics/timeseries")
+                        .param("groupBy", "payload"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(eventService);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,120 @@
+package org.example.eventregistry.dedup;
+
+import org.example.eventregistry.dedup.OriginalEventIdFilter.Verdict;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OriginalEventIdFilterTest {
+
+    private OriginalEventIdFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new OriginalEventIdFilter(10_000, 0.01, 4);
+    }
+
+    @Test
+    void check_BeforeWarmUp_ShouldAlwaysFallThroughToDatabase() {
+        UUID id = UUID.randomUUID();
+        filter.add(id);
+
+        assertEquals(Verdict.POSSIBLE_DUPLICATE, filter.check(id));
+        assertEquals(Verdict.POSSIBLE_DUPLICATE, filter.check(UUID.randomUUID()));
+        assertEquals(0L, filter.getStats().get("lookups"));
+    }
+
+    @Test
+    void check_AfterWarmUp_ShouldClassifyIds() {
+        UUID recent = UUID.randomUUID();
+        UUID older = UUID.randomUUID();
+        filter.addToBloomFilter(older);
+        filter.add(recent);
+        filter.markWarmedUp();
+
+        assertEquals(Verdict.DUPLICATE, filter.check(recent));
+        assertEquals(Verdict.POSSIBLE_DUPLICATE, filter.check(older));
+        assertEquals(Verdict.NEW, filter.check(UUID.randomUUID()));
+
+        assertEquals(3L, filter.getStats().get("lookups"));
+        assertEquals(1L, filter.getStats().get("cacheHits"));
+        assertEquals(1L, filter.getStats().get("bloomHits"));
+        assertEquals(1L, filter.getStats().get("bloomMisses"));
+    }
+
+    @Test
+    void recentCache_ShouldEvictOldestIdsButKeepThemInBloomFilter() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            filter.add(id);
+        }
+        filter.markWarmedUp();
+
+        assertEquals(4, filter.getStats().get("recentCacheSize"));
+        for (int i = 0; i < 6; i++) {
+            assertEquals(Verdict.POSSIBLE_DUPLICATE, filter.check(ids.get(i)));
+        }
+        for (int i = 6; i < 10; i++) {
+            assertEquals(Verdict.DUPLICATE, filter.check(ids.get(i)));
+        }
+    }
+
+    @Test
+    void recentCache_ShouldStayConsistentUnderHeavyEviction() {
+        RecentIdCache cache = new RecentIdCache(64);
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            assertTrue(cache.add(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        }
+
+        assertEquals(64, cache.size());
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            assertEquals(i >= ids.size() - 64,
+                    cache.contains(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        }
+    }
+
+    @Test
+    void recordOutcomes_ShouldCountFalsePositivesAndDuplicates() {
+        filter.markWarmedUp();
+
+        filter.recordRegistered(UUID.randomUUID(), Verdict.POSSIBLE_DUPLICATE);
+        filter.recordRegistered(UUID.randomUUID(), Verdict.NEW);
+        filter.recordDuplicate(UUID.randomUUID(), Verdict.POSSIBLE_DUPLICATE);
+        filter.recordDuplicate(UUID.randomUUID(), Verdict.NEW);
+
+        assertEquals(1L, filter.getStats().get("falsePositives"));
+        assertEquals(1L, filter.getStats().get("confirmedDuplicates"));
+        assertEquals(1L, filter.getStats().get("missedDuplicates"));
+        assertEquals(4, filter.getStats().get("recentCacheSize"));
+    }
+
+    @Test
+    void bloomFilter_ShouldStayNearConfiguredFalsePositiveRate() {
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            bloomFilter.put(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            if (bloomFilter.mightContain(id.getMostSignificantBits(), id.getLeastSignificantBits())) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.eventregistry.ingest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedWorkerPoolTest {
+
+    private final KeyedWorkerPool pool = new KeyedWorkerPool(4, Thread::new);
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void forEachLane_ShouldKeepPerKeyOrder() {
+        List<String[]> items = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            items.add(new String[]{"key-" + (i % 7), String.valueOf(i)});
+        }
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+
+        pool.forEachLane(items, item -> item[0], laneItems -> laneItems.forEach(item ->
+                seen.computeIfAbsent(item[0], k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(Integer.parseInt(item[1]))));
+
+        assertEquals(7, seen.size());
+        seen.values().forEach(values -> {
+            List<Integer> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            assertEquals(sorted, values);
+        });
+        assertEquals(1_000, seen.values().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void forEachLane_ShouldProcessDifferentLanesOnDifferentThreads() {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; keys.stream().map(pool::laneFor).distinct().count() < 4; i++) {
+            keys.add("key-" + i);
+        }
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        pool.forEachLane(keys, key -> key, laneItems -> threads.add(Thread.currentThread().getName()));
+
+        assertTrue(threads.size() >= 3, "threads used: " + threads);
+    }
+
+    @Test
+    void forEachLane_ShouldRethrowLaneFailureAfterAllLanesFinish() {
+        List<String> keys = List.of("a", "b", "c", "d", "e", "f", "g", "h");
+        Set<String> processed = ConcurrentHashMap.newKeySet();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () ->
+                pool.forEachLane(keys, key -> key, laneItems -> {
+                    if (laneItems.contains("a")) {
+                        throw new IllegalStateException("lane failed");
+                    }
+                    processed.addAll(laneItems);
+                }));
+
+        assertEquals("lane failed", failure.getMessage());
+        Set<Integer> failedLane = Set.of(pool.laneFor("a"));
+        assertEquals(keys.stream().filter(key -> !failedLane.contains(pool.laneFor(key)))
+                .collect(Collectors.toSet()), processed);
+    }
+
+    @Test
+    void singleLanePool_ShouldRunOnCallerThread() {
+        KeyedWorkerPool inlinePool = new KeyedWorkerPool(1, Thread::new);
+        List<String> threads = new ArrayList<>();
+
+        inlinePool.forEachLane(List.of("a", "b"), key -> key,
+                laneItems -> threads.add(Thread.currentThread().getName()));
+
+        assertEquals(List.of(Thread.currentThread().getName()), threads);
+        inlinePool.close();
+    }
+}
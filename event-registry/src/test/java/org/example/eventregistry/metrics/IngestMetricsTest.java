@@ -0,0 +1,38 @@
+package org.example.eventregistry.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.eventregistry.codec.WireFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngestMetricsTest {
+
+    @Test
+    void dominant_ShouldPickMostFrequentValue() {
+        assertEquals("USER_EVENT", IngestMetrics.dominant(
+                List.of("SYSTEM_EVENT", "USER_EVENT", "USER_EVENT", "SYSTEM_EVENT", "USER_EVENT"), Function.identity()));
+        assertEquals("SYSTEM_EVENT", IngestMetrics.dominant(
+                List.of("SYSTEM_EVENT", "USER_EVENT"), Function.identity()));
+        assertNull(IngestMetrics.dominant(List.<String>of(), Function.identity()));
+    }
+
+    @Test
+    void decode_ShouldTagFormatIndependentlyOfDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        // Turkish lower-cases "I" to a dotless "ı", which would turn "BINARY" into "bınary".
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            new IngestMetrics(registry).decode(WireFormat.BINARY).record(() -> { });
+
+            assertEquals(1, registry.get("registry.ingest.decode").tag("format", "binary").timer().count());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.eventregistry.partition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.and;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RegisteredEventPartitionsTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 10, 16, 9, 30);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Set<String> pendingDetach = new HashSet<>();
+
+    @Test
+    void maintain_ShouldContinueFromNewestPartitionUpToPremakePeriods() throws Exception {
+        givenPartitions(
+                "registered_events_default", "DEFAULT",
+                "registered_events_p20251101", "FOR VALUES FROM ('2025-11-01 00:00:00') TO ('2025-12-01 00:00:00')",
+                "registered_events_p20251001", "FOR VALUES FROM ('2025-10-01 00:00:00') TO ('2025-11-01 00:00:00')");
+
+        new RegisteredEventPartitions(jdbcTemplate, transactionTemplate(), PartitionInterval.MONTH, 3, 0, meterRegistry).maintain(NOW);
+
+        assertEquals(List.of(
+                "CREATE TABLE IF NOT EXISTS registered_events_p20251201 PARTITION OF registered_events "
+                        + "FOR VALUES FROM ('2025-12-01T00:00') TO ('2026-01-01T00:00')",
+                "CREATE TABLE IF NOT EXISTS registered_events_p20260101 PARTITION OF registered_events "
+                        + "FOR VALUES FROM ('2026-01-01T00:00') TO ('2026-02-01T00:00')"),
+                executedStatements());
+    }
+
+    @Test
+    void maintain_WhenPartitionCannotBeCreated_ShouldCountItAndReportCoverage() throws Exception {
+        givenPartitions(
+                "registered_events_p20251001", "FOR VALUES FROM ('2025-10-01 00:00:00') TO ('2025-11-01 00:00:00')");
+        doThrow(new BadSqlGrammarException("create", "CREATE TABLE", new SQLException("permission denied")))
+                .when(jdbcTemplate).execute(contains("registered_events_p20251101"));
+
+        RegisteredEventPartitions partitions =
+                new RegisteredEventPartitions(jdbcTemplate, transactionTemplate(), PartitionInterval.MONTH, 3, 0, meterRegistry);
+        partitions.maintain(NOW);
+
+        assertEquals(1, meterRegistry.get("registry.partitions.create.failures").counter().count());
+        assertEquals(LocalDateTime.of(2025, 11, 1, 0, 0), partitions.getCoveredUntil());
+        assertTrue(partitions.isCovered(NOW));
+        assertFalse(partitions.isCovered(LocalDateTime.of(2025, 11, 1, 0, 0)));
+        assertNotNull(meterRegistry.find("registry.partitions.ahead").gauge());
+    }
+
+    @Test
+    void maintain_AfterSwitchingToWeeklyPartitions_ShouldNotOverlapExistingMonths() throws Exception {
+        givenPartitions(
+                "registered_events_p20251001", "FOR VALUES FROM ('2025-10-01 00:00:00') TO ('2025-11-01 00:00:00')");
+
+        new RegisteredEventPartitions(jdbcTemplate, transactionTemplate(), PartitionInterval.WEEK, 4, 0, meterRegistry).maintain(NOW);
+
+        // The first weekly range runs from the month's upper bound to the next Monday.
+        assertEquals(List.of(
+                "CREATE TABLE IF NOT EXISTS registered_events_p20251101 PARTITION OF registered_events "
+                        + "FOR VALUES FROM ('2025-11-01T00:00') TO ('2025-11-03T00:00')",
+                "CREATE TABLE IF NOT EXISTS registered_events_p20251103 PARTITION OF registered_events "
+                        + "FOR VALUES FROM ('2025-11-03T00:00') TO ('2025-11-10T00:00')",
+                "CREATE TABLE IF NOT EXISTS registered_events_p20251110 PARTITION OF registered_events "
+                        + "FOR VALUES FROM ('2025-11-10T00:00') TO ('2025-11-17T00:00')"),
+                executedStatements());
+    }
+
+    @Test
+    void maintain_ShouldDropOnlyPartitionsEndingBeforeRetention() throws Exception {
+        givenPartitions(
+                "registered_events_p20250701", "FOR VALUES FROM ('2025-07-01 00:00:00') TO ('2025-08-01 00:00:00')",
+                "registered_events_p20250801", "FOR VALUES FROM ('2025-08-01 00:00:00') TO ('2025-09-01 00:00:00')",
+                "registered_events_p20260201", "FOR VALUES FROM ('2026-02-01 00:00:00') TO ('2026-03-01 00:00:00')");
+
+        new RegisteredEventPartitions(jdbcTemplate, transactionTemplate(), PartitionInterval.MONTH, 3, 60, meterRegistry).maintain(NOW);
+
+        assertEquals(List.of(
+                "ALTER TABLE registered_events DETACH PARTITION registered_events_p20250701 CONCURRENTLY",
+                "DROP TABLE IF EXISTS registered_events_p20250701"),
+                executedStatements());
+    }
+
+    @Test
+    void maintain_ShouldTakeDroppedRowsOutOfDerivedTablesInTheDropTransaction() throws Exception {
+        givenPartitions(
+                "registered_events_p20250701", "FOR VALUES FROM ('2025-07-01 00:00:00') TO ('2025-08-01 00:00:00')",
+                "registered_events_p20260201", "FOR VALUES FROM ('2026-02-01 00:00:00') TO ('2026-03-01 00:00:00')");
+
+        new RegisteredEventPartitions(jdbcTemplate, transactionTemplate(), PartitionInterval.MONTH, 3, 60, meterRegistry)
+                .maintain(NOW);
+
+        InOrder inOrder = inOrder(jdbcTemplate, transactionManager);
+        inOrder.verify(jdbcTemplate).execute(contains("DETACH PARTITION registered_events_p20250701"));
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(jdbcTemplate).update(
+                and(startsWith("INSERT INTO registered_event_counters"), contains("-COUNT(*) FROM registered_events_p20250701")));
+        inOrder.verify(jdbcTemplate).update(
+                "DELETE FROM registered_event_rollups WHERE bucket_start <= (SELECT MAX(created_at) FROM registered_events_p20250701)");
+        inOrder.verify(jdbcTemplate).update(
+                "DELETE FROM registered_event_ids WHERE created_at <= (SELECT MAX(created_at) FROM registered_events_p20250701)");
+        inOrder.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS registered_events_p20250701");
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void maintain_WhenDetachWasInterrupted_ShouldFinalizeItBeforeDropping() throws Exception {
+        pendingDetach.add("registered_events_p20250701");
+        givenPartitions(
+                "registered_events_p20250701", "FOR VALUES FROM ('2025-07-01 00:00:00') TO ('2025-08-01 00:00:00')",
+                "registered_events_p20260201", "FOR VALUES FROM ('2026-02-01 00:00:00') TO ('2026-03-01 00:00:00')");
+
+        new RegisteredEventPartitions(jdbcTemplate, transactionTemplate(), PartitionInterval.MONTH, 3, 60, meterRegistry).maintain(NOW);
+
+        assertEquals(List.of(
+                "ALTER TABLE registered_events DETACH PARTITION registered_events_p20250701 FINALIZE",
+                "DROP TABLE IF EXISTS registered_events_p20250701"),
+                executedStatements());
+    }
+
+    @Test
+    void maintain_ShouldDropPartitionsLeftDetachedBeforeRetention() throws Exception {
+        givenPartitions(
+                "registered_events_p20260201", "FOR VALUES FROM ('2026-02-01 00:00:00') TO ('2026-03-01 00:00:00')");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class)))
+                .thenReturn(List.of("registered_events_p20250601", "registered_events_p20251001"));
+
+        new RegisteredEventPartitions(jdbcTemplate, transactionTemplate(), PartitionInterval.MONTH, 3, 60, meterRegistry).maintain(NOW);
+
+        assertEquals(List.of("DROP TABLE IF EXISTS registered_events_p20250601"), executedStatements());
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+
+    private void givenPartitions(String... nameAndBound) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (int i = 0; i < nameAndBound.length; i += 2) {
+                when(rs.getString(1)).thenReturn(nameAndBound[i]);
+                when(rs.getString(2)).thenReturn(nameAndBound[i + 1]);
+                when(rs.getBoolean(3)).thenReturn(pendingDetach.contains(nameAndBound[i]));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+    }
+
+    private List<String> executedStatements() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeast(0)).execute(sql.capture());
+        return sql.getAllValues();
+    }
+}
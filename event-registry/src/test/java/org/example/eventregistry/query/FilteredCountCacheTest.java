@@ -0,0 +1,64 @@
+package org.example.eventregistry.query;
+
+import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.query.FilteredCountCache.Filters;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FilteredCountCacheTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final FilteredCountCache cache = new FilteredCountCache(1_000, 2, clock::get);
+
+    @Test
+    void get_ShouldServeFromCacheUntilTtlExpires() {
+        AtomicLong queries = new AtomicLong();
+        Filters filters = new Filters(null, null, "SYSTEM_EVENT", "");
+
+        assertEquals(10, cache.get(filters, () -> 10 + queries.getAndIncrement()));
+        assertEquals(10, cache.get(new Filters(null, null, "SYSTEM_EVENT", null), () -> 10 + queries.getAndIncrement()));
+        assertEquals(1, queries.get());
+
+        clock.addAndGet(1_000_000_000L);
+        assertEquals(11, cache.get(filters, () -> 10 + queries.getAndIncrement()));
+        assertEquals(2, queries.get());
+    }
+
+    @Test
+    void onRegistered_ShouldOnlyUpdateMatchingEntries() {
+        Filters allLogins = new Filters(null, null, "USER_LOGIN", null);
+        Filters lastYear = new Filters(NOW.minusYears(1), NOW.minusMonths(6), null, null);
+        cache.get(allLogins, () -> 5);
+        cache.get(lastYear, () -> 7);
+
+        cache.onRegistered(List.of(event("USER_LOGIN", NOW), event("USER_LOGIN", NOW), event("ORDER_CREATED", NOW)));
+
+        assertEquals(7, cache.get(allLogins, () -> -1));
+        assertEquals(7, cache.get(lastYear, () -> -1));
+    }
+
+    @Test
+    void get_WhenFull_ShouldStillAnswerWithoutCaching() {
+        cache.get(new Filters(null, null, "A", null), () -> 1);
+        cache.get(new Filters(null, null, "B", null), () -> 2);
+
+        assertEquals(3, cache.get(new Filters(null, null, "C", null), () -> 3));
+        assertEquals(4, cache.get(new Filters(null, null, "C", null), () -> 4));
+        assertEquals(2, cache.getStats().get("entries"));
+    }
+
+    private RegisteredEvent event(String eventType, LocalDateTime createdAt) {
+        RegisteredEvent event = new RegisteredEvent();
+        event.setEventType(eventType);
+        event.setServiceName("event-generator");
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+}
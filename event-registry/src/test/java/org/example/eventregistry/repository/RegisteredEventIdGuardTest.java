@@ -0,0 +1,119 @@
+package org.example.eventregistry.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.eventregistry.dto.EventCounts;
+import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.partition.PartitionInterval;
+import org.example.eventregistry.partition.RegisteredEventPartitions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks on a real PostgreSQL that an original_event_id is registered once across partitions,
+ * and that dropping an expired partition takes its rows out of the counters, rollups and
+ * registered_event_ids. Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RegisteredEventIdGuardTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static RegisteredEventRepositoryImpl repository;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .table("flyway_schema_history_registry")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        repository = new RegisteredEventRepositoryImpl(jdbcTemplate);
+        for (String month : List.of("2025-01-01", "2025-02-01", "2025-03-01")) {
+            jdbcTemplate.execute("CREATE TABLE registered_events_p" + month.replace("-", "")
+                    + " PARTITION OF registered_events FOR VALUES FROM ('" + month + "') TO ('"
+                    + LocalDateTime.parse(month + "T00:00").plusMonths(1) + "')");
+        }
+    }
+
+    @Test
+    void insert_WithKnownIdAndDifferentCreatedAt_ShouldBeDuplicateInAnyPartition() {
+        RegisteredEvent first = event(UUID.randomUUID(), "GUARD_EVENT", LocalDateTime.of(2025, 3, 10, 12, 0));
+        RegisteredEvent fresh = event(UUID.randomUUID(), "GUARD_EVENT", LocalDateTime.of(2025, 3, 11, 12, 0));
+
+        assertEquals(first.getId(), repository.insertIfAbsent(first));
+        // Same id, created_at in another partition: the partitioned unique key alone would let it in.
+        assertNull(repository.insertIfAbsent(
+                event(first.getOriginalEventId(), "GUARD_EVENT", LocalDateTime.of(2025, 2, 10, 12, 0))));
+        assertEquals(Set.of(fresh.getOriginalEventId()), repository.insertAllIfAbsent(List.of(
+                event(first.getOriginalEventId(), "GUARD_EVENT", LocalDateTime.of(2025, 3, 12, 12, 0)),
+                fresh,
+                event(fresh.getOriginalEventId(), "GUARD_EVENT", LocalDateTime.of(2025, 3, 13, 12, 0)))));
+        assertThrows(DuplicateKeyException.class, () -> repository.insert(
+                event(fresh.getOriginalEventId(), "GUARD_EVENT", LocalDateTime.of(2025, 1, 10, 12, 0))));
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM registered_events WHERE event_type = 'GUARD_EVENT'", Integer.class));
+    }
+
+    @Test
+    void maintain_WhenPartitionExpires_ShouldTakeItsRowsOutOfDerivedTables() {
+        RegisteredEvent expired = event(UUID.randomUUID(), "JANUARY_EVENT", LocalDateTime.of(2025, 1, 20, 8, 0));
+        List<RegisteredEvent> retained = List.of(
+                event(UUID.randomUUID(), "FEBRUARY_EVENT", LocalDateTime.of(2025, 2, 20, 8, 0)),
+                event(UUID.randomUUID(), "FEBRUARY_EVENT", LocalDateTime.of(2025, 2, 21, 8, 0)));
+        transactionTemplate.executeWithoutResult(status -> {
+            List<RegisteredEvent> all = List.of(expired, retained.get(0), retained.get(1));
+            repository.insertAll(all);
+            repository.incrementCounters(all);
+            repository.upsertRollups(all);
+        });
+
+        // Cutoff 2025-02-13: January has expired, February has not.
+        new RegisteredEventPartitions(jdbcTemplate, transactionTemplate, PartitionInterval.MONTH, 0, 30,
+                new SimpleMeterRegistry()).maintain(LocalDateTime.of(2025, 3, 15, 0, 0));
+
+        EventCounts counts = repository.readCounters();
+        assertFalse(counts.byEventType().containsKey("JANUARY_EVENT"));
+        assertEquals(2L, counts.byEventType().get("FEBRUARY_EVENT"));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM registered_event_rollups WHERE bucket_start < ?", Integer.class,
+                Timestamp.valueOf(LocalDateTime.of(2025, 2, 1, 0, 0))));
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(event_count), 0) FROM registered_event_rollups "
+                        + "WHERE bucket_size = 'hour' AND event_type = 'FEBRUARY_EVENT'", Integer.class));
+
+        // The expired id is no longer held, so a redelivery registers it again.
+        assertNotNull(repository.insertIfAbsent(
+                event(expired.getOriginalEventId(), "JANUARY_EVENT", LocalDateTime.of(2025, 3, 1, 8, 0))));
+    }
+
+    private static RegisteredEvent event(UUID originalEventId, String eventType, LocalDateTime createdAt) {
+        return new RegisteredEvent(UUID.randomUUID(), originalEventId, eventType, "guard-test", "{}",
+                createdAt, createdAt.plusSeconds(1), null);
+    }
+}
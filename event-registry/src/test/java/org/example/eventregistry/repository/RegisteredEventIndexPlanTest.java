@@ -0,0 +1,163 @@
+package org.example.eventregistry.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the registry migrations on a real PostgreSQL and checks that every filter and sort
+ * combination accepted by {@code GET /api/registry/events}, and the partial-id search, is planned
+ * without a sequential scan, and that createdAt ranges are pruned to the partitions they cover.
+ * With {@code enable_seqscan} off the planner still picks a seq scan when no index applies, so a
+ * missing index shows up regardless of how little data the table holds. Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RegisteredEventIndexPlanTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .table("flyway_schema_history_registry")
+                .load()
+                .migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // The migration only creates partitions from the current month on.
+        jdbcTemplate.execute("CREATE TABLE registered_events_p20250101 PARTITION OF registered_events "
+                + "FOR VALUES FROM ('2025-01-01') TO ('2025-02-01')");
+        jdbcTemplate.execute("CREATE TABLE registered_events_p20250201 PARTITION OF registered_events "
+                + "FOR VALUES FROM ('2025-02-01') TO ('2025-03-01')");
+        jdbcTemplate.update("""
+                INSERT INTO registered_events
+                    (id, original_event_id, event_type, service_name, payload, created_at, registered_at)
+                SELECT gen_random_uuid(), gen_random_uuid(), 'TYPE_' || (i % 20), 'service-' || (i % 5), '{}',
+                       ? + i * INTERVAL '1 second', ? + i * INTERVAL '1 second'
+                FROM generate_series(1, 10000) AS i
+                """, Timestamp.valueOf(START), Timestamp.valueOf(START));
+        jdbcTemplate.execute("ANALYZE registered_events");
+    }
+
+    @ParameterizedTest(name = "range={0}, eventType={1}, serviceName={2}, sort={3} {4}")
+    @MethodSource("filterAndSortCombinations")
+    void listingQuery_ShouldNotFallBackToSequentialScan(
+            boolean range, boolean eventType, boolean serviceName, String sortColumn, String direction) {
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM registered_events WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (range) {
+            sql.append(" AND created_at >= ? AND created_at <= ?");
+            args.add(Timestamp.valueOf(START.plusMinutes(10)));
+            args.add(Timestamp.valueOf(START.plusMinutes(20)));
+        }
+        if (eventType) {
+            sql.append(" AND event_type = ?");
+            args.add("TYPE_3");
+        }
+        if (serviceName) {
+            sql.append(" AND service_name = ?");
+            args.add("service-3");
+        }
+        sql.append(" ORDER BY ").append(sortColumn).append(' ').append(direction).append(" LIMIT 20 OFFSET 40");
+
+        assertNoSequentialScan(sql.toString(), args);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"id", "original_event_id"})
+    void idFragmentSearch_ShouldUseTrigramIndex(String column) {
+        assertNoSequentialScan(
+                "SELECT * FROM registered_events WHERE " + column + "::text LIKE '%' || ? || '%' LIMIT 50",
+                List.of("4b2e"));
+    }
+
+    @ParameterizedTest(name = "eventType={0}")
+    @ValueSource(booleans = {false, true})
+    void createdAtRangeQuery_ShouldOnlyTouchMatchingPartitions(boolean eventType) {
+        String sql = "SELECT * FROM registered_events WHERE created_at >= ? AND created_at <= ?"
+                + (eventType ? " AND event_type = ?" : "") + " ORDER BY created_at DESC LIMIT 20";
+        List<Object> args = new ArrayList<>(List.of(
+                Timestamp.valueOf(START.plusMinutes(10)), Timestamp.valueOf(START.plusMinutes(20))));
+        if (eventType) {
+            args.add("TYPE_3");
+        }
+
+        String plan = explain(sql, args);
+
+        assertTrue(plan.contains("registered_events_p20250101"), () -> sql + "\n" + plan);
+        assertFalse(plan.contains("registered_events_p20250201"), () -> sql + "\n" + plan);
+    }
+
+    private void assertNoSequentialScan(String sql, List<Object> args) {
+        String plan = explain(sql, args);
+
+        assertFalse(plan.contains("Seq Scan"), () -> sql + "\n" + plan);
+    }
+
+    private String explain(String sql, List<Object> args) {
+        List<String> planLines = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < args.size(); i++) {
+                    explain.setObject(i + 1, args.get(i));
+                }
+                List<String> lines = new ArrayList<>();
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        lines.add(rs.getString(1));
+                    }
+                }
+                return lines;
+            }
+        });
+        return String.join("\n", planLines);
+    }
+
+    /**
+     * Every subset of the three filters, for each sortable property (see RegistryController) and direction.
+     */
+    static Stream<Arguments> filterAndSortCombinations() {
+        List<Arguments> combinations = new ArrayList<>();
+        for (int mask = 0; mask < 8; mask++) {
+            for (String sortColumn : List.of("created_at", "registered_at")) {
+                for (String direction : List.of("ASC", "DESC")) {
+                    combinations.add(Arguments.of(
+                            (mask & 1) != 0, (mask & 2) != 0, (mask & 4) != 0, sortColumn, direction));
+                }
+            }
+        }
+        return combinations.stream();
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.eventregistry.retry;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeadLetterReplayerTest {
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition(RetryTopics.DLT, 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition(RetryTopics.DLT, 1);
+
+    @Mock
+    private ConsumerFactory<String, byte[]> consumerFactory;
+
+    @Mock
+    private Consumer<String, byte[]> consumer;
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private DeadLetterReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        when(consumerFactory.createConsumer(eq(DeadLetterReplayer.GROUP_ID), eq("dlt-replay"), isNull(),
+                argThat(properties -> Boolean.FALSE.equals(properties.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG)))))
+                .thenReturn(consumer);
+        replayer = new DeadLetterReplayer(consumerFactory, kafkaTemplate);
+    }
+
+    @Test
+    void replay_ShouldCommitOffsetsAfterRepublishedRecords() {
+
+        when(consumer.poll(any(Duration.class))).thenReturn(records(
+                Map.of(PARTITION_0, List.of(record(PARTITION_0, 5), record(PARTITION_0, 6)))), ConsumerRecords.empty());
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(2, replayer.replay(10));
+
+        verify(consumer).commitSync(Map.of(PARTITION_0, new OffsetAndMetadata(7)));
+        verify(consumer).close();
+        assertEquals(2L, replayer.getReplayedCount());
+    }
+
+    @Test
+    void replay_WhenSendFails_ShouldCommitNothing() {
+
+        when(consumer.poll(any(Duration.class))).thenReturn(records(Map.of(PARTITION_0, List.of(record(PARTITION_0, 5)))));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThrows(CompletionException.class, () -> replayer.replay(10));
+
+        verify(consumer, never()).commitSync();
+        verify(consumer, never()).commitSync(anyMap());
+        verify(consumer).close();
+        assertEquals(0L, replayer.getReplayedCount());
+    }
+
+    @Test
+    void replay_WhenSendFailsMidPartition_ShouldCommitOnlyUpToTheLastAcknowledgedRecord() {
+
+        when(consumer.poll(any(Duration.class))).thenReturn(records(Map.of(
+                PARTITION_0, List.of(record(PARTITION_0, 5), record(PARTITION_0, 6), record(PARTITION_0, 7)),
+                PARTITION_1, List.of(record(PARTITION_1, 3)))));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            ProducerRecord<String, byte[]> sent = invocation.getArgument(0);
+            return "offset-6".equals(sent.key())
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+                    : CompletableFuture.completedFuture(null);
+        });
+
+        assertThrows(CompletionException.class, () -> replayer.replay(10));
+
+        ArgumentCaptor<Map<TopicPartition, OffsetAndMetadata>> offsets = ArgumentCaptor.forClass(Map.class);
+        verify(consumer).commitSync(offsets.capture());
+        assertEquals(Map.of(PARTITION_0, new OffsetAndMetadata(6), PARTITION_1, new OffsetAndMetadata(4)),
+                offsets.getValue());
+        assertEquals(2L, replayer.getReplayedCount());
+    }
+
+    private ConsumerRecords<String, byte[]> records(Map<TopicPartition, List<ConsumerRecord<String, byte[]>>> records) {
+        return new ConsumerRecords<>(records, Map.of());
+    }
+
+    private ConsumerRecord<String, byte[]> record(TopicPartition partition, long offset) {
+        return new ConsumerRecord<>(partition.topic(), partition.partition(), offset, "offset-" + offset,
+                "{\"eventId\":null}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.eventregistry.retry;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.example.eventregistry.codec.WireFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IngestRetryRouterTest {
+
+    @Mock
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    @Captor
+    private ArgumentCaptor<ProducerRecord<String, byte[]>> recordCaptor;
+
+    private IngestRetryRouter router;
+
+    @BeforeEach
+    void setUp() {
+        router = new IngestRetryRouter(kafkaTemplate);
+        lenient().when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void route_WithTransientFailure_ShouldSendToFirstTierKeepingPayloadAndHeaders() {
+
+        ConsumerRecord<String, byte[]> record = record(RetryTopics.MAIN, 42);
+        record.headers().add(WireFormat.HEADER, WireFormat.BINARY.headerBytes());
+
+        long before = System.currentTimeMillis();
+        router.route(record, new QueryTimeoutException("timeout"));
+
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        ProducerRecord<String, byte[]> sent = recordCaptor.getValue();
+        assertEquals(RetryTopics.RETRY_1S, sent.topic());
+        assertEquals("key-1", sent.key());
+        assertArrayEquals(record.value(), sent.value());
+        assertArrayEquals(WireFormat.BINARY.headerBytes(), sent.headers().lastHeader(WireFormat.HEADER).value());
+        assertEquals("1", header(sent.headers(), IngestRetryRouter.ATTEMPT_HEADER));
+        assertEquals("events.created-0@42", header(sent.headers(), IngestRetryRouter.ORIGIN_HEADER));
+        assertTrue(Long.parseLong(header(sent.headers(), IngestRetryRouter.NOT_BEFORE_HEADER)) >= before + 1_000);
+        assertEquals(1L, router.getStats().get(RetryTopics.RETRY_1S));
+    }
+
+    @Test
+    void route_WithPoisonFailure_ShouldSendStraightToDeadLetterTopic() {
+
+        router.route(record(RetryTopics.MAIN, 7), new DataIntegrityViolationException("value too long"));
+
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        assertEquals(RetryTopics.DLT, recordCaptor.getValue().topic());
+        assertTrue(header(recordCaptor.getValue().headers(), IngestRetryRouter.EXCEPTION_HEADER)
+                .contains("value too long"));
+        assertEquals(1L, router.getStats().get(RetryTopics.DLT));
+    }
+
+    @Test
+    void retry_AfterLastTier_ShouldSendToDeadLetterTopicWithOriginalOrigin() {
+
+        ConsumerRecord<String, byte[]> record = record(RetryTopics.RETRY_60S, 3);
+        record.headers().add(IngestRetryRouter.ATTEMPT_HEADER, "3".getBytes(StandardCharsets.UTF_8));
+        record.headers().add(IngestRetryRouter.ORIGIN_HEADER, "events.created-1@99".getBytes(StandardCharsets.UTF_8));
+
+        router.retry(record, new QueryTimeoutException("timeout"));
+
+        verify(kafkaTemplate).send(recordCaptor.capture());
+        Headers headers = recordCaptor.getValue().headers();
+        assertEquals(RetryTopics.DLT, recordCaptor.getValue().topic());
+        assertEquals("events.created-1@99", header(headers, IngestRetryRouter.ORIGIN_HEADER));
+        assertEquals("3", header(headers, IngestRetryRouter.ATTEMPT_HEADER));
+        assertNull(headers.lastHeader(IngestRetryRouter.NOT_BEFORE_HEADER));
+    }
+
+    @Test
+    void route_WhenSendFails_ShouldThrowSoTheSourceOffsetIsNotCommitted() {
+
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThrows(IllegalStateException.class,
+                () -> router.route(record(RetryTopics.MAIN, 1), new QueryTimeoutException("timeout")));
+        assertEquals(0L, router.getStats().get(RetryTopics.RETRY_1S));
+    }
+
+    @Test
+    void isRetriable_ShouldFollowTheCauseChain() {
+
+        assertTrue(IngestRetryRouter.isRetriable(
+                new RuntimeException(new SQLTransientConnectionException("connection reset"))));
+        assertFalse(IngestRetryRouter.isRetriable(new IllegalArgumentException("Event has no eventId")));
+    }
+
+    @Test
+    void remainingDelayMs_ShouldBeZeroOnceDue() {
+
+        ConsumerRecord<String, byte[]> due = record(RetryTopics.RETRY_1S, 0);
+        due.headers().add(IngestRetryRouter.NOT_BEFORE_HEADER,
+                Long.toString(System.currentTimeMillis() - 1).getBytes(StandardCharsets.UTF_8));
+        ConsumerRecord<String, byte[]> waiting = record(RetryTopics.RETRY_1S, 1);
+        waiting.headers().add(IngestRetryRouter.NOT_BEFORE_HEADER,
+                Long.toString(System.currentTimeMillis() + 60_000).getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(0, router.remainingDelayMs(due));
+        assertTrue(router.remainingDelayMs(waiting) > 50_000);
+    }
+
+    private ConsumerRecord<String, byte[]> record(String topic, long offset) {
+        return new ConsumerRecord<>(topic, 0, offset, "key-1", "{\"eventId\":null}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String header(Headers headers, String key) {
+        return new String(headers.lastHeader(key).value(), StandardCharsets.UTF_8);
+    }
+}
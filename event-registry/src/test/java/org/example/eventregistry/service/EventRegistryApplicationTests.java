@@ -1,33 +1,70 @@
 package org.example.eventregistry.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.example.eventregistry.cache.RegisteredEventCache;
+import org.example.eventregistry.codec.EventMessageDecoder;
+import org.example.eventregistry.codec.WireFormat;
+import org.example.eventregistry.datasource.ReplicaLagMonitor;
+import org.example.eventregistry.dedup.OriginalEventIdFilter;
+import org.example.eventregistry.dto.CursorPage;
+import org.example.eventregistry.dto.EventConfirmationBatch;
+import org.example.eventregistry.dto.EventCounts;
+import org.example.eventregistry.dto.EventCursor;
+import org.example.eventregistry.dto.EventMessage;
 import org.example.eventregistry.dto.EventResponse;
+import org.example.eventregistry.dto.RegisteredEventSummary;
 import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.ingest.KeyedWorkerPool;
+import org.example.eventregistry.metrics.IngestMetrics;
+import org.example.eventregistry.query.EventDictionaries;
+import org.example.eventregistry.query.FilteredCountCache;
+import org.example.eventregistry.query.TotalMode;
 import org.example.eventregistry.repository.RegisteredEventRepository;
+import org.example.eventregistry.retry.IngestRetryRouter;
+import org.example.eventregistry.stream.RegisteredEventStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.test.util.ReflectionTestUtils;
-
-import java.lang.reflect.Constructor;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -41,9 +78,36 @@ class EventProcessingServiceTest {
     private KafkaTemplate<String, EventResponse> kafkaTemplate;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private KafkaTemplate<String, EventConfirmationBatch> confirmationBatchKafkaTemplate;
+
+    @Mock
+    private EventMessageDecoder eventMessageDecoder;
+
+    @Spy
+    private OriginalEventIdFilter eventIdFilter = new OriginalEventIdFilter(1_000, 0.01, 100);
+
+    @Spy
+    private KeyedWorkerPool ingestWorkerPool = new KeyedWorkerPool(1, Thread::new);
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private IngestRetryRouter retryRouter;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    @Mock
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Mock
+    private RegisteredEventStream eventStream;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final FilteredCountCache countCache = new FilteredCountCache(60_000, 16);
 
-    @InjectMocks
     private EventProcessingService eventProcessingService;
 
     @Captor
@@ -53,30 +117,36 @@ class EventProcessingServiceTest {
     private ArgumentCaptor<EventResponse> responseCaptor;
 
     private RegisteredEvent testRegisteredEvent;
+    private final RegisteredEventCache eventCache = new RegisteredEventCache(1 << 20);
+
     private UUID testEventId;
     private UUID testRegisteredEventId;
     private LocalDateTime testCreatedAt;
-    private Object testEventData;
-    private Class<?> eventDataClass;
+    private EventMessage testEventData;
 
     @BeforeEach
     void setUp() throws Exception {
+        // Built by hand: @InjectMocks cannot tell the two KafkaTemplate mocks apart.
+        eventProcessingService = new EventProcessingService(eventRepository, kafkaTemplate,
+                confirmationBatchKafkaTemplate, eventMessageDecoder, eventIdFilter, ingestWorkerPool, transactionTemplate,
+                retryRouter, new IngestMetrics(meterRegistry), countCache, new EventDictionaries(), replicaLagMonitor,
+                eventCache, eventStream);
+
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(new SimpleTransactionStatus());
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(kafkaTemplate.send(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        lenient().when(confirmationBatchKafkaTemplate.send(anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
         testEventId = UUID.randomUUID();
         testRegisteredEventId = UUID.randomUUID();
-        testCreatedAt = LocalDateTime.now();
+        // At the microsecond precision the database keeps.
+        testCreatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
-        eventDataClass = Class.forName(
-                "org.example.eventregistry.service.EventProcessingService$EventData");
-
-        Constructor<?> constructor = eventDataClass.getDeclaredConstructor();
-        constructor.setAccessible(true);
-        testEventData = constructor.newInstance();
-
-        ReflectionTestUtils.setField(testEventData, "eventId", testEventId);
-        ReflectionTestUtils.setField(testEventData, "eventType", "SYSTEM_EVENT");
-        ReflectionTestUtils.setField(testEventData, "serviceName", "event-generator");
-        ReflectionTestUtils.setField(testEventData, "payload", "Test payload");
-        ReflectionTestUtils.setField(testEventData, "createdAt", testCreatedAt);
+        testEventData = new EventMessage(testEventId, "SYSTEM_EVENT", "event-generator", "Test payload", testCreatedAt);
 
         testRegisteredEvent = new RegisteredEvent();
         testRegisteredEvent.setId(testRegisteredEventId);
@@ -95,17 +165,17 @@ class EventProcessingServiceTest {
                 "\"serviceName\":\"event-generator\",\"payload\":\"Test payload\"," +
                 "\"createdAt\":\"" + testCreatedAt + "\"}";
 
-        when(objectMapper.readValue(eq(eventJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
                 .thenAnswer(invocation -> testEventData);
 
-        when(eventRepository.findByOriginalEventId(testEventId)).thenReturn(null);
-        when(eventRepository.save(any(RegisteredEvent.class))).thenReturn(testRegisteredEvent);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
 
-        eventProcessingService.processEvent(eventJson);
+        eventProcessingService.processEvent(record(0, eventJson));
 
-        verify(objectMapper).readValue(eq(eventJson), eq(eventDataClass));
-        verify(eventRepository).findByOriginalEventId(testEventId);
-        verify(eventRepository).save(eventCaptor.capture());
+        verify(eventMessageDecoder).decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON));
+        verify(eventRepository).insertIfAbsent(eventCaptor.capture());
+        verify(eventRepository, never()).findByOriginalEventId(any());
+        verify(eventRepository, never()).save(any());
         verify(kafkaTemplate).send(eq("events.processed"), responseCaptor.capture());
 
         RegisteredEvent savedEvent = eventCaptor.getValue();
@@ -117,9 +187,11 @@ class EventProcessingServiceTest {
         assertEquals(testCreatedAt, savedEvent.getCreatedAt());
         assertNotNull(savedEvent.getProcessedAt());
 
+        assertNotNull(savedEvent.getId());
+
         EventResponse response = responseCaptor.getValue();
         assertEquals(testEventId, response.getOriginalEventId());
-        assertEquals(testRegisteredEventId, response.getRegisteredEventId());
+        assertEquals(savedEvent.getId(), response.getRegisteredEventId());
         assertEquals("PROCESSED", response.getStatus());
         assertNotNull(response.getProcessedAt());
         assertEquals("event-registry", response.getRegistryServiceName());
@@ -130,16 +202,18 @@ class EventProcessingServiceTest {
 
         String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
 
-        when(objectMapper.readValue(eq(eventJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
                 .thenAnswer(invocation -> testEventData);
 
-        when(eventRepository.findByOriginalEventId(testEventId)).thenReturn(testRegisteredEvent);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(null);
 
-        eventProcessingService.processEvent(eventJson);
+        eventProcessingService.processEvent(record(0, eventJson));
 
-        verify(objectMapper).readValue(eq(eventJson), eq(eventDataClass));
-        verify(eventRepository).findByOriginalEventId(testEventId);
-        verify(eventRepository, never()).save(any());
+        verify(eventMessageDecoder).decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON));
+        verify(eventRepository).insertIfAbsent(any(RegisteredEvent.class));
+        verify(eventRepository, never()).findByOriginalEventId(any());
+        verify(eventRepository, never()).incrementCounters(any());
+        verify(eventRepository, never()).upsertRollups(any());
         verify(kafkaTemplate, never()).send(any(), any());
     }
 
@@ -148,35 +222,36 @@ class EventProcessingServiceTest {
 
         String invalidJson = "invalid-json";
 
-        when(objectMapper.readValue(eq(invalidJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(invalidJson)), eq(WireFormat.JSON)))
                 .thenThrow(new com.fasterxml.jackson.core.JsonParseException(null, "Invalid JSON"));
 
-        eventProcessingService.processEvent(invalidJson);
+        eventProcessingService.processEvent(record(0, invalidJson));
 
-        verify(objectMapper).readValue(eq(invalidJson), eq(eventDataClass));
-        verify(eventRepository, never()).findByOriginalEventId(any());
-        verify(eventRepository, never()).save(any());
+        verify(eventMessageDecoder).decode(aryEq(bytes(invalidJson)), eq(WireFormat.JSON));
+        verify(eventRepository, never()).insertIfAbsent(any());
         verify(kafkaTemplate, never()).send(any(), any());
+        verify(retryRouter).deadLetter(any(), any(com.fasterxml.jackson.core.JsonParseException.class));
+        verify(retryRouter, never()).route(any(), any());
     }
 
     @Test
-    void processEvent_WhenDatabaseError_ShouldLogError() throws Exception {
+    void processEvent_WhenDatabaseError_ShouldRouteToRetry() throws Exception {
 
         String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
 
-        when(objectMapper.readValue(eq(eventJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
                 .thenAnswer(invocation -> testEventData);
 
-        when(eventRepository.findByOriginalEventId(testEventId)).thenReturn(null);
-        when(eventRepository.save(any(RegisteredEvent.class)))
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class)))
                 .thenThrow(new RuntimeException("Database error"));
 
-        eventProcessingService.processEvent(eventJson);
+        eventProcessingService.processEvent(record(0, eventJson));
 
-        verify(objectMapper).readValue(eq(eventJson), eq(eventDataClass));
-        verify(eventRepository).findByOriginalEventId(testEventId);
-        verify(eventRepository).save(any());
+        verify(eventMessageDecoder).decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON));
+        verify(eventRepository).insertIfAbsent(any());
         verify(kafkaTemplate, never()).send(any(), any());
+        verify(retryRouter).route(any(), any(RuntimeException.class));
+        verify(eventIdFilter, never()).recordRegistered(any(), any());
     }
 
     @Test
@@ -184,19 +259,17 @@ class EventProcessingServiceTest {
 
         String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
 
-        when(objectMapper.readValue(eq(eventJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
                 .thenAnswer(invocation -> testEventData);
 
-        when(eventRepository.findByOriginalEventId(testEventId)).thenReturn(null);
-        when(eventRepository.save(any(RegisteredEvent.class))).thenReturn(testRegisteredEvent);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
 
         doThrow(new RuntimeException("Kafka error")).when(kafkaTemplate).send(eq("events.processed"), any());
 
-        eventProcessingService.processEvent(eventJson);
+        eventProcessingService.processEvent(record(0, eventJson));
 
-        verify(objectMapper).readValue(eq(eventJson), eq(eventDataClass));
-        verify(eventRepository).findByOriginalEventId(testEventId);
-        verify(eventRepository).save(any());
+        verify(eventMessageDecoder).decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON));
+        verify(eventRepository).insertIfAbsent(any());
         verify(kafkaTemplate).send(eq("events.processed"), any());
     }
 
@@ -205,24 +278,17 @@ class EventProcessingServiceTest {
 
         String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
 
-        Constructor<?> constructor = eventDataClass.getDeclaredConstructor();
-        constructor.setAccessible(true);
-        Object eventDataWithNullPayload = constructor.newInstance();
-        ReflectionTestUtils.setField(eventDataWithNullPayload, "eventId", testEventId);
-        ReflectionTestUtils.setField(eventDataWithNullPayload, "eventType", "SYSTEM_EVENT");
-        ReflectionTestUtils.setField(eventDataWithNullPayload, "serviceName", "event-generator");
-        ReflectionTestUtils.setField(eventDataWithNullPayload, "payload", null);
-        ReflectionTestUtils.setField(eventDataWithNullPayload, "createdAt", testCreatedAt);
+        EventMessage eventDataWithNullPayload = new EventMessage(
+                testEventId, "SYSTEM_EVENT", "event-generator", null, testCreatedAt);
 
-        when(objectMapper.readValue(eq(eventJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
                 .thenAnswer(invocation -> eventDataWithNullPayload);
 
-        when(eventRepository.findByOriginalEventId(testEventId)).thenReturn(null);
-        when(eventRepository.save(any(RegisteredEvent.class))).thenReturn(testRegisteredEvent);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
 
-        eventProcessingService.processEvent(eventJson);
+        eventProcessingService.processEvent(record(0, eventJson));
 
-        verify(eventRepository).save(eventCaptor.capture());
+        verify(eventRepository).insertIfAbsent(eventCaptor.capture());
         RegisteredEvent savedEvent = eventCaptor.getValue();
         assertNull(savedEvent.getPayload());
     }
@@ -232,24 +298,17 @@ class EventProcessingServiceTest {
 
         String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
 
-        Constructor<?> constructor = eventDataClass.getDeclaredConstructor();
-        constructor.setAccessible(true);
-        Object eventDataWithNullCreatedAt = constructor.newInstance();
-        ReflectionTestUtils.setField(eventDataWithNullCreatedAt, "eventId", testEventId);
-        ReflectionTestUtils.setField(eventDataWithNullCreatedAt, "eventType", "SYSTEM_EVENT");
-        ReflectionTestUtils.setField(eventDataWithNullCreatedAt, "serviceName", "event-generator");
-        ReflectionTestUtils.setField(eventDataWithNullCreatedAt, "payload", "Test payload");
-        ReflectionTestUtils.setField(eventDataWithNullCreatedAt, "createdAt", null);
+        EventMessage eventDataWithNullCreatedAt = new EventMessage(
+                testEventId, "SYSTEM_EVENT", "event-generator", "Test payload", null);
 
-        when(objectMapper.readValue(eq(eventJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
                 .thenAnswer(invocation -> eventDataWithNullCreatedAt);
 
-        when(eventRepository.findByOriginalEventId(testEventId)).thenReturn(null);
-        when(eventRepository.save(any(RegisteredEvent.class))).thenReturn(testRegisteredEvent);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
 
-        eventProcessingService.processEvent(eventJson);
+        eventProcessingService.processEvent(record(0, eventJson));
 
-        verify(eventRepository).save(eventCaptor.capture());
+        verify(eventRepository).insertIfAbsent(eventCaptor.capture());
         RegisteredEvent savedEvent = eventCaptor.getValue();
         assertNull(savedEvent.getCreatedAt());
     }
@@ -264,16 +323,91 @@ class EventProcessingServiceTest {
         String serviceName = "event-generator";
 
         Page<RegisteredEvent> expectedPage = new PageImpl<>(Arrays.asList(testRegisteredEvent));
-        when(eventRepository.findWithFilters(pageable, startDate, endDate, eventType, serviceName))
+        when(eventRepository.findWithFilters(RegisteredEvent.class, pageable, startDate, endDate, eventType, serviceName))
                 .thenReturn(expectedPage);
 
         Page<RegisteredEvent> result = eventProcessingService.getEventsWithFilters(
-                pageable, startDate, endDate, eventType, serviceName);
+                RegisteredEvent.class, pageable, startDate, endDate, eventType, serviceName);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals(testRegisteredEvent, result.getContent().get(0));
-        verify(eventRepository).findWithFilters(pageable, startDate, endDate, eventType, serviceName);
+        verify(eventRepository).findWithFilters(RegisteredEvent.class, pageable, startDate, endDate, eventType, serviceName);
+    }
+
+    @Test
+    void getEventsAfterCursor_ShouldFetchOneExtraRowAndEncodeTheLastServedRow() {
+
+        RegisteredEventSummary first = summaryAt(testCreatedAt.plusSeconds(2));
+        RegisteredEventSummary second = summaryAt(testCreatedAt.plusSeconds(1));
+        RegisteredEventSummary third = summaryAt(testCreatedAt);
+        when(eventRepository.findWithFiltersAfter(
+                RegisteredEventSummary.class, null, false, 3, null, null, "SYSTEM_EVENT", null))
+                .thenReturn(List.of(first, second, third));
+
+        CursorPage<RegisteredEventSummary> page = eventProcessingService.getEventsAfterCursor(
+                RegisteredEventSummary.class, null, false, 2, null, null, null, "SYSTEM_EVENT", null);
+
+        assertEquals(List.of(first, second), page.content());
+        assertTrue(page.hasNext());
+        assertNull(page.total());
+        assertEquals(new EventCursor(second.createdAt(), second.id(), false),
+                EventCursor.decode(page.nextCursor()));
+        verify(eventRepository, never()).countWithFilters(any(), any(), any(), any());
+    }
+
+    @Test
+    void getEventsAfterCursor_WithCursor_ShouldSeekInTheCursorDirectionAndCountOnRequest() {
+
+        EventCursor cursor = new EventCursor(testCreatedAt, UUID.randomUUID(), true);
+        RegisteredEvent last = registeredEventAt(testCreatedAt.plusSeconds(1));
+        when(eventRepository.findWithFiltersAfter(RegisteredEvent.class, cursor, true, 11, null, null, null, null))
+                .thenReturn(List.of(last));
+        when(eventRepository.countWithFilters(null, null, null, null)).thenReturn(42L);
+
+        CursorPage<RegisteredEvent> page = eventProcessingService.getEventsAfterCursor(
+                RegisteredEvent.class, cursor.encode(), false, 10, TotalMode.EXACT, null, null, null, null);
+
+        assertEquals(List.of(last), page.content());
+        assertFalse(page.hasNext());
+        assertEquals(42L, page.total());
+    }
+
+    @Test
+    void getEventsWithFilters_WithCachedTotal_ShouldCountOnceAndApplyRegistrations() throws Exception {
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(eventRepository.findPageWithFilters(RegisteredEvent.class, pageable, null, null, "SYSTEM_EVENT", null))
+                .thenReturn(List.of(testRegisteredEvent));
+        when(eventRepository.countWithFilters(null, null, "SYSTEM_EVENT", null)).thenReturn(41L);
+
+        assertEquals(41, eventProcessingService.getEventsWithFilters(
+                RegisteredEvent.class, pageable, null, null, "SYSTEM_EVENT", null, TotalMode.CACHED).getTotalElements());
+
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
+        eventProcessingService.processEvent(record(0, "new"));
+
+        assertEquals(42, eventProcessingService.getEventsWithFilters(
+                RegisteredEvent.class, pageable, null, null, "SYSTEM_EVENT", null, TotalMode.CACHED).getTotalElements());
+        verify(eventRepository, times(1)).countWithFilters(null, null, "SYSTEM_EVENT", null);
+        verify(eventRepository, never()).findWithFilters(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getEventsWithFilters_WithEstimatedTotal_ShouldUsePlannerEstimate() {
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(eventRepository.findPageWithFilters(RegisteredEvent.class, pageable, null, null, null, "event-generator"))
+                .thenReturn(List.of(testRegisteredEvent));
+        when(eventRepository.estimateWithFilters(null, null, null, "event-generator")).thenReturn(123_456L);
+
+        Page<RegisteredEvent> page = eventProcessingService.getEventsWithFilters(
+                RegisteredEvent.class, pageable, null, null, null, "event-generator", TotalMode.ESTIMATE);
+
+        assertEquals(123_456L, page.getTotalElements());
+        verify(eventRepository, never()).countWithFilters(any(), any(), any(), any());
     }
 
     @Test
@@ -281,40 +415,40 @@ class EventProcessingServiceTest {
 
         Pageable pageable = PageRequest.of(0, 10);
         Page<RegisteredEvent> expectedPage = new PageImpl<>(Arrays.asList(testRegisteredEvent));
-        when(eventRepository.findWithFilters(pageable, null, null, null, null))
+        when(eventRepository.findWithFilters(RegisteredEvent.class, pageable, null, null, null, null))
                 .thenReturn(expectedPage);
 
         Page<RegisteredEvent> result = eventProcessingService.getEventsWithFilters(
-                pageable, null, null, null, null);
+                RegisteredEvent.class, pageable, null, null, null, null);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
-        verify(eventRepository).findWithFilters(pageable, null, null, null, null);
+        verify(eventRepository).findWithFilters(RegisteredEvent.class, pageable, null, null, null, null);
     }
 
     @Test
-    void getTotalRegisteredEvents_ShouldReturnCount() {
+    void getEventCounts_ShouldReadCounterTableWithoutCounting() {
 
-        long expectedCount = 100L;
-        when(eventRepository.count()).thenReturn(expectedCount);
+        EventCounts expected = new EventCounts(100L, Map.of("SYSTEM_EVENT", 100L), Map.of("event-generator", 100L));
+        when(eventRepository.readCounters()).thenReturn(expected);
 
-        long result = eventProcessingService.getTotalRegisteredEvents();
+        EventCounts result = eventProcessingService.getEventCounts();
 
-        assertEquals(expectedCount, result);
-        verify(eventRepository).count();
+        assertEquals(expected, result);
+        verify(eventRepository, never()).count();
     }
 
     @Test
     void getAllEvents_ShouldReturnAllEvents() {
 
-        List<RegisteredEvent> expectedEvents = Arrays.asList(testRegisteredEvent);
-        when(eventRepository.findAll()).thenReturn(expectedEvents);
+        RegisteredEventSummary summary = new RegisteredEventSummary(testRegisteredEventId, testEventId,
+                "SYSTEM_EVENT", "event-generator", testCreatedAt, testCreatedAt, testCreatedAt);
+        when(eventRepository.findAllBy(RegisteredEventSummary.class)).thenReturn(List.of(summary));
 
-        List<RegisteredEvent> result = eventProcessingService.getAllEvents();
+        List<RegisteredEventSummary> result = eventProcessingService.getAllEvents(RegisteredEventSummary.class);
 
-        assertEquals(1, result.size());
-        assertEquals(testRegisteredEvent, result.get(0));
-        verify(eventRepository).findAll();
+        assertEquals(List.of(summary), result);
+        verify(eventRepository, never()).findAll();
     }
 
     @Test
@@ -330,6 +464,43 @@ class EventProcessingServiceTest {
         verify(eventRepository).findById(testRegisteredEventId);
     }
 
+    @Test
+    void getEventById_SecondLookup_ShouldBeServedFromCache() {
+
+        when(eventRepository.findById(testRegisteredEventId))
+                .thenReturn(Optional.of(testRegisteredEvent));
+
+        eventProcessingService.getEventById(testRegisteredEventId);
+        RegisteredEvent result = eventProcessingService.getEventById(testRegisteredEventId);
+
+        assertEquals(testRegisteredEvent, result);
+        assertEquals(testRegisteredEvent, eventProcessingService.getEventByOriginalId(testEventId));
+        verify(eventRepository, times(1)).findById(testRegisteredEventId);
+        verify(eventRepository, never()).findByOriginalEventId(any());
+    }
+
+    @Test
+    void processEvent_ShouldFillEventCacheWithStoredPrecisionAndPublishToStream() throws Exception {
+
+        LocalDateTime createdAtWithNanos = LocalDateTime.of(2025, 1, 1, 10, 0, 0, 1_999_600);
+        testEventData.setCreatedAt(createdAtWithNanos);
+        when(eventMessageDecoder.decode(any(), any())).thenReturn(testEventData);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
+
+        eventProcessingService.processEvent(record(0, "{}"));
+
+        verify(eventRepository).insertIfAbsent(eventCaptor.capture());
+        RegisteredEvent registered = eventCaptor.getValue();
+        // Rounded half up to microseconds, as the JDBC driver stores it.
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0, 0, 2_000_000), registered.getCreatedAt());
+
+        verify(eventStream).publish(List.of(registered));
+        assertEquals(registered, eventProcessingService.getEventByOriginalId(testEventId));
+        assertEquals(registered, eventProcessingService.getEventById(registered.getId()));
+        verify(eventRepository, never()).findById(any());
+        verify(eventRepository, never()).findByOriginalEventId(any());
+    }
+
     @Test
     void getEventById_WithNonExistingId_ShouldReturnNull() {
         // Arrange
@@ -368,55 +539,74 @@ class EventProcessingServiceTest {
     @Test
     void getDistinctEventTypes_ShouldReturnListOfTypes() {
 
-        List<String> expectedTypes = Arrays.asList("SYSTEM_EVENT", "USER_EVENT", "ERROR_EVENT");
-        when(eventRepository.findDistinctEventTypes()).thenReturn(expectedTypes);
+        when(eventRepository.readCounters())
+                .thenReturn(countsOf(List.of("SYSTEM_EVENT", "USER_EVENT", "ERROR_EVENT"), List.of()));
 
-        List<String> result = eventProcessingService.getDistinctEventTypes();
+        List<String> result = eventProcessingService.getEventTypeDictionary().values();
 
         assertEquals(3, result.size());
         assertTrue(result.contains("SYSTEM_EVENT"));
         assertTrue(result.contains("USER_EVENT"));
         assertTrue(result.contains("ERROR_EVENT"));
-        verify(eventRepository).findDistinctEventTypes();
+        verify(eventRepository).readCounters();
     }
 
     @Test
     void getDistinctServiceNames_ShouldReturnListOfServices() {
 
-        List<String> expectedServices = Arrays.asList("event-generator", "user-service", "auth-service");
-        when(eventRepository.findDistinctServiceNames()).thenReturn(expectedServices);
+        when(eventRepository.readCounters())
+                .thenReturn(countsOf(List.of(), List.of("event-generator", "user-service", "auth-service")));
 
-        List<String> result = eventProcessingService.getDistinctServiceNames();
+        List<String> result = eventProcessingService.getServiceNameDictionary().values();
 
         assertEquals(3, result.size());
         assertTrue(result.contains("event-generator"));
         assertTrue(result.contains("user-service"));
         assertTrue(result.contains("auth-service"));
-        verify(eventRepository).findDistinctServiceNames();
+        verify(eventRepository).readCounters();
+    }
+
+    @Test
+    void getEventTypeDictionary_ShouldQueryOnceAndPickUpNewTypesFromIngest() throws Exception {
+
+        when(eventRepository.readCounters()).thenReturn(countsOf(List.of("USER_LOGIN", "ORDER_CREATED"), List.of()));
+
+        EventDictionaries.Snapshot seeded = eventProcessingService.getEventTypeDictionary();
+        assertEquals(List.of("ORDER_CREATED", "USER_LOGIN"), seeded.values());
+        assertSame(seeded, eventProcessingService.getEventTypeDictionary());
+
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
+        eventProcessingService.processEvent(record(0, "new"));
+
+        EventDictionaries.Snapshot updated = eventProcessingService.getEventTypeDictionary();
+        assertEquals(List.of("ORDER_CREATED", "SYSTEM_EVENT", "USER_LOGIN"), updated.values());
+        assertNotEquals(seeded.etag(), updated.etag());
+        assertEquals(List.of("event-generator"), eventProcessingService.getServiceNameDictionary().values());
+        verify(eventRepository, times(1)).readCounters();
     }
 
     @Test
     void getDistinctEventTypes_WhenEmpty_ShouldReturnEmptyList() {
 
-        List<String> expectedTypes = Arrays.asList();
-        when(eventRepository.findDistinctEventTypes()).thenReturn(expectedTypes);
+        when(eventRepository.readCounters()).thenReturn(countsOf(List.of(), List.of()));
 
-        List<String> result = eventProcessingService.getDistinctEventTypes();
+        List<String> result = eventProcessingService.getEventTypeDictionary().values();
 
         assertTrue(result.isEmpty());
-        verify(eventRepository).findDistinctEventTypes();
+        verify(eventRepository).readCounters();
     }
 
     @Test
     void getDistinctServiceNames_WhenEmpty_ShouldReturnEmptyList() {
 
-        List<String> expectedServices = Arrays.asList();
-        when(eventRepository.findDistinctServiceNames()).thenReturn(expectedServices);
+        when(eventRepository.readCounters()).thenReturn(countsOf(List.of(), List.of()));
 
-        List<String> result = eventProcessingService.getDistinctServiceNames();
+        List<String> result = eventProcessingService.getServiceNameDictionary().values();
 
         assertTrue(result.isEmpty());
-        verify(eventRepository).findDistinctServiceNames();
+        verify(eventRepository).readCounters();
     }
 
     @Test
@@ -424,14 +614,418 @@ class EventProcessingServiceTest {
 
         String eventJson = "{\"invalid\":json}";
 
-        when(objectMapper.readValue(eq(eventJson), eq(eventDataClass)))
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
                 .thenThrow(new com.fasterxml.jackson.databind.JsonMappingException(null, "Invalid JSON"));
 
-        eventProcessingService.processEvent(eventJson);
+        eventProcessingService.processEvent(record(0, eventJson));
+
+        verify(eventMessageDecoder).decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON));
+        verify(eventRepository, never()).insertIfAbsent(any());
+        verify(kafkaTemplate, never()).send(any(), any());
+    }
+
+    @Test
+    void processEventBatch_ShouldInsertNewEventsInOneStatementAndConfirmOnlyInserted() throws Exception {
+
+        UUID existingEventId = UUID.randomUUID();
+        EventMessage existingEventData = newEventData(existingEventId);
+
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventMessageDecoder.decode(aryEq(bytes("existing")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> existingEventData);
+        when(eventRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of(testEventId));
+
+        eventProcessingService.processEventBatch(List.of(
+                record(0, "new"), record(1, "existing"), record(2, "new")));
 
-        verify(objectMapper).readValue(eq(eventJson), eq(eventDataClass));
         verify(eventRepository, never()).findByOriginalEventId(any());
-        verify(eventRepository, never()).save(any());
+        verify(eventRepository, never()).insertIfAbsent(any());
+
+        ArgumentCaptor<List<RegisteredEvent>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventRepository).insertAllIfAbsent(batchCaptor.capture());
+        List<RegisteredEvent> candidates = batchCaptor.getValue();
+        assertEquals(2, candidates.size());
+        assertEquals(testEventId, candidates.get(0).getOriginalEventId());
+        assertEquals(existingEventId, candidates.get(1).getOriginalEventId());
+        assertNotNull(candidates.get(0).getId());
+        assertNotNull(candidates.get(0).getRegisteredAt());
+        assertNotNull(candidates.get(0).getProcessedAt());
+
+        ArgumentCaptor<Collection<RegisteredEvent>> countedCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(eventRepository).incrementCounters(countedCaptor.capture());
+        assertEquals(List.of(candidates.get(0)), List.copyOf(countedCaptor.getValue()));
+        verify(eventRepository).upsertRollups(countedCaptor.capture());
+        assertEquals(List.of(candidates.get(0)), List.copyOf(countedCaptor.getValue()));
+
+        verify(kafkaTemplate, times(1)).send(eq("events.processed"), responseCaptor.capture());
+        EventResponse response = responseCaptor.getValue();
+        assertEquals(testEventId, response.getOriginalEventId());
+        assertEquals(candidates.get(0).getId(), response.getRegisteredEventId());
+        assertEquals("PROCESSED", response.getStatus());
+    }
+
+    @Test
+    void processEventBatch_WithBatchedConfirmations_ShouldSendOneEnvelopePerBatch() throws Exception {
+
+        UUID secondEventId = UUID.randomUUID();
+        UUID existingEventId = UUID.randomUUID();
+        EventMessage secondEventData = newEventData(secondEventId);
+        EventMessage existingEventData = newEventData(existingEventId);
+        ReflectionTestUtils.setField(eventProcessingService, "batchedConfirmations", true);
+
+        when(eventMessageDecoder.decode(aryEq(bytes("first")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventMessageDecoder.decode(aryEq(bytes("second")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> secondEventData);
+        when(eventMessageDecoder.decode(aryEq(bytes("existing")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> existingEventData);
+        when(eventRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of(testEventId, secondEventId));
+
+        eventProcessingService.processEventBatch(List.of(
+                record(0, "first"), record(1, "existing"), record(2, "second")));
+
+        verify(kafkaTemplate, never()).send(any(), any());
+        ArgumentCaptor<EventConfirmationBatch> envelopeCaptor = ArgumentCaptor.forClass(EventConfirmationBatch.class);
+        verify(confirmationBatchKafkaTemplate, times(1)).send(eq("events.processed"), envelopeCaptor.capture());
+
+        EventConfirmationBatch envelope = envelopeCaptor.getValue();
+        assertEquals("PROCESSED", envelope.getStatus());
+        assertEquals(2, envelope.getConfirmations().size());
+        assertEquals(testEventId, envelope.getConfirmations().get(0).getOriginalEventId());
+        assertEquals(secondEventId, envelope.getConfirmations().get(1).getOriginalEventId());
+        assertNotNull(envelope.getConfirmations().get(0).getRegisteredEventId());
+        assertNotNull(envelope.getConfirmations().get(0).getProcessedAt());
+    }
+
+    @Test
+    void processEvent_WhenCommitFails_ShouldNotConfirmAndShouldRouteToRetry() throws Exception {
+
+        givenCommitFails();
+        when(eventMessageDecoder.decode(aryEq(bytes("event")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
+
+        ConsumerRecord<String, byte[]> record = record(0, "event");
+        eventProcessingService.processEvent(record);
+
         verify(kafkaTemplate, never()).send(any(), any());
+        verify(retryRouter).route(eq(record), any(TransactionSystemException.class));
+        assertNull(eventCache.getByOriginalId(testEventId));
+    }
+
+    @Test
+    void processEventBatch_WhenCommitFails_ShouldNotConfirmAndShouldSendToRetry() throws Exception {
+
+        givenCommitFails();
+        ReflectionTestUtils.setField(eventProcessingService, "batchedConfirmations", true);
+        when(eventMessageDecoder.decode(aryEq(bytes("first")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of(testEventId));
+
+        eventProcessingService.processEventBatch(List.of(record(0, "first")));
+
+        verify(confirmationBatchKafkaTemplate, never()).send(any(), any());
+        verify(retryRouter).retry(any(), any(TransactionSystemException.class));
+    }
+
+    @Test
+    void processEventBatch_WhenAllRecordsInvalid_ShouldNotTouchDatabase() throws Exception {
+
+        when(eventMessageDecoder.decode(aryEq(bytes("invalid-json")), eq(WireFormat.JSON)))
+                .thenThrow(new com.fasterxml.jackson.core.JsonParseException(null, "Invalid JSON"));
+
+        eventProcessingService.processEventBatch(List.of(record(0, "invalid-json")));
+
+        verify(eventRepository, never()).insertAllIfAbsent(anyList());
+        verify(kafkaTemplate, never()).send(any(), any());
+        verify(retryRouter).deadLetter(any(), any());
+    }
+
+    @Test
+    void processEventBatch_WhenDatabaseError_ShouldSendLaneToRetryWithoutResponses() throws Exception {
+
+        ConsumerRecord<String, byte[]> record = record(0, "new");
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventRepository.insertAllIfAbsent(anyList()))
+                .thenThrow(new RuntimeException("Database error"));
+
+        eventProcessingService.processEventBatch(List.of(record));
+
+        verify(eventRepository).insertAllIfAbsent(anyList());
+        verify(kafkaTemplate, never()).send(any(), any());
+        verify(retryRouter).retry(eq(record), any(RuntimeException.class));
+    }
+
+    @Test
+    void processEvent_ShouldRecordStageTimersAndRegistrationLag() throws Exception {
+
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
+
+        eventProcessingService.processEvent(record(0, "new"));
+
+        assertEquals(1, meterRegistry.get("registry.ingest.decode").tag("format", "json").timer().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.dedup.lookup")
+                .tags("eventType", "SYSTEM_EVENT", "serviceName", "event-generator").timer().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.db.insert")
+                .tags("mode", "record", "eventType", "SYSTEM_EVENT", "serviceName", "event-generator").timer().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.kafka.send.ack")
+                .tags("outcome", "success", "eventType", "SYSTEM_EVENT", "serviceName", "event-generator")
+                .timer().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.handler")
+                .tags("mode", "record", "eventType", "SYSTEM_EVENT", "serviceName", "event-generator").timer().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.registered")
+                .tags("eventType", "SYSTEM_EVENT", "serviceName", "event-generator").counter().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.lag")
+                .tags("eventType", "SYSTEM_EVENT", "serviceName", "event-generator").timer().count());
+    }
+
+    @Test
+    void processEventBatch_ShouldCountBatchSizeDuplicatesAndErrors() throws Exception {
+
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventMessageDecoder.decode(aryEq(bytes("invalid-json")), eq(WireFormat.JSON)))
+                .thenThrow(new com.fasterxml.jackson.core.JsonParseException(null, "Invalid JSON"));
+        when(eventRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of());
+
+        eventProcessingService.processEventBatch(List.of(record(0, "new"), record(1, "invalid-json")));
+
+        assertEquals(2.0, meterRegistry.get("registry.ingest.batch.size").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("registry.ingest.errors").tag("stage", "decode").counter().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.duplicates")
+                .tags("eventType", "SYSTEM_EVENT", "serviceName", "event-generator").counter().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.db.insert")
+                .tags("mode", "batch", "eventType", "SYSTEM_EVENT", "serviceName", "event-generator").timer().count());
+        assertEquals(1, meterRegistry.get("registry.ingest.handler")
+                .tags("mode", "batch", "eventType", "SYSTEM_EVENT", "serviceName", "event-generator").timer().count());
+    }
+
+    @Test
+    void processEvent_WhenUndecodable_ShouldTagHandlerTimerUnknown() throws Exception {
+
+        when(eventMessageDecoder.decode(aryEq(bytes("invalid-json")), eq(WireFormat.JSON)))
+                .thenThrow(new com.fasterxml.jackson.core.JsonParseException(null, "Invalid JSON"));
+
+        eventProcessingService.processEvent(record(0, "invalid-json"));
+
+        assertEquals(1, meterRegistry.get("registry.ingest.handler")
+                .tags("mode", "record", "eventType", "unknown", "serviceName", "unknown").timer().count());
+    }
+
+    @Test
+    void processRetry_WhenNotDueYet_ShouldNackWithRemainingDelay() {
+
+        ConsumerRecord<String, byte[]> record = record(0, "new");
+        when(retryRouter.remainingDelayMs(record)).thenReturn(750L);
+
+        eventProcessingService.processRetry(record, acknowledgment);
+
+        verify(acknowledgment).nack(Duration.ofMillis(750));
+        verify(acknowledgment, never()).acknowledge();
+        verifyNoInteractions(eventMessageDecoder, eventRepository);
+    }
+
+    @Test
+    void processRetry_WhenDue_ShouldRegisterAndAcknowledge() throws Exception {
+
+        ConsumerRecord<String, byte[]> record = record(0, "new");
+        when(retryRouter.remainingDelayMs(record)).thenReturn(0L);
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventRepository.insertIfAbsent(any(RegisteredEvent.class))).thenReturn(testRegisteredEventId);
+
+        eventProcessingService.processRetry(record, acknowledgment);
+
+        verify(eventRepository).insertIfAbsent(any());
+        verify(acknowledgment).acknowledge();
+        verify(retryRouter, never()).route(any(), any());
+    }
+
+    @Test
+    void processEvent_WhenIdInRecentCache_ShouldSkipDatabase() throws Exception {
+
+        String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
+
+        eventIdFilter.add(testEventId);
+        eventIdFilter.markWarmedUp();
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+
+        eventProcessingService.processEvent(record(0, eventJson));
+
+        verify(eventRepository, never()).insertIfAbsent(any());
+        verify(kafkaTemplate, never()).send(any(), any());
+        assertEquals(1L, eventIdFilter.getStats().get("cacheHits"));
+    }
+
+    @Test
+    void processEvent_AfterRegistration_ShouldRememberIdForRedelivery() throws Exception {
+
+        String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
+
+        eventIdFilter.markWarmedUp();
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+
+        eventProcessingService.processEvent(record(0, eventJson));
+        eventProcessingService.processEvent(record(0, eventJson));
+
+        verify(eventRepository, times(1)).insert(any());
+        verify(eventRepository, never()).insertIfAbsent(any());
+        verify(kafkaTemplate, times(1)).send(eq("events.processed"), any());
+        assertEquals(1L, eventIdFilter.getStats().get("bloomMisses"));
+        assertEquals(1L, eventIdFilter.getStats().get("cacheHits"));
+    }
+
+    @Test
+    void processEvent_WhenNewIdWasRegisteredElsewhere_ShouldRollBackAsDuplicate() throws Exception {
+
+        String eventJson = "{\"eventId\":\"" + testEventId + "\"}";
+
+        eventIdFilter.markWarmedUp();
+        when(eventMessageDecoder.decode(aryEq(bytes(eventJson)), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        doThrow(new DuplicateKeyException("duplicate key value violates unique constraint"))
+                .when(eventRepository).insert(any(RegisteredEvent.class));
+        SimpleTransactionStatus status = new SimpleTransactionStatus();
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(status);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        eventProcessingService.processEvent(record(0, eventJson));
+
+        assertTrue(status.isRollbackOnly());
+        verify(eventRepository, never()).incrementCounters(any());
+        verify(kafkaTemplate, never()).send(any(), any());
+        verifyNoInteractions(retryRouter);
+        assertEquals(1L, eventIdFilter.getStats().get("missedDuplicates"));
+        assertEquals(OriginalEventIdFilter.Verdict.DUPLICATE, eventIdFilter.check(testEventId));
+    }
+
+    @Test
+    void processEventBatch_ShouldSkipIdsFromRecentCache() throws Exception {
+
+        UUID cachedEventId = UUID.randomUUID();
+        EventMessage cachedEventData = newEventData(cachedEventId);
+        eventIdFilter.add(cachedEventId);
+        eventIdFilter.markWarmedUp();
+
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventMessageDecoder.decode(aryEq(bytes("cached")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> cachedEventData);
+
+        eventProcessingService.processEventBatch(List.of(record(0, "new"), record(1, "cached")));
+
+        ArgumentCaptor<List<RegisteredEvent>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventRepository).insertAll(batchCaptor.capture());
+        assertEquals(1, batchCaptor.getValue().size());
+        assertEquals(testEventId, batchCaptor.getValue().get(0).getOriginalEventId());
+        verify(eventRepository, never()).insertAllIfAbsent(anyList());
+        verify(kafkaTemplate, times(1)).send(eq("events.processed"), any());
+    }
+
+    @Test
+    void processEventBatch_ShouldCheckConflictsOnlyForPossibleDuplicates() throws Exception {
+
+        UUID possibleEventId = UUID.randomUUID();
+        EventMessage possibleEventData = newEventData(possibleEventId);
+        eventIdFilter.addToBloomFilter(possibleEventId);
+        eventIdFilter.markWarmedUp();
+
+        when(eventMessageDecoder.decode(aryEq(bytes("new")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> testEventData);
+        when(eventMessageDecoder.decode(aryEq(bytes("possible")), eq(WireFormat.JSON)))
+                .thenAnswer(invocation -> possibleEventData);
+        when(eventRepository.insertAllIfAbsent(anyList())).thenReturn(Set.of());
+
+        eventProcessingService.processEventBatch(List.of(record(0, "new"), record(1, "possible")));
+
+        ArgumentCaptor<List<RegisteredEvent>> freshCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventRepository).insertAll(freshCaptor.capture());
+        assertEquals(List.of(testEventId),
+                freshCaptor.getValue().stream().map(RegisteredEvent::getOriginalEventId).toList());
+        ArgumentCaptor<List<RegisteredEvent>> unsureCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventRepository).insertAllIfAbsent(unsureCaptor.capture());
+        assertEquals(List.of(possibleEventId),
+                unsureCaptor.getValue().stream().map(RegisteredEvent::getOriginalEventId).toList());
+        assertEquals(1L, eventIdFilter.getStats().get("confirmedDuplicates"));
+        verify(kafkaTemplate, times(1)).send(eq("events.processed"), any());
+    }
+
+    @Test
+    void warmUpDeduplicationFilter_ShouldLoadRegisteredIds() {
+
+        UUID olderId = UUID.randomUUID();
+        ReflectionTestUtils.setField(eventProcessingService, "dedupWarmUpEnabled", true);
+        doAnswer(invocation -> {
+            Consumer<UUID> action = invocation.getArgument(0);
+            action.accept(olderId);
+            action.accept(testEventId);
+            return null;
+        }).when(eventRepository).forEachOriginalEventId(any());
+        when(eventRepository.findRecentOriginalEventIds(100)).thenReturn(List.of(testEventId));
+
+        eventProcessingService.warmUpDeduplicationFilter();
+
+        assertTrue(eventIdFilter.isWarmedUp());
+        assertEquals(OriginalEventIdFilter.Verdict.DUPLICATE, eventIdFilter.check(testEventId));
+        assertEquals(OriginalEventIdFilter.Verdict.POSSIBLE_DUPLICATE, eventIdFilter.check(olderId));
+    }
+
+    /**
+     * Runs the transaction callback with synchronization active, then fails the commit:
+     * afterCommit callbacks are dropped, as they are by a real rollback.
+     */
+    private void givenCommitFails() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                action.accept(new SimpleTransactionStatus());
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+            throw new TransactionSystemException("Could not commit JDBC transaction");
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, String value) {
+        return new ConsumerRecord<>("events.created", 0, offset, null, bytes(value));
+    }
+
+    private RegisteredEventSummary summaryAt(LocalDateTime createdAt) {
+        return new RegisteredEventSummary(UUID.randomUUID(), UUID.randomUUID(), "SYSTEM_EVENT", "event-generator",
+                createdAt, createdAt, createdAt);
+    }
+
+    private RegisteredEvent registeredEventAt(LocalDateTime createdAt) {
+        RegisteredEvent event = new RegisteredEvent();
+        event.setId(UUID.randomUUID());
+        event.setOriginalEventId(UUID.randomUUID());
+        event.setCreatedAt(createdAt);
+        return event;
+    }
+
+    private byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private EventMessage newEventData(UUID eventId) {
+        return new EventMessage(eventId, "SYSTEM_EVENT", "event-generator", "Test payload", testCreatedAt);
+    }
+
+    private EventCounts countsOf(List<String> eventTypes, List<String> serviceNames) {
+        Map<String, Long> byEventType = new TreeMap<>();
+        eventTypes.forEach(type -> byEventType.put(type, 1L));
+        Map<String, Long> byServiceName = new TreeMap<>();
+        serviceNames.forEach(name -> byServiceName.put(name, 1L));
+        return new EventCounts(eventTypes.size(), byEventType, byServiceName);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,202 @@
+package org.example.eventregistry.stream;
+
+import org.example.eventregistry.dto.RegisteredEventSummary;
+import org.example.eventregistry.entity.RegisteredEvent;
+import org.example.eventregistry.stream.RegisteredEventStream.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegisteredEventStreamTest {
+
+    // Sender tasks only run when the test says so, like a client that has not read yet.
+    private final List<Runnable> pendingSends = new ArrayList<>();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @Test
+    void publish_ShouldSendMatchingEventsInOrderAsSummaries() {
+        RegisteredEventStream stream = stream(10, OverflowPolicy.DROP_OLDEST);
+        stream.subscribe("SYSTEM_EVENT", null, false);
+
+        RegisteredEvent first = event("SYSTEM_EVENT", "event-generator");
+        RegisteredEvent other = event("USER_EVENT", "event-generator");
+        RegisteredEvent second = event("SYSTEM_EVENT", "billing");
+        stream.publish(List.of(first, other));
+        stream.publish(List.of(second));
+        runPendingSends();
+
+        List<Sent> sent = emitters.getFirst().sent;
+        assertEquals(List.of("registered", "registered"), sent.stream().map(Sent::name).toList());
+        RegisteredEventSummary summary = (RegisteredEventSummary) sent.get(0).data();
+        assertEquals(first.getId(), summary.id());
+        assertEquals(second.getId(), ((RegisteredEventSummary) sent.get(1).data()).id());
+        assertEquals(2L, stream.getStats().get("delivered"));
+    }
+
+    @Test
+    void publish_WhenQueueOverflowsWithDropOldest_ShouldReportDroppedAndKeepNewest() {
+        RegisteredEventStream stream = stream(2, OverflowPolicy.DROP_OLDEST);
+        stream.subscribe(null, null, true);
+
+        List<RegisteredEvent> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(event("SYSTEM_EVENT", "event-generator"));
+            stream.publish(List.of(events.get(i)));
+        }
+        runPendingSends();
+
+        List<Sent> sent = emitters.getFirst().sent;
+        assertEquals(List.of("dropped", "registered", "registered"), sent.stream().map(Sent::name).toList());
+        assertEquals(Map.of("count", 3), sent.get(0).data());
+        assertSame(events.get(3), sent.get(1).data());
+        assertSame(events.get(4), sent.get(2).data());
+        assertEquals(3L, stream.getStats().get("dropped"));
+    }
+
+    @Test
+    void publish_WhenQueueOverflowsWithDisconnect_ShouldEndTheStream() {
+        RegisteredEventStream stream = stream(2, OverflowPolicy.DISCONNECT);
+        stream.subscribe(null, null, false);
+
+        for (int i = 0; i < 3; i++) {
+            stream.publish(List.of(event("SYSTEM_EVENT", "event-generator")));
+        }
+        runPendingSends();
+
+        assertTrue(emitters.getFirst().sent.isEmpty());
+        assertEquals(1L, stream.getStats().get("disconnected"));
+        assertEquals(0, stream.getStats().get("subscribers"));
+    }
+
+    @Test
+    void subscribe_WhenLimitReached_ShouldRefuse() {
+        RegisteredEventStream stream = new RegisteredEventStream(
+                pendingSends::add, 10, 1, OverflowPolicy.DROP_OLDEST, 0L, RecordingEmitter::new);
+
+        assertNotNull(stream.subscribe(null, null, false));
+        assertNull(stream.subscribe(null, null, false));
+    }
+
+    @Test
+    void subscribe_ConcurrentlyAtTheLimit_ShouldNeverExceedIt() throws Exception {
+        // A slow emitter factory keeps every connect busy between the limit check and registration.
+        RegisteredEventStream stream = new RegisteredEventStream(
+                pendingSends::add, 10, 5, OverflowPolicy.DROP_OLDEST, 0L, timeout -> {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+                    return new RecordingEmitter(timeout);
+                });
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<SseEmitter>> connects = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                connects.add(clients.submit(() -> {
+                    start.await();
+                    return stream.subscribe(null, null, false);
+                }));
+            }
+            start.countDown();
+
+            int accepted = 0;
+            for (Future<SseEmitter> connect : connects) {
+                accepted += connect.get() != null ? 1 : 0;
+            }
+            assertEquals(5, accepted);
+            assertEquals(5, stream.getStats().get("subscribers"));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void subscribe_AfterSubscriberWasDisconnected_ShouldReuseItsSlot() {
+        RegisteredEventStream stream = new RegisteredEventStream(
+                pendingSends::add, 1, 1, OverflowPolicy.DISCONNECT, 0L, RecordingEmitter::new);
+        stream.subscribe(null, null, false);
+        assertNull(stream.subscribe(null, null, false));
+
+        stream.publish(List.of(event("SYSTEM_EVENT", "event-generator"), event("SYSTEM_EVENT", "event-generator")));
+        runPendingSends();
+
+        assertNotNull(stream.subscribe(null, null, false));
+    }
+
+    @Test
+    void heartbeat_WhenDueWhileSending_ShouldBeSentWithoutWaitingForTheNextTick() {
+        RegisteredEventStream stream = stream(10, OverflowPolicy.DROP_OLDEST);
+        stream.subscribe(null, null, false);
+        RecordingEmitter emitter = emitters.getFirst();
+        // The next tick fires while the first heartbeat is being written.
+        emitter.duringNextSend = stream::heartbeat;
+
+        stream.heartbeat();
+        runPendingSends();
+
+        assertEquals(2, emitter.sent.size());
+        assertNull(emitter.sent.get(1).name());
+    }
+
+    private RegisteredEventStream stream(int queueCapacity, OverflowPolicy overflowPolicy) {
+        return new RegisteredEventStream(pendingSends::add, queueCapacity, 10, overflowPolicy, 0L, timeout -> {
+            RecordingEmitter emitter = new RecordingEmitter(timeout);
+            emitters.add(emitter);
+            return emitter;
+        });
+    }
+
+    private void runPendingSends() {
+        while (!pendingSends.isEmpty()) {
+            pendingSends.removeFirst().run();
+        }
+    }
+
+    private static RegisteredEvent event(String eventType, String serviceName) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        return new RegisteredEvent(UUID.randomUUID(), UUID.randomUUID(), eventType, serviceName,
+                "payload", now, now, now);
+    }
+
+    private record Sent(String name, Object data) {
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final List<Sent> sent = new ArrayList<>();
+        Runnable duringNextSend;
+
+        RecordingEmitter(Long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (duringNextSend != null) {
+                Runnable hook = duringNextSend;
+                duringNextSend = null;
+                hook.run();
+            }
+            // The builder yields the "event:" / "id:" lines as text, then the data object.
+            Iterator<DataWithMediaType> parts = builder.build().iterator();
+            String head = (String) parts.next().getData();
+            String name = head.lines().filter(line -> line.startsWith("event:"))
+                    .map(line -> line.substring("event:".length())).findFirst().orElse(null);
+            Object data = parts.hasNext() ? parts.next().getData() : null;
+            sent.add(new Sent(name, data));
+        }
+    }
+}